@@ -0,0 +1,215 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.benchmark;
+
+import sharkhendrix.sharkecs.*;
+import sharkhendrix.sharkecs.annotation.Inject;
+import sharkhendrix.sharkecs.annotation.SortEntities;
+import sharkhendrix.sharkecs.annotation.With;
+import sharkhendrix.sharkecs.builder.EngineBuilder;
+import sharkhendrix.sharkecs.system.IteratingSystem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <p>
+ * Engine setup shared by the benchmarks, parameterized by entity count and
+ * archetype count.
+ * <p>
+ * All archetypes have the component {@link C0}, the archetype {@code i} also
+ * has the components {@code C1..C7} matching the bits of {@code i}, so up to
+ * 128 archetypes can be declared. Each archetype {@code i} has a transmutation
+ * to the archetype {@code i + 1} (modulo the archetype count).
+ */
+public class BenchmarkWorld {
+
+    public static final int MAX_ARCHETYPE_COUNT = 128;
+
+    public static class C0 {
+        public float value;
+    }
+
+    public static class C1 {
+        public float value;
+    }
+
+    public static class C2 {
+        public float value;
+    }
+
+    public static class C3 {
+        public float value;
+    }
+
+    public static class C4 {
+        public float value;
+    }
+
+    public static class C5 {
+        public float value;
+    }
+
+    public static class C6 {
+        public float value;
+    }
+
+    public static class C7 {
+        public float value;
+    }
+
+    private static final Class<?>[] OPTIONAL_COMPONENTS = {C1.class, C2.class, C3.class, C4.class, C5.class,
+            C6.class, C7.class};
+
+    @With(C0.class)
+    public static class SumSystem extends IteratingSystem {
+
+        private ComponentMapper<C0> c0Mapper;
+        private float sum;
+
+        @Override
+        protected void process(int entity) {
+            sum += c0Mapper.get(entity).value;
+        }
+
+        public float getSum() {
+            return sum;
+        }
+
+        public void setC0Mapper(ComponentMapper<C0> c0Mapper) {
+            this.c0Mapper = c0Mapper;
+        }
+    }
+
+    @With(C0.class)
+    @SortEntities("byValue")
+    @Inject(injectParent = true)
+    public static class SortedSumSystem extends SumSystem {
+    }
+
+    private EngineBuilder builder;
+    private Engine engine;
+    private EntityManager entityManager;
+    private Archetype[] archetypes;
+    private ArrayComponentMapper<C0> c0Mapper;
+    private Random random = new Random(42);
+
+    /**
+     * Creates an engine with the given archetype count, and the given processors.
+     *
+     * @param entityCount    the expected entity count
+     * @param archetypeCount the archetype count, at most {@link #MAX_ARCHETYPE_COUNT}
+     * @param processors     the additional processors
+     */
+    public BenchmarkWorld(int entityCount, int archetypeCount, Processor... processors) {
+        builder = createBuilder(entityCount, archetypeCount);
+        for (Processor processor : processors) {
+            builder.with(processor);
+        }
+        engine = builder.build();
+        entityManager = builder.getRegistrations().get(EntityManager.class);
+        archetypes = new Archetype[archetypeCount];
+        for (int i = 0; i < archetypeCount; i++) {
+            archetypes[i] = builder.getRegistrations().get(Archetype.class, archetypeName(i));
+        }
+    }
+
+    /**
+     * Creates a not yet built engine builder with the given archetype count.
+     *
+     * @param entityCount    the expected entity count
+     * @param archetypeCount the archetype count, at most {@link #MAX_ARCHETYPE_COUNT}
+     * @return the engine builder
+     */
+    public static EngineBuilder createBuilder(int entityCount, int archetypeCount) {
+        if (archetypeCount < 1 || archetypeCount > MAX_ARCHETYPE_COUNT) {
+            throw new IllegalArgumentException("archetypeCount must be in [1, " + MAX_ARCHETYPE_COUNT + "]");
+        }
+        ArrayComponentMapper<C0> c0Mapper = new ArrayComponentMapper<>(entityCount, C0::new);
+        EngineBuilder builder = EngineBuilder.withDefaults(entityCount)
+                .defaultComponentCreationPolicy(Archetype.ComponentCreationPolicy.AUTOMATIC)
+                .component(C0.class, c0Mapper)
+                .component(C1.class, C1::new)
+                .component(C2.class, C2::new)
+                .component(C3.class, C3::new)
+                .component(C4.class, C4::new)
+                .component(C5.class, C5::new)
+                .component(C6.class, C6::new)
+                .component(C7.class, C7::new)
+                .entitySort("byValue", (e1, e2) -> Float.compare(c0Mapper.get(e1).value, c0Mapper.get(e2).value));
+        for (int i = 0; i < archetypeCount; i++) {
+            List<Class<?>> composition = new ArrayList<>();
+            composition.add(C0.class);
+            for (int bit = 0; bit < OPTIONAL_COMPONENTS.length; bit++) {
+                if ((i & 1 << bit) != 0) {
+                    composition.add(OPTIONAL_COMPONENTS[bit]);
+                }
+            }
+            builder.archetype(archetypeName(i), composition.toArray(new Class<?>[0]));
+        }
+        if (archetypeCount > 1) {
+            for (int i = 0; i < archetypeCount; i++) {
+                builder.transmutation(archetypeName(i), archetypeName((i + 1) % archetypeCount));
+            }
+        }
+        return builder;
+    }
+
+    /**
+     * Creates the given number of entities, spread over all archetypes, with
+     * random {@link C0} values, and processes the engine once.
+     *
+     * @param entityCount the number of entity to create
+     */
+    public void populate(int entityCount) {
+        c0Mapper = builder.getRegistrations().get(ArrayComponentMapper.class, C0.class);
+        for (int i = 0; i < entityCount; i++) {
+            int entity = entityManager.create(archetypes[i % archetypes.length]);
+            c0Mapper.get(entity).value = random.nextFloat();
+        }
+        engine.process();
+    }
+
+    /**
+     * Slightly changes the {@link C0} values, as a moving entity would do.
+     */
+    public void shake(int entityCount) {
+        for (int i = 0; i < entityCount; i++) {
+            C0 c0 = c0Mapper.getIfExists(i);
+            if (c0 != null) {
+                c0.value += random.nextFloat() * 0.01f - 0.005f;
+            }
+        }
+    }
+
+    public static String archetypeName(int index) {
+        return "a" + index;
+    }
+
+    public Engine getEngine() {
+        return engine;
+    }
+
+    public EntityManager getEntityManager() {
+        return entityManager;
+    }
+
+    public Archetype[] getArchetypes() {
+        return archetypes;
+    }
+}
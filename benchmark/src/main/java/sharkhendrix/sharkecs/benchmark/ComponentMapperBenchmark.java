@@ -0,0 +1,67 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import sharkhendrix.sharkecs.ArrayComponentMapper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ArrayComponentMapper} get and create throughput. The archetype count
+ * spreads the components over the id space: only one entity out of
+ * {@code archetypeCount} has the component.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComponentMapperBenchmark {
+
+    @Param({"1000", "100000"})
+    private int entityCount;
+
+    @Param({"1", "16"})
+    private int archetypeCount;
+
+    private ArrayComponentMapper<BenchmarkWorld.C0> mapper;
+
+    @Setup
+    public void setup() {
+        mapper = new ArrayComponentMapper<>(entityCount, BenchmarkWorld.C0::new);
+        for (int entity = 0; entity < entityCount; entity += archetypeCount) {
+            mapper.create(entity);
+        }
+    }
+
+    @Benchmark
+    public void get(Blackhole blackhole) {
+        for (int entity = 0; entity < entityCount; entity += archetypeCount) {
+            blackhole.consume(mapper.get(entity));
+        }
+    }
+
+    @Benchmark
+    public void create() {
+        for (int entity = 0; entity < entityCount; entity += archetypeCount) {
+            mapper.create(entity);
+        }
+    }
+}
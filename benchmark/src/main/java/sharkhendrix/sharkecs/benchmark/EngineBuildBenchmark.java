@@ -0,0 +1,49 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import sharkhendrix.sharkecs.Engine;
+import sharkhendrix.sharkecs.builder.EngineBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link EngineBuilder#build()} time, including the builder declarations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EngineBuildBenchmark {
+
+    @Param({"1000", "100000"})
+    private int entityCount;
+
+    @Param({"1", "16", "128"})
+    private int archetypeCount;
+
+    @Benchmark
+    public Engine build() {
+        return BenchmarkWorld.createBuilder(entityCount, archetypeCount)
+                .with(new BenchmarkWorld.SumSystem())
+                .with(new BenchmarkWorld.SortedSumSystem())
+                .build();
+    }
+}
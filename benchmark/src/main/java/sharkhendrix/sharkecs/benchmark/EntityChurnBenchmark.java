@@ -0,0 +1,72 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import sharkhendrix.sharkecs.Archetype;
+import sharkhendrix.sharkecs.EntityManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity create / remove churn through {@link EntityManager#process()}: each
+ * invocation removes a tenth of the entities and creates as many.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityChurnBenchmark {
+
+    @Param({"1000", "100000"})
+    private int entityCount;
+
+    @Param({"1", "16"})
+    private int archetypeCount;
+
+    private BenchmarkWorld world;
+    private EntityManager entityManager;
+    private Archetype[] archetypes;
+    private int[] entities;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        world = new BenchmarkWorld(entityCount, archetypeCount);
+        entityManager = world.getEntityManager();
+        archetypes = world.getArchetypes();
+        entities = new int[entityCount];
+        for (int i = 0; i < entityCount; i++) {
+            entities[i] = entityManager.create(archetypes[i % archetypes.length]);
+        }
+        entityManager.process();
+    }
+
+    @Benchmark
+    public void churn() {
+        int churnCount = entityCount / 10;
+        for (int i = 0; i < churnCount; i++) {
+            int index = cursor;
+            entityManager.remove(entities[index]);
+            entities[index] = entityManager.create(archetypes[index % archetypes.length]);
+            cursor = (cursor + 1) % entityCount;
+        }
+        entityManager.process();
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package sharkhendrix.sharkecs.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import sharkhendrix.sharkecs.util.IntComparator;
+import sharkhendrix.sharkecs.util.IntSort;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Quadratic baseline of {@link SortBenchmark}: the insertion sort previously
+ * used by {@code SortableIntArrayList}, on lists small enough to keep an
+ * invocation within a second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InsertionSortBenchmark {
+
+    @Param({"5000", "50000"})
+    private int entityCount;
+
+    @Param({"1", "10"})
+    private int movedPercent;
+
+    private float[] depths;
+    private int[] sortedEntities;
+    private float[] movedDepths;
+    private int[] entities;
+    private IntComparator comparator;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        depths = new float[entityCount];
+        sortedEntities = new int[entityCount];
+        movedDepths = new float[entityCount];
+        for (int i = 0; i < entityCount; i++) {
+            sortedEntities[i] = i;
+            depths[i] = i;
+            movedDepths[i] = random.nextInt(100) < movedPercent ? random.nextFloat() * entityCount : i;
+        }
+        entities = new int[entityCount];
+        comparator = (e1, e2) -> Float.compare(depths[e1], depths[e2]);
+    }
+
+    @Benchmark
+    public int[] insertionSort() {
+        System.arraycopy(sortedEntities, 0, entities, 0, entityCount);
+        System.arraycopy(movedDepths, 0, depths, 0, entityCount);
+        IntSort.insertionSort(entities, 0, entityCount, comparator);
+        return entities;
+    }
+}
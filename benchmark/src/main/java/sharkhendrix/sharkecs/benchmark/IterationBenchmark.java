@@ -0,0 +1,76 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import sharkhendrix.sharkecs.subscription.SortedTrackingSubscription;
+import sharkhendrix.sharkecs.subscription.TrackingSubscription;
+import sharkhendrix.sharkecs.system.IteratingSystem;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link IteratingSystem} iteration over a {@link TrackingSubscription} versus a
+ * {@link SortedTrackingSubscription}. Before each invocation of both
+ * variants, the entities are slightly shaken and the entity manager is
+ * processed, outside of the measurement. The sorted variant then includes the
+ * sort of the shaken entities.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IterationBenchmark {
+
+    @Param({"1000", "100000"})
+    private int entityCount;
+
+    @Param({"1", "16"})
+    private int archetypeCount;
+
+    private BenchmarkWorld world;
+    private BenchmarkWorld.SumSystem sumSystem;
+    private BenchmarkWorld.SortedSumSystem sortedSumSystem;
+
+    @Setup
+    public void setup() {
+        sumSystem = new BenchmarkWorld.SumSystem();
+        sortedSumSystem = new BenchmarkWorld.SortedSumSystem();
+        world = new BenchmarkWorld(entityCount, archetypeCount, sumSystem, sortedSumSystem);
+        world.populate(entityCount);
+    }
+
+    @Setup(Level.Invocation)
+    public void shake() {
+        world.shake(entityCount);
+        world.getEntityManager().process();
+    }
+
+    @Benchmark
+    public float tracking() {
+        sumSystem.process();
+        return sumSystem.getSum();
+    }
+
+    @Benchmark
+    public float sortedTracking() {
+        sortedSumSystem.process();
+        return sortedSumSystem.getSum();
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import sharkhendrix.sharkecs.util.FloatKeyComparator;
+import sharkhendrix.sharkecs.util.IntComparator;
+import sharkhendrix.sharkecs.util.IntSort;
+import sharkhendrix.sharkecs.util.ParallelIntSort;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sort of a depth-sorted entity list after a frame where a percentage of the
+ * entities moved to a random depth, comparing the algorithms of
+ * {@link IntSort}. The quadratic insertion sort, previously used by
+ * {@code SortableIntArrayList}, is measured on smaller lists by
+ * {@link InsertionSortBenchmark}.
+ * <p>
+ * Each benchmark restores the unsorted list itself, since a
+ * {@link Level#Invocation} setup is unreliable for sub-millisecond
+ * invocations. {@code restoreOnly} measures the cost of this restore.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SortBenchmark {
+
+    @Param({"50000", "500000"})
+    private int entityCount;
+
+    @Param({"1", "10", "100"})
+    private int movedPercent;
+
+    private float[] depths;
+    private int[] sortedEntities;
+    private float[] movedDepths;
+    private int[] entities;
+    private IntComparator comparator;
+    private FloatKeyComparator keyComparator;
+    private IntSort sort;
+    private ForkJoinPool pool;
+    private ParallelIntSort parallelSort;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        depths = new float[entityCount];
+        sortedEntities = new int[entityCount];
+        movedDepths = new float[entityCount];
+        for (int i = 0; i < entityCount; i++) {
+            sortedEntities[i] = i;
+            depths[i] = i;
+            movedDepths[i] = random.nextInt(100) < movedPercent ? random.nextFloat() * entityCount : i;
+        }
+        entities = new int[entityCount];
+        comparator = (e1, e2) -> Float.compare(depths[e1], depths[e2]);
+        keyComparator = e -> depths[e];
+        sort = new IntSort();
+        pool = new ForkJoinPool();
+        parallelSort = new ParallelIntSort(pool, 2);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    private void restore() {
+        System.arraycopy(sortedEntities, 0, entities, 0, entityCount);
+        System.arraycopy(movedDepths, 0, depths, 0, entityCount);
+    }
+
+    @Benchmark
+    public int[] restoreOnly() {
+        restore();
+        return entities;
+    }
+
+    @Benchmark
+    public int[] mergeSort() {
+        restore();
+        sort.mergeSort(entities, 0, entityCount, comparator);
+        return entities;
+    }
+
+    @Benchmark
+    public int[] radixSort() {
+        restore();
+        sort.radixSortByFloat(entities, 0, entityCount, keyComparator);
+        return entities;
+    }
+
+    @Benchmark
+    public int[] parallelSort() {
+        restore();
+        parallelSort.sort(entities, 0, entityCount, comparator);
+        return entities;
+    }
+
+    @Benchmark
+    public int[] adaptiveSort() {
+        restore();
+        sort.sort(entities, 0, entityCount, keyComparator);
+        return entities;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import sharkhendrix.sharkecs.Archetype;
+import sharkhendrix.sharkecs.EntityManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mass spawn of entities of one archetype, through single creations or
+ * {@link EntityManager#createBatch(Archetype, int, java.util.function.IntConsumer)},
+ * followed by their removal.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpawnBenchmark {
+
+    @Param({"5000"})
+    private int spawnCount;
+
+    private EntityManager entityManager;
+    private Archetype archetype;
+    private int[] entities;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        BenchmarkWorld world = new BenchmarkWorld(spawnCount, 1);
+        entityManager = world.getEntityManager();
+        archetype = world.getArchetypes()[0];
+        entities = new int[spawnCount];
+    }
+
+    @Benchmark
+    public void create() {
+        for (int i = 0; i < spawnCount; i++) {
+            entities[i] = entityManager.create(archetype);
+        }
+        entityManager.process();
+        removeAll();
+    }
+
+    @Benchmark
+    public void createBatch() {
+        cursor = 0;
+        entityManager.createBatch(archetype, spawnCount, id -> entities[cursor++] = id);
+        entityManager.process();
+        removeAll();
+    }
+
+    private void removeAll() {
+        for (int i = 0; i < spawnCount; i++) {
+            entityManager.remove(entities[i]);
+        }
+        entityManager.process();
+    }
+}
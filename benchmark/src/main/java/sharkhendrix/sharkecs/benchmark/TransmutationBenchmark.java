@@ -0,0 +1,62 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import sharkhendrix.sharkecs.Archetype;
+import sharkhendrix.sharkecs.EntityManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transmutation throughput: each invocation transmutes every entity to the
+ * next archetype and processes the {@link EntityManager}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransmutationBenchmark {
+
+    @Param({"1000", "100000"})
+    private int entityCount;
+
+    @Param({"2", "16"})
+    private int archetypeCount;
+
+    private EntityManager entityManager;
+    private Archetype[] archetypes;
+
+    @Setup
+    public void setup() {
+        BenchmarkWorld world = new BenchmarkWorld(entityCount, archetypeCount);
+        world.populate(entityCount);
+        entityManager = world.getEntityManager();
+        archetypes = world.getArchetypes();
+    }
+
+    @Benchmark
+    public void transmute() {
+        for (int entity = 0; entity < entityCount; entity++) {
+            Archetype archetype = entityManager.archetypeOf(entity);
+            entityManager.transmute(entity, archetypes[(archetype.getId() + 1) % archetypes.length]);
+        }
+        entityManager.process();
+    }
+}
@@ -21,6 +21,7 @@ import sharkhendrix.sharkecs.annotation.SkipInject;
 import sharkhendrix.sharkecs.builder.EngineConfigurationException;
 import sharkhendrix.sharkecs.subscription.Subscription;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.IdentityHashMap;
 import java.util.Map;
@@ -72,6 +73,7 @@ public class Archetype {
     private Transmutation[] transmutations;
     private Map<Class<?>, Transmutation> additiveTransmutations;
     private Map<Class<?>, Transmutation> suppressiveTransmutations;
+    private long[] compositionMask;
     private boolean configured;
 
     public Archetype(String name, Class<?>... componentTypes) {
@@ -166,6 +168,23 @@ public class Archetype {
         return compositionSet;
     }
 
+    /**
+     * @return the component composition of the archetype as a bitset of the
+     * {@link ComponentIndex}
+     */
+    public long[] getCompositionMask() {
+        return compositionMask;
+    }
+
+    /**
+     * @param compositionMask
+     * @throws IllegalStateException if this archetype configuration is already done
+     */
+    public void setCompositionMask(long[] compositionMask) {
+        checkConfigured();
+        this.compositionMask = compositionMask;
+    }
+
     public int getId() {
         return id;
     }
@@ -192,6 +211,42 @@ public class Archetype {
         this.subscriptions = subscriptions;
     }
 
+    /**
+     * Adds a runtime query subscription, bypassing the configured check.
+     *
+     * @param subscription the subscription to add
+     */
+    void addQuerySubscription(Subscription subscription) {
+        subscriptions = append(subscriptions, subscription);
+    }
+
+    /**
+     * Removes a runtime query subscription, bypassing the configured check.
+     *
+     * @param subscription the subscription to remove
+     */
+    void removeQuerySubscription(Subscription subscription) {
+        subscriptions = remove(subscriptions, subscription);
+    }
+
+    static Subscription[] append(Subscription[] subscriptions, Subscription subscription) {
+        Subscription[] result = Arrays.copyOf(subscriptions, subscriptions.length + 1);
+        result[subscriptions.length] = subscription;
+        return result;
+    }
+
+    static Subscription[] remove(Subscription[] subscriptions, Subscription subscription) {
+        for (int i = 0; i < subscriptions.length; i++) {
+            if (subscriptions[i] == subscription) {
+                Subscription[] result = new Subscription[subscriptions.length - 1];
+                System.arraycopy(subscriptions, 0, result, 0, i);
+                System.arraycopy(subscriptions, i + 1, result, i, result.length - i);
+                return result;
+            }
+        }
+        return subscriptions;
+    }
+
     public ComponentMapper<Object>[] getComponentMappers() {
         return componentMappers;
     }
@@ -16,14 +16,22 @@
 
 package sharkhendrix.sharkecs;
 
+import sharkhendrix.sharkecs.builder.EngineConfigurationException;
 import sharkhendrix.sharkecs.util.Bag;
+import sharkhendrix.sharkecs.util.PagedBag;
 
 import java.util.function.Supplier;
 
 /**
+ * <p>
  * Simplest and fastest implementation of {@link ComponentMapper}, but has the
  * worst memory print, especially for components that are rare among all
  * entities.
+ * <p>
+ * Optionally, removed components are pooled and reused by
+ * {@link #create(int)}, avoiding allocations for frequently created
+ * components. Pooled components implementing {@link Resettable} are reset when
+ * removed. Components replaced via {@link #put(int, Object)} are not pooled.
  *
  * @param <T> the component type
  */
@@ -31,20 +39,90 @@ public class ArrayComponentMapper<T> implements ComponentMapper<T> {
 
     private Bag<T> components;
     private Supplier<? extends T> newInstanceSupplier;
+    private Bag<T> pool;
+    private int maxPoolSize;
+    private long poolHits;
+    private long poolMisses;
 
     public ArrayComponentMapper(int initialCapacity, Supplier<? extends T> newInstanceSupplier) {
-        components = new Bag<>(initialCapacity);
+        this(new Bag<>(initialCapacity), newInstanceSupplier);
+    }
+
+    /**
+     * Creates a component mapper storing its components in the given bag, such
+     * as a {@link PagedBag}.
+     *
+     * @param components          the empty bag storing the components by entity
+     * @param newInstanceSupplier the supplier of new components
+     */
+    public ArrayComponentMapper(Bag<T> components, Supplier<? extends T> newInstanceSupplier) {
+        this.components = components;
         this.newInstanceSupplier = newInstanceSupplier;
     }
 
+    /**
+     * Creates a pooled component mapper.
+     *
+     * @param initialCapacity     the initial capacity of the component array
+     * @param newInstanceSupplier the supplier of new components
+     * @param maxPoolSize         the maximum number of pooled components, removed
+     *                            components are dropped when the pool is full
+     */
+    public ArrayComponentMapper(int initialCapacity, Supplier<? extends T> newInstanceSupplier, int maxPoolSize) {
+        this(new Bag<>(initialCapacity), newInstanceSupplier, maxPoolSize, initialCapacity);
+    }
+
+    /**
+     * Creates a pooled component mapper storing its components in the given
+     * bag, such as a {@link PagedBag}.
+     *
+     * @param components          the empty bag storing the components by entity
+     * @param newInstanceSupplier the supplier of new components
+     * @param maxPoolSize         the maximum number of pooled components, removed
+     *                            components are dropped when the pool is full
+     */
+    public ArrayComponentMapper(Bag<T> components, Supplier<? extends T> newInstanceSupplier, int maxPoolSize) {
+        this(components, newInstanceSupplier, maxPoolSize, 16);
+    }
+
+    private ArrayComponentMapper(Bag<T> components, Supplier<? extends T> newInstanceSupplier, int maxPoolSize,
+                                 int initialPoolCapacity) {
+        this(components, newInstanceSupplier);
+        if (maxPoolSize < 1) {
+            throw new EngineConfigurationException("maxPoolSize must be greater than zero");
+        }
+        this.maxPoolSize = maxPoolSize;
+        pool = new Bag<>(Math.min(initialPoolCapacity, maxPoolSize));
+    }
 
     @Override
     public T create(int entity) {
-        T component = newInstanceSupplier.get();
+        T component;
+        if (pool == null) {
+            component = newInstanceSupplier.get();
+        } else if (pool.isEmpty()) {
+            poolMisses++;
+            component = newInstanceSupplier.get();
+        } else {
+            poolHits++;
+            component = pool.removeLast();
+        }
         components.put(entity, component);
         return component;
     }
 
+    @Override
+    public void createRange(int fromEntity, int toEntity) {
+        if (fromEntity >= toEntity) {
+            return;
+        }
+        // Grows the backing array once for the whole range
+        components.put(toEntity - 1, null);
+        for (int entity = fromEntity; entity < toEntity; entity++) {
+            create(entity);
+        }
+    }
+
     @Override
     public void put(int entity, T component) {
         components.put(entity, component);
@@ -52,9 +130,32 @@ public class ArrayComponentMapper<T> implements ComponentMapper<T> {
 
     @Override
     public void remove(int entity) {
+        if (pool != null && pool.size() < maxPoolSize) {
+            T component = components.get(entity);
+            if (component != null) {
+                if (component instanceof Resettable resettable) {
+                    resettable.reset();
+                }
+                pool.add(component);
+            }
+        }
         components.unsafeSet(entity, null);
     }
 
+    @Override
+    public void move(int fromEntity, int toEntity) {
+        T component = components.getOrNull(fromEntity);
+        if (component != null) {
+            components.put(toEntity, component);
+            components.unsafeSet(fromEntity, null);
+        }
+    }
+
+    @Override
+    public void shrink(int capacity) {
+        components.shrink(capacity);
+    }
+
     @Override
     public T get(int entity) {
         return components.get(entity);
@@ -65,4 +166,33 @@ public class ArrayComponentMapper<T> implements ComponentMapper<T> {
         return components.getOrNull(entity);
     }
 
+    /**
+     * @return true if removed components are pooled
+     */
+    public boolean isPooled() {
+        return pool != null;
+    }
+
+    /**
+     * @return the number of pooled components available for reuse
+     */
+    public int getPoolSize() {
+        return pool == null ? 0 : pool.size();
+    }
+
+    /**
+     * @return the number of {@link #create(int)} calls that reused a pooled
+     * component
+     */
+    public long getPoolHits() {
+        return poolHits;
+    }
+
+    /**
+     * @return the number of {@link #create(int)} calls of a pooled mapper that
+     * had to allocate a new component
+     */
+    public long getPoolMisses() {
+        return poolMisses;
+    }
 }
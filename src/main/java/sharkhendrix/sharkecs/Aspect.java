@@ -20,7 +20,10 @@ import sharkhendrix.sharkecs.annotation.With;
 import sharkhendrix.sharkecs.annotation.WithAny;
 import sharkhendrix.sharkecs.annotation.Without;
 import sharkhendrix.sharkecs.subscription.Subscriber;
+import sharkhendrix.sharkecs.util.Bits;
 
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.BiPredicate;
@@ -44,12 +47,23 @@ import java.util.stream.Stream;
  * <p>
  * If the given class does not have any of these annotations, the assumed Aspect
  * will match with all possible composition.
+ * <p>
+ * Aspects of runtime queries, see {@link EntityManager#query(Aspect)}, are
+ * built with {@link #all()} followed by {@link #with(Class...)},
+ * {@link #withAny(Class...)} and {@link #without(Class...)}.
+ * <p>
+ * Once indexed via {@link #index(ComponentIndex)}, the aspect is also
+ * represented as bitsets, allowing fast matching of composition masks via
+ * {@link #matches(long[])}.
  */
 public class Aspect {
 
     private Set<Class<?>> with;
     private Set<Class<?>> withAny;
     private Set<Class<?>> without;
+    private long[] withMask;
+    private long[] withAnyMask;
+    private long[] withoutMask;
 
     /**
      * Creates a new Aspect using annotations present on the given class.
@@ -65,6 +79,61 @@ public class Aspect {
         without = withoutAnnotation != null ? Set.of(withoutAnnotation.value()) : null;
     }
 
+    private Aspect(Set<Class<?>> with, Set<Class<?>> withAny, Set<Class<?>> without) {
+        this.with = with;
+        this.withAny = withAny;
+        this.without = without;
+    }
+
+    /**
+     * @return an aspect matching with all possible composition
+     */
+    public static Aspect all() {
+        return new Aspect(null, null, null);
+    }
+
+    /**
+     * @param componentTypes the component types to add to the {@link With} types
+     * @return a new aspect, equal to this one with the given {@link With} types
+     */
+    public Aspect with(Class<?>... componentTypes) {
+        return new Aspect(union(with, componentTypes), withAny, without);
+    }
+
+    /**
+     * @param componentTypes the component types to add to the {@link WithAny}
+     *                       types
+     * @return a new aspect, equal to this one with the given {@link WithAny}
+     * types
+     */
+    public Aspect withAny(Class<?>... componentTypes) {
+        return new Aspect(with, union(withAny, componentTypes), without);
+    }
+
+    /**
+     * @param componentTypes the component types to add to the {@link Without}
+     *                       types
+     * @return a new aspect, equal to this one with the given {@link Without}
+     * types
+     */
+    public Aspect without(Class<?>... componentTypes) {
+        return new Aspect(with, withAny, union(without, componentTypes));
+    }
+
+    /**
+     * @return a copy of this aspect, not indexed, so that indexing it does not
+     * affect this aspect
+     */
+    Aspect copy() {
+        return new Aspect(with, withAny, without);
+    }
+
+    private static Set<Class<?>> union(Set<Class<?>> set, Class<?>[] componentTypes) {
+        Set<Class<?>> result = set != null ? new HashSet<>(set) : new HashSet<>();
+        Collections.addAll(result, componentTypes);
+        return Set.copyOf(result);
+    }
+
     /**
      * Tests if this aspect matches the given set of component types.
      *
@@ -77,6 +146,61 @@ public class Aspect {
                 && isNullOr(without, componentTypes, Stream::noneMatch);
     }
 
+    /**
+     * Computes the bitsets of this aspect with the given component index.
+     *
+     * @param componentIndex the component index
+     */
+    public void index(ComponentIndex componentIndex) {
+        withMask = with != null ? componentIndex.mask(with) : null;
+        withAnyMask = withAny != null ? componentIndex.mask(withAny) : null;
+        withoutMask = without != null ? componentIndex.mask(without) : null;
+    }
+
+    /**
+     * Tests if this aspect matches the given composition bitset. This aspect must
+     * be indexed via {@link #index(ComponentIndex)}, with the same
+     * {@link ComponentIndex} as the given bitset.
+     *
+     * @param compositionMask the composition to test, as a bitset
+     * @return true if this aspect matches with the given composition, false
+     * otherwise.
+     * @throws IllegalStateException if this aspect is not indexed
+     */
+    public boolean matches(long[] compositionMask) {
+        if (withMask == null && with != null || withAnyMask == null && withAny != null
+                || withoutMask == null && without != null) {
+            throw new IllegalStateException("the aspect is not indexed");
+        }
+        return (withMask == null || Bits.containsAll(compositionMask, withMask))
+                && (withAnyMask == null || Bits.intersects(compositionMask, withAnyMask))
+                && (withoutMask == null || !Bits.intersects(compositionMask, withoutMask));
+    }
+
+    /**
+     * @return the bitset of the {@link With} component types, null if there is
+     * none or not indexed
+     */
+    public long[] getWithMask() {
+        return withMask;
+    }
+
+    /**
+     * @return the bitset of the {@link WithAny} component types, null if there is
+     * none or not indexed
+     */
+    public long[] getWithAnyMask() {
+        return withAnyMask;
+    }
+
+    /**
+     * @return the bitset of the {@link Without} component types, null if there
+     * is none or not indexed
+     */
+    public long[] getWithoutMask() {
+        return withoutMask;
+    }
+
     private boolean isNullOr(Set<Class<?>> filterSet, Set<Class<?>> toTestSet, BiPredicate<Stream<Class<?>>, Predicate<Class<?>>> filter) {
         return filterSet == null || filter.test(filterSet.stream(), toTestSet::contains);
     }
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs;
+
+import sharkhendrix.sharkecs.annotation.Changed;
+import sharkhendrix.sharkecs.builder.EngineBuilder;
+import sharkhendrix.sharkecs.subscription.ChangedSubscription;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Opt-in change tracking of a component type, registered via
+ * {@link EngineBuilder#changeTracking(Class...)}. Systems modifying a component
+ * declare it via {@link #markChanged(int)}, or access the component via
+ * {@link #write(int)}, and subscribers annotated with {@link Changed} only
+ * iterate the changed entities.
+ * <p>
+ * Each {@link ChangedSubscription} keeps its own dirty set, cleared when it is
+ * iterated, so a change is seen once by each subscriber, whatever their
+ * execution order. Like the component mappers, this class is not thread-safe:
+ * under {@link EngineBuilder#parallel(java.util.concurrent.ForkJoinPool)},
+ * processors marking changes must declare the tracked type in
+ * {@link sharkhendrix.sharkecs.annotation.Writes}, so that processors feeding
+ * the same {@link ChangedSubscription} never run concurrently, see
+ * {@link sharkhendrix.sharkecs.builder.ProcessorDependencies}.
+ *
+ * @param <T> the tracked component type
+ */
+public class ChangeTracker<T> {
+
+    private ComponentMapper<T> mapper;
+    private ChangedSubscription[] subscriptions = new ChangedSubscription[0];
+
+    /**
+     * @param mapper the mapper of the tracked component type
+     */
+    public ChangeTracker(ComponentMapper<T> mapper) {
+        this.mapper = mapper;
+    }
+
+    /**
+     * Marks the component of the given entity as changed.
+     *
+     * @param entity the entity whose component has changed
+     */
+    public void markChanged(int entity) {
+        for (ChangedSubscription subscription : subscriptions) {
+            subscription.markChanged(entity);
+        }
+    }
+
+    /**
+     * Write accessor: marks the component of the given entity as changed, and
+     * returns it.
+     *
+     * @param entity the entity whose component will be modified
+     * @return the component of the given entity
+     */
+    public T write(int entity) {
+        markChanged(entity);
+        return mapper.get(entity);
+    }
+
+    /**
+     * Notifies the given subscription of the changes of this component type.
+     *
+     * @param subscription the subscription to notify
+     */
+    public void subscribe(ChangedSubscription subscription) {
+        subscriptions = Arrays.copyOf(subscriptions, subscriptions.length + 1);
+        subscriptions[subscriptions.length - 1] = subscription;
+    }
+
+    /**
+     * @return the subscriptions notified of the changes, must not be modified
+     */
+    public ChangedSubscription[] getSubscriptions() {
+        return subscriptions;
+    }
+
+    public ComponentMapper<T> getMapper() {
+        return mapper;
+    }
+}
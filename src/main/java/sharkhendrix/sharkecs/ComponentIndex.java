@@ -0,0 +1,87 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs;
+
+import sharkhendrix.sharkecs.util.Bits;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * Gives each component type a dense index, used to represent component
+ * compositions as bitsets, see {@link Bits}.
+ * <p>
+ * Created by the {@link sharkhendrix.sharkecs.builder.configurator.ArchetypeConfigurator
+ * ArchetypeConfigurator}, which indexes all the registered component types,
+ * and available for injection.
+ */
+public class ComponentIndex {
+
+    private Map<Class<?>, Integer> indexes = new IdentityHashMap<>();
+    private List<Class<?>> types = new ArrayList<>();
+
+    /**
+     * Returns the index of the given component type, indexing it if not indexed
+     * yet.
+     *
+     * @param componentType the component type
+     * @return the index of the component type
+     */
+    public int indexOf(Class<?> componentType) {
+        return indexes.computeIfAbsent(componentType, t -> {
+            types.add(t);
+            return types.size() - 1;
+        });
+    }
+
+    /**
+     * @param index a component type index
+     * @return the component type of the given index
+     */
+    public Class<?> typeOf(int index) {
+        return types.get(index);
+    }
+
+    /**
+     * @return the number of indexed component types
+     */
+    public int size() {
+        return types.size();
+    }
+
+    /**
+     * Creates the bitset of the given component types, indexing them if not
+     * indexed yet.
+     *
+     * @param componentTypes the component types
+     * @return the bitset of the given component types
+     */
+    public long[] mask(Collection<Class<?>> componentTypes) {
+        for (Class<?> componentType : componentTypes) {
+            indexOf(componentType);
+        }
+        long[] mask = new long[Bits.wordCount(size())];
+        for (Class<?> componentType : componentTypes) {
+            Bits.set(mask, indexOf(componentType));
+        }
+        return mask;
+    }
+}
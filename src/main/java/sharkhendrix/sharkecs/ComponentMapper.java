@@ -19,8 +19,16 @@ package sharkhendrix.sharkecs;
 import java.util.function.Consumer;
 
 /**
+ * <p>
  * Base interface for component mappers. A component mapper is responsible for
  * binding all components of a given type to entities.
+ * <p>
+ * {@link #get(int)} and {@link #put(int, Object)} are optional operations:
+ * mappers not storing component instances, such as
+ * {@link PrimitiveComponentMapper}, throw an
+ * {@link UnsupportedOperationException}, and their {@link #getIfExists(int)}
+ * always returns null. Code generic over mappers should test the existence of
+ * components via {@link #has(int)}.
  *
  * @param <T> the component type this mapper is responsible for
  */
@@ -36,6 +44,20 @@ public interface ComponentMapper<T> {
      */
     T create(int entity);
 
+    /**
+     * Create a component for each entity of the given range, as
+     * {@link #create(int)} would do. Implementations may override it to grow
+     * their storage once for the whole range.
+     *
+     * @param fromEntity the first entity of the range, inclusive
+     * @param toEntity   the last entity of the range, exclusive
+     */
+    default void createRange(int fromEntity, int toEntity) {
+        for (int entity = fromEntity; entity < toEntity; entity++) {
+            create(entity);
+        }
+    }
+
     /**
      * Associates the given component to the given entity.
      * <p>
@@ -103,4 +125,32 @@ public interface ComponentMapper<T> {
     default boolean has(int entity) {
         return getIfExists(entity) != null;
     }
+
+    /**
+     * Moves the component of the given entity to another entity id, which must
+     * not have a component. Does nothing if the entity has no component. Called
+     * by {@link EntityManager#compact()}, the default implementation uses
+     * {@link #put(int, Object)} then {@link #remove(int)}, implementations
+     * recycling removed components should override it.
+     *
+     * @param fromEntity the entity owning the component
+     * @param toEntity   the new owner of the component
+     */
+    default void move(int fromEntity, int toEntity) {
+        if (has(fromEntity)) {
+            put(toEntity, get(fromEntity));
+            remove(fromEntity);
+        }
+    }
+
+    /**
+     * Releases the storage of the entity ids at or beyond the given capacity,
+     * which must not have a component. Called by {@link EntityManager#compact()},
+     * does nothing by default.
+     *
+     * @param capacity the number of entity ids to keep the storage of
+     */
+    default void shrink(int capacity) {
+        // Nothing by default
+    }
 }
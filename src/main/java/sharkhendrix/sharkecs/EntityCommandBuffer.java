@@ -0,0 +1,166 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs;
+
+import sharkhendrix.sharkecs.Archetype.ComponentCreationPolicy;
+import sharkhendrix.sharkecs.annotation.SkipInject;
+import sharkhendrix.sharkecs.util.Bag;
+import sharkhendrix.sharkecs.util.IntBag;
+
+import java.util.function.IntConsumer;
+
+/**
+ * <p>
+ * Records entity creation, deletion, and mutation operations of a single
+ * thread, without any lock. Obtained via {@link EntityManager#commandBuffer()},
+ * which returns one buffer per thread.
+ * <p>
+ * Recorded operations are merged by {@link EntityManager#process()}, then
+ * follow the same rules as the operations of the {@link EntityManager}, except
+ * that everything is delayed to the merge: components with a
+ * {@link ComponentCreationPolicy#AUTOMATIC} policy are created, and
+ * {@link EntityManager#archetypeOf(int)} changes, during the merge.
+ * <p>
+ * The merge order is deterministic whatever the thread recording the
+ * operations: creations first, then transmutations, then removals, each
+ * sorted by entity id. Operations on the same entity keep their recording
+ * order.
+ */
+@SkipInject
+public class EntityCommandBuffer {
+
+    static class CreationCommand {
+        int id;
+        Archetype archetype;
+        IntConsumer init;
+    }
+
+    static class TransmutationCommand {
+        int id;
+        Archetype archetype;
+        Class<?> componentType;
+        boolean additive;
+    }
+
+    private EntityManager entityManager;
+    Thread owner;
+    Bag<CreationCommand> creations;
+    Bag<TransmutationCommand> transmutations;
+    IntBag removals;
+
+    EntityCommandBuffer(EntityManager entityManager, int initialCapacity) {
+        this.entityManager = entityManager;
+        owner = Thread.currentThread();
+        creations = new Bag<>(initialCapacity);
+        transmutations = new Bag<>(initialCapacity);
+        removals = new IntBag(initialCapacity);
+    }
+
+    /**
+     * Reserves an entity id and records its creation for the given archetype.
+     *
+     * @param archetype the archetype of the new entity
+     * @return the new entity id
+     */
+    public int create(Archetype archetype) {
+        return create(archetype, null);
+    }
+
+    /**
+     * Reserves an entity id and records its creation for the given archetype,
+     * along with its initialization. Since the components are only created by
+     * the merge, the initializer is called by the merge, by the thread running
+     * {@link EntityManager#process()}, once the components of the entity with
+     * a {@link ComponentCreationPolicy#AUTOMATIC} policy are created. It may
+     * initialize them, or put the other components.
+     *
+     * @param archetype the archetype of the new entity
+     * @param init      called with the id of the new entity during the merge,
+     *                  may be null
+     * @return the new entity id
+     */
+    public int create(Archetype archetype, IntConsumer init) {
+        int id = entityManager.reserveId();
+        CreationCommand command = creations.nextOrAdd(CreationCommand::new);
+        command.id = id;
+        command.archetype = archetype;
+        command.init = init;
+        return id;
+    }
+
+    /**
+     * Records the removal of the given entity.
+     *
+     * @param entity
+     */
+    public void remove(int entity) {
+        removals.add(entity);
+    }
+
+    /**
+     * Records the transmutation of the given entity into the given archetype.
+     *
+     * @param entity
+     * @param toArchetype
+     */
+    public void transmute(int entity, Archetype toArchetype) {
+        recordTransmutation(entity, toArchetype, null, false);
+    }
+
+    /**
+     * Records the transmutation of the given entity that exactly adds the given
+     * component type, see {@link EntityManager#addComponent(int, Class)}.
+     *
+     * @param entity
+     * @param componentType
+     */
+    public void addComponent(int entity, Class<?> componentType) {
+        recordTransmutation(entity, null, componentType, true);
+    }
+
+    /**
+     * Records the transmutation of the given entity that exactly removes the given
+     * component type, see {@link EntityManager#removeComponent(int, Class)}.
+     *
+     * @param entity
+     * @param componentType
+     */
+    public void removeComponent(int entity, Class<?> componentType) {
+        recordTransmutation(entity, null, componentType, false);
+    }
+
+    /**
+     * @return true if no operation is recorded
+     */
+    public boolean isEmpty() {
+        return creations.isEmpty() && transmutations.isEmpty() && removals.isEmpty();
+    }
+
+    void clear() {
+        creations.clear();
+        transmutations.clear();
+        removals.clear();
+    }
+
+    private void recordTransmutation(int entity, Archetype archetype, Class<?> componentType, boolean additive) {
+        TransmutationCommand command = transmutations.nextOrAdd(TransmutationCommand::new);
+        command.id = entity;
+        command.archetype = archetype;
+        command.componentType = componentType;
+        command.additive = additive;
+    }
+}
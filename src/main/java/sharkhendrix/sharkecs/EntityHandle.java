@@ -0,0 +1,65 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs;
+
+/**
+ * <p>
+ * Static helpers for entity handles, created by
+ * {@link EntityManager#handle(int)}.
+ * <p>
+ * A handle is an allocation-free alternative to {@link EntityReference}: a
+ * {@code long} packing the entity id in its low 32 bits and the generation of
+ * the id in its high 32 bits. The generation of an id is incremented each time
+ * an entity with this id is removed, so a handle stays safe against id
+ * recycling, see {@link EntityManager#isAlive(long)}.
+ */
+public class EntityHandle {
+
+    /**
+     * Handle referencing no entity, never alive.
+     */
+    public static final long NONE = -1L;
+
+    private EntityHandle() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * @param entity     the entity id
+     * @param generation the generation of the entity id
+     * @return the packed handle
+     */
+    public static long of(int entity, int generation) {
+        return (long) generation << 32 | entity & 0xFFFFFFFFL;
+    }
+
+    /**
+     * @param handle the handle
+     * @return the entity id of the handle, regardless of whether it is alive
+     */
+    public static int entity(long handle) {
+        return (int) handle;
+    }
+
+    /**
+     * @param handle the handle
+     * @return the generation of the handle
+     */
+    public static int generation(long handle) {
+        return (int) (handle >>> 32);
+    }
+}
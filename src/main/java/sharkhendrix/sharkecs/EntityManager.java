@@ -22,6 +22,19 @@ import sharkhendrix.sharkecs.subscription.Subscription;
 import sharkhendrix.sharkecs.subscription.SubscriptionListener;
 import sharkhendrix.sharkecs.util.Bag;
 import sharkhendrix.sharkecs.util.IntBag;
+import sharkhendrix.sharkecs.util.PagedBag;
+import sharkhendrix.sharkecs.util.PagedIntBag;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
 
 /**
  * <p>
@@ -31,12 +44,18 @@ import sharkhendrix.sharkecs.util.IntBag;
  * <p>
  * {@link #reference(int)} provides a safe way to reference entities between
  * them, by clearing entity id of removed entity.
+ * <p>
+ * The operations of this class are not thread-safe. Other threads, such as the
+ * workers of parallel systems, record their operations in the
+ * {@link EntityCommandBuffer} returned by {@link #commandBuffer()}. Entity ids
+ * are reserved by a lock-free allocator shared by both ways.
  */
 @SkipInject
 public class EntityManager implements Processor {
 
     private static class InsertionEntry {
         int id;
+        int count;
         Archetype archetype;
     }
 
@@ -45,23 +64,76 @@ public class EntityManager implements Processor {
         Transmutation transmutation;
     }
 
+    private static final Comparator<Object> CREATION_COMMAND_COMPARATOR = Comparator
+            .comparingInt(c -> ((EntityCommandBuffer.CreationCommand) c).id);
+    private static final Comparator<Object> TRANSMUTATION_COMMAND_COMPARATOR = Comparator
+            .comparingInt(c -> ((EntityCommandBuffer.TransmutationCommand) c).id);
+
     private Bag<Archetype> entities;
     private Bag<EntityReference> references;
+    private boolean referenced;
+    private IntBag generations;
     private IntBag recycleBin;
     private IntBag pendingRemoval;
     private Bag<InsertionEntry> pendingInsertion;
     private Bag<TransmutationEntry> pendingTransmutation;
-    private int nextId;
+    private AtomicInteger recycleCursor;
+    private AtomicInteger nextId;
+
+    private List<EntityCommandBuffer> commandBuffers;
+    private ThreadLocal<EntityCommandBuffer> threadCommandBuffer;
+    private Bag<EntityCommandBuffer.CreationCommand> mergedCreations;
+    private Bag<EntityCommandBuffer.TransmutationCommand> mergedTransmutations;
+    private EntityStorage entityStorage;
+    private QueryCache queryCache;
+    private Bag<IntBag> archetypeGroups;
+    private Bag<Archetype> groupedArchetypes;
+    private Bag<Archetype> usedArchetypes;
+    private BitSet removing;
+    private int expectedEntityCount;
 
     public EntityManager(int expectedEntityCount) {
-        entities = new Bag<>(expectedEntityCount);
-        references = new Bag<>(expectedEntityCount);
+        this(expectedEntityCount, new Bag<>(expectedEntityCount), new Bag<>(expectedEntityCount),
+                new IntBag(expectedEntityCount));
+    }
+
+    /**
+     * Creates an entity manager storing its per-entity data in {@link PagedBag}s
+     * and a {@link PagedIntBag}, so that growing never copies them.
+     *
+     * @param expectedEntityCount the expected maximum number of entity
+     * @param pageSize            the page size of the paged bags, must be a power
+     *                            of two
+     */
+    public EntityManager(int expectedEntityCount, int pageSize) {
+        this(expectedEntityCount, new PagedBag<>(pageSize), new PagedBag<>(pageSize), new PagedIntBag(pageSize));
+    }
+
+    private EntityManager(int expectedEntityCount, Bag<Archetype> entities, Bag<EntityReference> references,
+                          IntBag generations) {
+        this.entities = entities;
+        this.references = references;
+        this.generations = generations;
+        this.expectedEntityCount = expectedEntityCount;
         int tmpCollectionsSize = expectedEntityCount / 10;
         recycleBin = new IntBag(tmpCollectionsSize);
         pendingInsertion = new Bag<>(tmpCollectionsSize);
         pendingRemoval = new IntBag(tmpCollectionsSize);
         pendingTransmutation = new Bag<>(tmpCollectionsSize);
-        nextId = 0;
+        recycleCursor = new AtomicInteger();
+        nextId = new AtomicInteger();
+        commandBuffers = new CopyOnWriteArrayList<>();
+        threadCommandBuffer = ThreadLocal.withInitial(() -> {
+            EntityCommandBuffer buffer = new EntityCommandBuffer(this, tmpCollectionsSize);
+            commandBuffers.add(buffer);
+            return buffer;
+        });
+        mergedCreations = new Bag<>(tmpCollectionsSize);
+        mergedTransmutations = new Bag<>(tmpCollectionsSize);
+        archetypeGroups = new Bag<>(16);
+        groupedArchetypes = new Bag<>(16);
+        usedArchetypes = new Bag<>(16);
+        removing = new BitSet(expectedEntityCount);
     }
 
     /**
@@ -74,14 +146,113 @@ public class EntityManager implements Processor {
      * @return the new entity id
      */
     public int create(Archetype archetype) {
-        int id = recycleBin.isEmpty() ? nextId++ : recycleBin.removeLast();
+        int id = reserveId();
+        insert(id, archetype);
+        return id;
+    }
+
+    /**
+     * Returns the {@link EntityCommandBuffer} of the calling thread, to record
+     * entity operations from any thread. Recorded operations are merged at the
+     * beginning of the next {@link #process()}, which must not run concurrently
+     * with the recording. The buffer of a terminated thread is dropped by the
+     * merge following its termination.
+     *
+     * @return the command buffer of the calling thread
+     */
+    public EntityCommandBuffer commandBuffer() {
+        return threadCommandBuffer.get();
+    }
+
+    /**
+     * Reserves a new entity id, recycling ids of removed entities first. This is
+     * lock-free and safe to call from any thread.
+     *
+     * @return a new entity id
+     */
+    int reserveId() {
+        int cursor;
+        while ((cursor = recycleCursor.get()) > 0) {
+            if (recycleCursor.compareAndSet(cursor, cursor - 1)) {
+                return recycleBin.get(cursor - 1);
+            }
+        }
+        return nextId.getAndIncrement();
+    }
+
+    /**
+     * Creates {@code count} entities of the given archetype, the same way as
+     * {@link #create(Archetype)}, but in bulk: ids of removed entities are
+     * recycled first, then the remaining entities get a contiguous range of new
+     * ids. Each contiguous range of ids is processed at once: components with a
+     * {@link ComponentCreationPolicy#AUTOMATIC} policy are created per mapper
+     * for the whole range, and the insertion is published in one pass per
+     * subscription at the next process cycle.
+     *
+     * @param archetype the archetype of the new entities
+     * @param count     the number of entities to create
+     * @param init      called with the id of each new entity, after the creation
+     *                  of its components, may be null
+     * @throws IllegalArgumentException if count is negative
+     */
+    public void createBatch(Archetype archetype, int count, IntConsumer init) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative");
+        }
+        int recycledCount;
+        int cursor;
+        do {
+            cursor = recycleCursor.get();
+            recycledCount = Math.min(cursor, count);
+        } while (recycledCount > 0 && !recycleCursor.compareAndSet(cursor, cursor - recycledCount));
+        // Recycled ids are often contiguous, since entities are often removed by groups
+        int[] recycled = recycleBin.getData();
+        for (int i = cursor - recycledCount, end = cursor; i < end; ) {
+            int runEnd = i + 1;
+            while (runEnd < end && recycled[runEnd] == recycled[runEnd - 1] + 1) {
+                runEnd++;
+            }
+            insertRange(recycled[i], runEnd - i, archetype, init);
+            i = runEnd;
+        }
+        int remaining = count - recycledCount;
+        if (remaining > 0) {
+            insertRange(nextId.getAndAdd(remaining), remaining, archetype, init);
+        }
+    }
+
+    private void insertRange(int from, int count, Archetype archetype, IntConsumer init) {
+        int to = from + count;
+        InsertionEntry entry = pendingInsertion.nextOrAdd(InsertionEntry::new);
+        entry.id = from;
+        entry.count = count;
+        entry.archetype = archetype;
+        if (entityStorage != null) {
+            for (int id = from; id < to; id++) {
+                entityStorage.created(id, archetype);
+            }
+        }
+        for (ComponentMapper<Object> mapper : archetype.getAutoCreateComponentMappers()) {
+            mapper.createRange(from, to);
+        }
+        if (init != null) {
+            for (int id = from; id < to; id++) {
+                init.accept(id);
+            }
+        }
+    }
+
+    private void insert(int id, Archetype archetype) {
         InsertionEntry entry = pendingInsertion.nextOrAdd(InsertionEntry::new);
         entry.id = id;
+        entry.count = 1;
         entry.archetype = archetype;
+        if (entityStorage != null) {
+            entityStorage.created(id, archetype);
+        }
         for (ComponentMapper<Object> mapper : archetype.getAutoCreateComponentMappers()) {
             mapper.create(id);
         }
-        return id;
     }
 
     /**
@@ -146,6 +317,9 @@ public class EntityManager implements Processor {
 
     private void transmute(int entity, Transmutation transmutation) {
         entities.unsafeSet(entity, transmutation.getTo());
+        if (entityStorage != null) {
+            entityStorage.transmuted(entity, transmutation);
+        }
         for (ComponentMapper<Object> mapper : transmutation.getAddMappers()) {
             mapper.create(entity);
         }
@@ -172,10 +346,46 @@ public class EntityManager implements Processor {
         if (reference == null) {
             reference = new EntityReference(entity);
             references.put(entity, reference);
+            referenced = true;
         }
         return reference;
     }
 
+    /**
+     * <p>
+     * Provides an allocation-free handle to the given entity, packing its id and
+     * the generation of the id, see {@link EntityHandle}. Unlike
+     * {@link #reference(int)}, nothing has to be cleared when the entity is
+     * removed: the handle is just no longer alive, see {@link #isAlive(long)}.
+     * <p>
+     * The behavior of getting a handle of a non-existing entity is undefined.
+     *
+     * @param entity the existing entity
+     * @return the handle of the given entity
+     */
+    public long handle(int entity) {
+        return EntityHandle.of(entity, generation(entity));
+    }
+
+    /**
+     * Test if the entity of the given handle exists. An entity is alive from the
+     * process cycle inserting it, and like {@link #reference(int)}, stays alive
+     * until the process cycle removing it.
+     *
+     * @param handle the handle created by {@link #handle(int)}, or
+     *               {@link EntityHandle#NONE}
+     * @return true if the entity of the handle has been inserted and not removed
+     */
+    public boolean isAlive(long handle) {
+        int entity = EntityHandle.entity(handle);
+        return entity >= 0 && entity < nextId.get() && entities.getOrNull(entity) != null
+                && generation(entity) == EntityHandle.generation(handle);
+    }
+
+    private int generation(int entity) {
+        return entity < generations.capacity() ? generations.get(entity) : 0;
+    }
+
     /**
      * Returns the actual (or future, if a mutation has occurred during this process
      * cycle) archetype of the given entity.
@@ -187,13 +397,274 @@ public class EntityManager implements Processor {
         return entities.get(entity);
     }
 
+    /**
+     * Set the storage notified of the structural changes of the entities, null
+     * by default.
+     *
+     * @param entityStorage the entity storage, or null
+     */
+    public void setEntityStorage(EntityStorage entityStorage) {
+        this.entityStorage = entityStorage;
+    }
+
+    public EntityStorage getEntityStorage() {
+        return entityStorage;
+    }
+
+    /**
+     * Set the query cache backing {@link #query(Aspect)}, null by default.
+     *
+     * @param queryCache the query cache, or null
+     */
+    public void setQueryCache(QueryCache queryCache) {
+        this.queryCache = queryCache;
+    }
+
+    public QueryCache getQueryCache() {
+        return queryCache;
+    }
+
+    /**
+     * Acquires the query of the entities matching the given aspect. The first
+     * call for a given aspect resolves the matching archetypes and fills the
+     * result, following calls return the same query, kept up to date by the
+     * process cycles. Each call must be balanced by a {@link Query#release()}.
+     *
+     * @param aspect the aspect to query, not modified
+     * @return the query of the given aspect
+     * @throws IllegalStateException if no {@link QueryCache} is configured
+     * @see QueryCache#get(Aspect)
+     */
+    public Query query(Aspect aspect) {
+        if (queryCache == null) {
+            throw new IllegalStateException("no QueryCache is configured");
+        }
+        return queryCache.get(aspect);
+    }
+
+    /**
+     * Adds all the entities matching the given aspect to the given subscription,
+     * the same way the next process cycle would have done if the subscription
+     * had existed since the beginning: pending insertions and transmutations are
+     * not considered yet, as their own subscriptions will be notified.
+     *
+     * @param subscription the subscription to fill
+     * @param aspect       the indexed aspect of the subscription
+     */
+    void populate(Subscription subscription, Aspect aspect) {
+        Archetype[] effective = new Archetype[entities.size()];
+        for (int i = 0; i < effective.length; i++) {
+            effective[i] = entities.get(i);
+        }
+        for (int i = pendingTransmutation.size() - 1; i >= 0; i--) {
+            TransmutationEntry entry = pendingTransmutation.get(i);
+            if (entry.id < effective.length) {
+                effective[entry.id] = entry.transmutation.getFrom();
+            }
+        }
+        for (int i = 0, size = pendingInsertion.size(); i < size; i++) {
+            InsertionEntry entry = pendingInsertion.get(i);
+            for (int id = entry.id, to = Math.min(id + entry.count, effective.length); id < to; id++) {
+                effective[id] = null;
+            }
+        }
+        for (int i = 0; i < effective.length; i++) {
+            Archetype archetype = effective[i];
+            if (archetype != null && aspect.matches(archetype.getCompositionMask())) {
+                subscription.add(i);
+            }
+        }
+    }
+
     @Override
     public void process() {
-        clearReferences();
+        mergeCommandBuffers();
+        if (referenced) {
+            clearReferences();
+        }
         insertPending();
         transmutePending();
         removePending();
-        nextId = entities.size();
+        if (entityStorage != null) {
+            entityStorage.flush();
+        }
+        recycleCursor.set(recycleBin.size());
+        nextId.set(entities.size());
+    }
+
+    /**
+     * <p>
+     * Renumbers the existing entities into the dense range of ids starting at
+     * zero, so that the id space, and the storage indexed by entity id, stop
+     * following the peak entity count, for instance after a spawn storm.
+     * <p>
+     * The entities with the highest ids are moved into the ids of removed
+     * entities: the subscriptions of their archetype are notified via
+     * {@link Subscription#move(int, int)}, then their components are moved via
+     * {@link ComponentMapper#move(int, int)}, the {@link EntityStorage} is
+     * notified via {@link EntityStorage#moved(int, int)}, and their
+     * {@link EntityReference}s are updated. Moved entities are never notified
+     * as removed or added. Then, the storage of the ids beyond
+     * the entity count, or beyond the expected entity count if it is higher, is
+     * released via {@link ComponentMapper#shrink(int)},
+     * {@link Subscription#shrink(int)} and {@link EntityStorage#shrink(int)}.
+     * <p>
+     * Entity ids kept elsewhere than in an {@link EntityReference} are not
+     * updated: the handles of the moved entities are no longer alive, see
+     * {@link #isAlive(long)}.
+     * <p>
+     * This must be called between two process cycles, outside of any system
+     * iteration, for instance right after {@link Engine#process()}.
+     *
+     * @return the number of moved entities
+     * @throws IllegalStateException if an entity operation is pending, including
+     *                               in the command buffers
+     */
+    public int compact() {
+        if (!pendingInsertion.isEmpty() || !pendingTransmutation.isEmpty() || !pendingRemoval.isEmpty()
+                || hasPendingCommands()) {
+            throw new IllegalStateException("compact() must be called with no pending entity operation");
+        }
+        int size = entities.size();
+        int entityCount = 0;
+        for (int i = 0; i < size; i++) {
+            if (entities.get(i) != null) {
+                entityCount++;
+            }
+        }
+        int movedCount = 0;
+        int hole = 0;
+        for (int entity = size - 1; entity >= entityCount; entity--) {
+            Archetype archetype = entities.get(entity);
+            if (archetype != null) {
+                while (entities.get(hole) != null) {
+                    hole++;
+                }
+                move(entity, hole++, archetype);
+                movedCount++;
+            }
+        }
+        recycleBin.clear();
+        recycleCursor.set(0);
+        nextId.set(entityCount);
+        entities.setSize(entityCount);
+        shrink(Math.max(entityCount, expectedEntityCount));
+        return movedCount;
+    }
+
+    private boolean hasPendingCommands() {
+        for (int i = 0, size = commandBuffers.size(); i < size; i++) {
+            if (!commandBuffers.get(i).isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void move(int from, int to, Archetype archetype) {
+        // Listeners are notified while the components are still reachable by the previous id
+        for (Subscription subscription : archetype.getSubscriptions()) {
+            subscription.move(from, to);
+        }
+        for (ComponentMapper<Object> mapper : archetype.getComponentMappers()) {
+            mapper.move(from, to);
+        }
+        if (entityStorage != null) {
+            entityStorage.moved(from, to);
+        }
+        entities.unsafeSet(to, archetype);
+        entities.unsafeSet(from, null);
+        EntityReference reference = references.getOrNull(from);
+        if (reference != null) {
+            reference.set(to);
+            references.put(to, reference);
+            references.unsafeSet(from, null);
+        }
+        // Invalidates the handles of the moved entity
+        generations.put(from, generation(from) + 1);
+    }
+
+    /**
+     * Releases the storage of the ids at or beyond the given capacity. The
+     * generations are kept, so that handles of removed entities never become
+     * alive again.
+     */
+    private void shrink(int capacity) {
+        entities.shrink(capacity);
+        references.shrink(capacity);
+        removing = new BitSet(capacity);
+        // All the mappers and subscriptions able to hold an entity belong to an archetype used since the beginning
+        Set<Object> shrunk = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0, size = usedArchetypes.size(); i < size; i++) {
+            Archetype archetype = usedArchetypes.get(i);
+            if (archetype != null) {
+                for (ComponentMapper<Object> mapper : archetype.getComponentMappers()) {
+                    if (shrunk.add(mapper)) {
+                        mapper.shrink(capacity);
+                    }
+                }
+                for (Subscription subscription : archetype.getSubscriptions()) {
+                    if (shrunk.add(subscription)) {
+                        subscription.shrink(capacity);
+                    }
+                }
+            }
+        }
+        if (entityStorage != null) {
+            entityStorage.shrink(capacity);
+        }
+    }
+
+    private void mergeCommandBuffers() {
+        // Drops the recycled ids consumed by reserveId() since the last cycle
+        recycleBin.setSize(recycleCursor.get());
+        for (int i = 0, size = commandBuffers.size(); i < size; i++) {
+            EntityCommandBuffer buffer = commandBuffers.get(i);
+            for (int j = 0, commandCount = buffer.creations.size(); j < commandCount; j++) {
+                mergedCreations.add(buffer.creations.get(j));
+            }
+            for (int j = 0, commandCount = buffer.transmutations.size(); j < commandCount; j++) {
+                mergedTransmutations.add(buffer.transmutations.get(j));
+            }
+        }
+        Arrays.sort(mergedCreations.getData(), 0, mergedCreations.size(), CREATION_COMMAND_COMPARATOR);
+        for (int i = 0, size = mergedCreations.size(); i < size; i++) {
+            EntityCommandBuffer.CreationCommand command = mergedCreations.get(i);
+            insert(command.id, command.archetype);
+            if (command.init != null) {
+                command.init.accept(command.id);
+                command.init = null;
+            }
+        }
+        Arrays.sort(mergedTransmutations.getData(), 0, mergedTransmutations.size(), TRANSMUTATION_COMMAND_COMPARATOR);
+        for (int i = 0, size = mergedTransmutations.size(); i < size; i++) {
+            EntityCommandBuffer.TransmutationCommand command = mergedTransmutations.get(i);
+            if (command.archetype != null) {
+                transmute(command.id, command.archetype);
+            } else if (command.additive) {
+                addComponent(command.id, command.componentType);
+            } else {
+                removeComponent(command.id, command.componentType);
+            }
+        }
+        int removalStart = pendingRemoval.size();
+        boolean deadBuffers = false;
+        for (int i = 0, size = commandBuffers.size(); i < size; i++) {
+            EntityCommandBuffer buffer = commandBuffers.get(i);
+            pendingRemoval.addAll(buffer.removals);
+            buffer.clear();
+            if (!buffer.owner.isAlive()) {
+                buffer.owner = null;
+                deadBuffers = true;
+            }
+        }
+        if (deadBuffers) {
+            // Buffers of terminated threads, e.g. retired pool workers, can no longer be written
+            commandBuffers.removeIf(buffer -> buffer.owner == null);
+        }
+        Arrays.sort(pendingRemoval.getData(), removalStart, pendingRemoval.size());
+        mergedCreations.clear();
+        mergedTransmutations.clear();
     }
 
     private void clearReferences() {
@@ -210,11 +681,23 @@ public class EntityManager implements Processor {
     private void insertPending() {
         for (int i = 0, size = pendingInsertion.size(); i < size; i++) {
             InsertionEntry entry = pendingInsertion.get(i);
-            entities.set(entry.id, entry.archetype);
-            for (Subscription subscription : entry.archetype.getSubscriptions()) {
-                subscription.add(entry.id);
+            int to = entry.id + entry.count;
+            for (int id = to - 1; id >= entry.id; id--) {
+                entities.set(id, entry.archetype);
+            }
+            for (int id = entry.id; id < to; id++) {
+                group(id, entry.archetype);
+            }
+        }
+        for (int i = 0, size = groupedArchetypes.size(); i < size; i++) {
+            Archetype archetype = groupedArchetypes.get(i);
+            IntBag group = archetypeGroups.get(archetype.getId());
+            for (Subscription subscription : archetype.getSubscriptions()) {
+                subscription.addAll(group);
             }
+            usedArchetypes.set(archetype.getId(), archetype);
         }
+        clearGroups();
         pendingInsertion.clear();
     }
 
@@ -223,6 +706,7 @@ public class EntityManager implements Processor {
             TransmutationEntry entry = pendingTransmutation.get(i);
             int id = entry.id;
             Transmutation transmutation = entry.transmutation;
+            usedArchetypes.set(transmutation.getTo().getId(), transmutation.getTo());
             for (Subscription subscription : transmutation.getAddSubscriptions()) {
                 subscription.add(id);
             }
@@ -243,17 +727,60 @@ public class EntityManager implements Processor {
         for (int i = 0, size = pendingRemoval.size(); i < size; i++) {
             int entity = pendingRemoval.get(i);
             Archetype archetype = entities.get(entity);
-            if (archetype != null) {
+            if (archetype != null && !removing.get(entity)) {
+                removing.set(entity);
+                group(entity, archetype);
+            }
+        }
+        // All subscriptions are notified before any component removal
+        for (int i = 0, size = groupedArchetypes.size(); i < size; i++) {
+            Archetype archetype = groupedArchetypes.get(i);
+            IntBag group = archetypeGroups.get(archetype.getId());
+            for (Subscription subscription : archetype.getSubscriptions()) {
+                subscription.removeAll(group);
+            }
+        }
+        for (int i = 0, size = groupedArchetypes.size(); i < size; i++) {
+            Archetype archetype = groupedArchetypes.get(i);
+            IntBag group = archetypeGroups.get(archetype.getId());
+            for (int j = 0, groupSize = group.size(); j < groupSize; j++) {
+                int entity = group.get(j);
                 recycleBin.add(entity);
-                for (Subscription subscription : archetype.getSubscriptions()) {
-                    subscription.remove(entity);
-                }
+                generations.put(entity, generation(entity) + 1);
                 for (ComponentMapper<Object> mapper : archetype.getComponentMappers()) {
                     mapper.remove(entity);
                 }
+                if (entityStorage != null) {
+                    entityStorage.removed(entity, archetype);
+                }
                 entities.unsafeSet(entity, null);
+                removing.clear(entity);
             }
         }
+        clearGroups();
         pendingRemoval.clear();
     }
+
+    /**
+     * Adds the given entity to the group of its archetype, so subscriptions are
+     * notified once per archetype.
+     */
+    private void group(int entity, Archetype archetype) {
+        IntBag group = archetypeGroups.getOrNull(archetype.getId());
+        if (group == null) {
+            group = new IntBag(16);
+            archetypeGroups.set(archetype.getId(), group);
+        }
+        if (group.isEmpty()) {
+            groupedArchetypes.add(archetype);
+        }
+        group.add(entity);
+    }
+
+    private void clearGroups() {
+        for (int i = 0, size = groupedArchetypes.size(); i < size; i++) {
+            archetypeGroups.get(groupedArchetypes.get(i).getId()).clear();
+        }
+        groupedArchetypes.clear();
+    }
 }
@@ -76,4 +76,8 @@ public class EntityReference {
     void clear() {
         id = -1;
     }
+
+    void set(int id) {
+        this.id = id;
+    }
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs;
+
+/**
+ * <p>
+ * Storage of entity data notified of the structural changes by the
+ * {@link EntityManager}, see {@link EntityManager#setEntityStorage(EntityStorage)}.
+ * <p>
+ * Notifications follow the immediate effects of the {@link EntityManager}
+ * operations: {@link #created(int, Archetype)} and
+ * {@link #transmuted(int, Transmutation)} are called before the creation of
+ * the automatic components, {@link #removed(int, Archetype)} is called during
+ * the process cycle, after the removal of the components of the entity.
+ */
+public interface EntityStorage {
+
+    /**
+     * Called when an entity is created.
+     *
+     * @param entity    the new entity
+     * @param archetype the archetype of the new entity
+     */
+    void created(int entity, Archetype archetype);
+
+    /**
+     * Called when an entity is transmuted.
+     *
+     * @param entity        the transmuted entity
+     * @param transmutation the transmutation
+     */
+    void transmuted(int entity, Transmutation transmutation);
+
+    /**
+     * Called when an entity is removed, after the removal of its components.
+     *
+     * @param entity    the removed entity
+     * @param archetype the archetype of the removed entity
+     */
+    void removed(int entity, Archetype archetype);
+
+    /**
+     * Called at the end of each process cycle of the {@link EntityManager}.
+     */
+    void flush();
+
+    /**
+     * Called by {@link EntityManager#compact()} when an entity id changes, after
+     * the move of its components. Does nothing by default.
+     *
+     * @param fromEntity the previous id of the entity
+     * @param toEntity   the new id of the entity
+     */
+    default void moved(int fromEntity, int toEntity) {
+        // Nothing by default
+    }
+
+    /**
+     * Called by {@link EntityManager#compact()} once all entities are moved,
+     * the storage of the entity ids at or beyond the given capacity can be
+     * released. Does nothing by default.
+     *
+     * @param capacity the number of entity ids to keep the storage of
+     */
+    default void shrink(int capacity) {
+        // Nothing by default
+    }
+}
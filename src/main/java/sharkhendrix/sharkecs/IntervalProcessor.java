@@ -0,0 +1,122 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs;
+
+import sharkhendrix.sharkecs.annotation.RunEvery;
+import sharkhendrix.sharkecs.builder.EngineConfigurationException;
+import sharkhendrix.sharkecs.util.ReflectionUtil;
+
+/**
+ * {@link Processor} decorator running the decorated processor every given
+ * number of calls, or at most once every given duration. Created by the engine
+ * building for processors annotated with {@link RunEvery}.
+ */
+public class IntervalProcessor implements Processor {
+
+    private Processor processor;
+    private int frameInterval;
+    private long nanoInterval;
+    private int countdown;
+    private long nextRunNanos;
+
+    /**
+     * @param processor     the processor to run periodically
+     * @param frameInterval the number of calls between two runs
+     * @param offset        the number of calls skipped before the first run
+     */
+    public IntervalProcessor(Processor processor, int frameInterval, int offset) {
+        if (frameInterval < 1 || offset < 0) {
+            throw new EngineConfigurationException("frameInterval must be greater than zero and offset positive");
+        }
+        this.processor = processor;
+        this.frameInterval = frameInterval;
+        countdown = offset;
+    }
+
+    /**
+     * @param processor    the processor to run periodically
+     * @param nanoInterval the minimum duration between two runs, in nanoseconds
+     */
+    public IntervalProcessor(Processor processor, long nanoInterval) {
+        if (nanoInterval < 1) {
+            throw new EngineConfigurationException("nanoInterval must be greater than zero");
+        }
+        this.processor = processor;
+        this.nanoInterval = nanoInterval;
+        nextRunNanos = System.nanoTime();
+    }
+
+    /**
+     * Creates the decorator of the given processor if it, or one of its
+     * superclasses, is annotated with {@link RunEvery}.
+     *
+     * @param processor the processor
+     * @return the decorated processor, or the given processor itself if it is not
+     * annotated
+     * @throws EngineConfigurationException if {@link RunEvery#millis()} is
+     *                                      negative
+     */
+    public static Processor of(Processor processor) {
+        return of(processor, processor);
+    }
+
+    /**
+     * Creates the decorator of the given processor if the annotated processor, or
+     * one of its superclasses, is annotated with {@link RunEvery}.
+     *
+     * @param annotated the processor whose {@link RunEvery} annotation is read
+     * @param processor the processor to run periodically, usually a decorator of
+     *                  the annotated processor
+     * @return the decorated processor, or the given processor itself if the
+     * annotated processor is not annotated
+     * @throws EngineConfigurationException if {@link RunEvery#millis()} is
+     *                                      negative
+     */
+    public static Processor of(Processor annotated, Processor processor) {
+        RunEvery runEvery = ReflectionUtil.getAnnotationOnSuperclass(annotated.getClass(), RunEvery.class);
+        if (runEvery == null) {
+            return processor;
+        } else if (runEvery.millis() < 0) {
+            throw new EngineConfigurationException(annotated.getClass().getName()
+                    + ": RunEvery.millis() must not be negative");
+        } else if (runEvery.millis() > 0) {
+            return new IntervalProcessor(processor, runEvery.millis() * 1_000_000L);
+        } else {
+            return new IntervalProcessor(processor, runEvery.frames(), runEvery.offset());
+        }
+    }
+
+    @Override
+    public void process() {
+        if (nanoInterval > 0) {
+            long now = System.nanoTime();
+            if (now - nextRunNanos >= 0) {
+                nextRunNanos = now + nanoInterval;
+                processor.process();
+            }
+        } else if (countdown > 0) {
+            countdown--;
+        } else {
+            countdown = frameInterval - 1;
+            processor.process();
+        }
+    }
+
+    public Processor getProcessor() {
+        return processor;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs;
+
+import java.util.Arrays;
+
+/**
+ * {@link PrimitiveComponentMapper} storing a single {@code long} value per
+ * entity, in a {@code long[]} indexed by entity id.
+ *
+ * @param <T> the marker component type
+ */
+public class LongComponentMapper<T> extends PrimitiveComponentMapper<T> {
+
+    private long[] data;
+
+    public LongComponentMapper(int initialCapacity) {
+        super(initialCapacity);
+        data = new long[initialCapacity];
+    }
+
+    /**
+     * Get the value of the given entity, does not check if the component exists.
+     *
+     * @param entity
+     * @return the value of the given entity
+     */
+    public long getLong(int entity) {
+        return data[entity];
+    }
+
+    /**
+     * Set the value of the given entity, the component must have been created via
+     * {@link #create(int)}.
+     *
+     * @param entity
+     * @param value
+     */
+    public void setLong(int entity, long value) {
+        data[entity] = value;
+    }
+
+    /**
+     * @return the backing data array, indexed by entity id. It is replaced when
+     * the mapper grows.
+     */
+    public long[] getData() {
+        return data;
+    }
+
+    @Override
+    protected void grow(int newCapacity) {
+        data = Arrays.copyOf(data, newCapacity);
+    }
+
+    @Override
+    protected void reset(int entity) {
+        data[entity] = 0;
+    }
+
+    @Override
+    protected void copy(int fromEntity, int toEntity) {
+        data[toEntity] = data[fromEntity];
+    }
+}
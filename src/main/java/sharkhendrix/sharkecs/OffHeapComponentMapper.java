@@ -0,0 +1,142 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs;
+
+import sharkhendrix.sharkecs.builder.EngineConfigurationException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * {@link PrimitiveComponentMapper} storing fixed-layout component data in a
+ * direct {@link ByteBuffer}, outside of the Java heap: the components are not
+ * seen by the garbage collector. Each entity owns {@code stride} bytes at the
+ * offset {@code entity * stride}, in native byte order.
+ * <p>
+ * Data is accessed via typed flyweight {@link OffHeapView}s. {@link #view(int)}
+ * positions the shared view of this mapper, while additional views are
+ * obtained via {@link #newView()} and positioned via
+ * {@link #moveTo(OffHeapView, int)}, for instance to access two entities at
+ * the same time, or from several threads: the shared view is not
+ * thread-safe.
+ * <p>
+ * The buffer grows the same way {@link sharkhendrix.sharkecs.util.Bag} does,
+ * positioned views must be positioned again after that.
+ *
+ * @param <T> the marker component type
+ * @param <V> the view type
+ */
+public class OffHeapComponentMapper<T, V extends OffHeapView> extends PrimitiveComponentMapper<T> {
+
+    private ByteBuffer buffer;
+    private int stride;
+    private Supplier<V> viewSupplier;
+    private V view;
+
+    /**
+     * @param initialCapacity the initial number of entities of the buffer
+     * @param stride          the size in bytes of the data of one entity
+     * @param viewSupplier    the view factory
+     */
+    public OffHeapComponentMapper(int initialCapacity, int stride, Supplier<V> viewSupplier) {
+        super(initialCapacity);
+        if (stride < 1) {
+            throw new EngineConfigurationException("stride must be greater than zero");
+        }
+        this.stride = stride;
+        this.viewSupplier = viewSupplier;
+        buffer = allocate(initialCapacity);
+        view = viewSupplier.get();
+    }
+
+    /**
+     * Positions the shared view of this mapper on the given entity. The
+     * component must exist.
+     *
+     * @param entity the entity id
+     * @return the shared view, positioned on the given entity
+     */
+    public V view(int entity) {
+        moveTo(view, entity);
+        return view;
+    }
+
+    /**
+     * Positions the given view on the given entity. The component must exist.
+     *
+     * @param target the view to position
+     * @param entity the entity id
+     */
+    public void moveTo(V target, int entity) {
+        target.position(buffer, entity * stride, entity);
+    }
+
+    /**
+     * @return a new view of this mapper, not positioned
+     */
+    public V newView() {
+        return viewSupplier.get();
+    }
+
+    /**
+     * @return the size in bytes of the data of one entity
+     */
+    public int getStride() {
+        return stride;
+    }
+
+    /**
+     * @return the backing buffer, replaced when the mapper grows
+     */
+    public ByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    @Override
+    protected void grow(int newCapacity) {
+        ByteBuffer newBuffer = allocate(newCapacity);
+        newBuffer.put(0, buffer, 0, Math.min(buffer.capacity(), newBuffer.capacity()));
+        buffer = newBuffer;
+    }
+
+    @Override
+    protected void reset(int entity) {
+        int offset = entity * stride;
+        int end = offset + stride;
+        for (; offset + Long.BYTES <= end; offset += Long.BYTES) {
+            buffer.putLong(offset, 0L);
+        }
+        for (; offset < end; offset++) {
+            buffer.put(offset, (byte) 0);
+        }
+    }
+
+    @Override
+    protected void copy(int fromEntity, int toEntity) {
+        buffer.put(toEntity * stride, buffer, fromEntity * stride, stride);
+    }
+
+    private ByteBuffer allocate(int capacity) {
+        long size = (long) capacity * stride;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Off-heap buffer size exceeds " + Integer.MAX_VALUE + " bytes");
+        }
+        return ByteBuffer.allocateDirect((int) size).order(ByteOrder.nativeOrder());
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs;
+
+import java.nio.ByteBuffer;
+
+/**
+ * <p>
+ * Flyweight view on the off-heap data of one entity of an
+ * {@link OffHeapComponentMapper}. Implementations expose typed accessors on
+ * top of the protected absolute accessors, using the offsets of their fixed
+ * layout, for instance:
+ *
+ * <pre>
+ * public class PositionView extends OffHeapView {
+ *
+ *     public static final int STRIDE = 8;
+ *
+ *     public float getX() {
+ *         return getFloat(0);
+ *     }
+ *
+ *     public void setX(float x) {
+ *         putFloat(0, x);
+ *     }
+ *     ...
+ * }
+ * </pre>
+ * <p>
+ * A view is positioned on an entity via
+ * {@link OffHeapComponentMapper#view(int)} or
+ * {@link OffHeapComponentMapper#moveTo(OffHeapView, int)}, and must be
+ * positioned again after the mapper grows.
+ */
+public abstract class OffHeapView {
+
+    private ByteBuffer buffer;
+    private int offset;
+    private int entity = -1;
+
+    void position(ByteBuffer buffer, int offset, int entity) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.entity = entity;
+    }
+
+    /**
+     * @return the entity this view is positioned on, or -1 if not positioned
+     */
+    public int getEntity() {
+        return entity;
+    }
+
+    protected byte getByte(int fieldOffset) {
+        return buffer.get(offset + fieldOffset);
+    }
+
+    protected void putByte(int fieldOffset, byte value) {
+        buffer.put(offset + fieldOffset, value);
+    }
+
+    protected short getShort(int fieldOffset) {
+        return buffer.getShort(offset + fieldOffset);
+    }
+
+    protected void putShort(int fieldOffset, short value) {
+        buffer.putShort(offset + fieldOffset, value);
+    }
+
+    protected int getInt(int fieldOffset) {
+        return buffer.getInt(offset + fieldOffset);
+    }
+
+    protected void putInt(int fieldOffset, int value) {
+        buffer.putInt(offset + fieldOffset, value);
+    }
+
+    protected long getLong(int fieldOffset) {
+        return buffer.getLong(offset + fieldOffset);
+    }
+
+    protected void putLong(int fieldOffset, long value) {
+        buffer.putLong(offset + fieldOffset, value);
+    }
+
+    protected float getFloat(int fieldOffset) {
+        return buffer.getFloat(offset + fieldOffset);
+    }
+
+    protected void putFloat(int fieldOffset, float value) {
+        buffer.putFloat(offset + fieldOffset, value);
+    }
+
+    protected double getDouble(int fieldOffset) {
+        return buffer.getDouble(offset + fieldOffset);
+    }
+
+    protected void putDouble(int fieldOffset, double value) {
+        buffer.putDouble(offset + fieldOffset, value);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs;
+
+import sharkhendrix.sharkecs.annotation.Reads;
+import sharkhendrix.sharkecs.annotation.Writes;
+import sharkhendrix.sharkecs.builder.EngineBuilder;
+
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * <p>
+ * {@link Engine} running its {@link Processor}s on the worker threads of a
+ * {@link ForkJoinPool}, following a dependency graph: a processor starts once
+ * all the processors it depends on are done, so processors without dependency
+ * between them may run at the same time.
+ * <p>
+ * It is intended to be created via {@link EngineBuilder#parallel(ForkJoinPool)},
+ * which computes the dependencies from the priority constraints and the
+ * {@link Reads} / {@link Writes} declarations of the processors.
+ * <p>
+ * The operations of the {@link EntityManager} are not thread-safe: processors
+ * running concurrently must record their entity creations, removals and
+ * mutations via {@link EntityManager#commandBuffer()}. A processor using the
+ * {@link EntityManager} directly must declare it in {@link Writes}, so that it
+ * runs alone, see {@link sharkhendrix.sharkecs.builder.ProcessorDependencies}.
+ * <p>
+ * {@link #process()} returns once all processors are done, exceptions thrown by
+ * processors are rethrown by {@link #process()}.
+ */
+public class ParallelEngine extends Engine {
+
+    private class FrameTask extends CountedCompleter<Void> {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void compute() {
+            setPendingCount(tasks.length);
+            for (int root : roots) {
+                tasks[root].fork();
+            }
+            tryComplete();
+        }
+    }
+
+    private class ProcessorTask extends CountedCompleter<Void> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int index;
+
+        ProcessorTask(FrameTask frameTask, int index) {
+            super(frameTask);
+            this.index = index;
+        }
+
+        @Override
+        public void compute() {
+            getProcessors()[index].process();
+            for (int dependent : dependents[index]) {
+                if (remainingDependencies.decrementAndGet(dependent) == 0) {
+                    tasks[dependent].fork();
+                }
+            }
+            tryComplete();
+        }
+    }
+
+    private final ForkJoinPool pool;
+    private final int[][] dependents;
+    private final int[] dependencyCounts;
+    private final int[] roots;
+    private final AtomicIntegerArray remainingDependencies;
+    private final FrameTask frameTask;
+    private final ProcessorTask[] tasks;
+
+    /**
+     * @param processors   the processors of this engine
+     * @param dependencies for each processor, the indexes of the processors it
+     *                     depends on, which must be lower than its own index
+     * @param pool         the pool running the processors
+     */
+    public ParallelEngine(Processor[] processors, int[][] dependencies, ForkJoinPool pool) {
+        super(processors);
+        if (dependencies.length != processors.length) {
+            throw new IllegalArgumentException("dependencies and processors lengths mismatch");
+        }
+        this.pool = pool;
+        int[] dependentCounts = new int[processors.length];
+        dependencyCounts = new int[processors.length];
+        int rootCount = 0;
+        for (int i = 0; i < dependencies.length; i++) {
+            dependencyCounts[i] = dependencies[i].length;
+            if (dependencies[i].length == 0) {
+                rootCount++;
+            }
+            for (int dependency : dependencies[i]) {
+                if (dependency >= i || dependency < 0) {
+                    throw new IllegalArgumentException("processor " + i + " has an invalid dependency: " + dependency);
+                }
+                dependentCounts[dependency]++;
+            }
+        }
+        dependents = new int[processors.length][];
+        for (int i = 0; i < dependents.length; i++) {
+            dependents[i] = new int[dependentCounts[i]];
+            dependentCounts[i] = 0;
+        }
+        roots = new int[rootCount];
+        rootCount = 0;
+        for (int i = 0; i < dependencies.length; i++) {
+            if (dependencies[i].length == 0) {
+                roots[rootCount++] = i;
+            }
+            for (int dependency : dependencies[i]) {
+                dependents[dependency][dependentCounts[dependency]++] = i;
+            }
+        }
+        remainingDependencies = new AtomicIntegerArray(processors.length);
+        frameTask = new FrameTask();
+        tasks = new ProcessorTask[processors.length];
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i] = new ProcessorTask(frameTask, i);
+        }
+    }
+
+    /**
+     * Process all {@link Processor}s of this engine, concurrently when their
+     * dependencies allow it.
+     */
+    @Override
+    public void process() {
+        for (int i = 0; i < tasks.length; i++) {
+            remainingDependencies.set(i, dependencyCounts[i]);
+            tasks[i].reinitialize();
+        }
+        frameTask.reinitialize();
+        pool.invoke(frameTask);
+    }
+
+    /**
+     * @param index the index of a processor
+     * @return the indexes of the processors waiting for the given one
+     */
+    public int[] getDependents(int index) {
+        return dependents[index].clone();
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+}
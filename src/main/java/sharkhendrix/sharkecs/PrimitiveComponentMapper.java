@@ -0,0 +1,175 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs;
+
+import java.util.BitSet;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * Base class of the {@link ComponentMapper}s storing their components as
+ * primitive values in arrays indexed by entity id, instead of one object per
+ * entity. The component type is then only a marker type used to register the
+ * mapper, the data being accessed via the primitive accessors of the
+ * implementations.
+ * <p>
+ * There is no component instance: {@link #create(int)} resets the values of
+ * the entity and returns null, {@link #getIfExists(int)} always returns null,
+ * so {@link #ifExists(int, Consumer)} never runs its action, and
+ * {@link #has(int)} tells if the component exists. The optional operations
+ * {@link #get(int)} and {@link #put(int, Object)} are not supported and throw
+ * an {@link UnsupportedOperationException}.
+ *
+ * @param <T> the marker component type
+ */
+public abstract class PrimitiveComponentMapper<T> implements ComponentMapper<T> {
+
+    private BitSet presence;
+    private int capacity;
+
+    protected PrimitiveComponentMapper(int initialCapacity) {
+        presence = new BitSet(initialCapacity);
+        capacity = initialCapacity;
+    }
+
+    /**
+     * Resets the values of the given entity to their default values (zero), and
+     * marks the component as present.
+     *
+     * @param entity the entity id
+     * @return null, there is no component instance
+     */
+    @Override
+    public T create(int entity) {
+        if (entity >= capacity) {
+            capacity = (entity + 1) * 2;
+            grow(capacity);
+        }
+        reset(entity);
+        presence.set(entity);
+        return null;
+    }
+
+    @Override
+    public void createRange(int fromEntity, int toEntity) {
+        if (fromEntity >= toEntity) {
+            return;
+        }
+        if (toEntity > capacity) {
+            capacity = toEntity * 2;
+            grow(capacity);
+        }
+        for (int entity = fromEntity; entity < toEntity; entity++) {
+            reset(entity);
+        }
+        presence.set(fromEntity, toEntity);
+    }
+
+    @Override
+    public void remove(int entity) {
+        presence.clear(entity);
+    }
+
+    @Override
+    public boolean has(int entity) {
+        return presence.get(entity);
+    }
+
+    @Override
+    public void move(int fromEntity, int toEntity) {
+        if (!presence.get(fromEntity)) {
+            return;
+        }
+        if (toEntity >= capacity) {
+            capacity = (toEntity + 1) * 2;
+            grow(capacity);
+        }
+        copy(fromEntity, toEntity);
+        presence.set(toEntity);
+        presence.clear(fromEntity);
+    }
+
+    @Override
+    public void shrink(int capacity) {
+        if (capacity < this.capacity) {
+            this.capacity = capacity;
+            grow(capacity);
+            presence = presence.get(0, capacity);
+        }
+    }
+
+    /**
+     * Not supported.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void put(int entity, T component) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not store component instances");
+    }
+
+    /**
+     * Not supported.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public T get(int entity) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not store component instances");
+    }
+
+    /**
+     * There is no component instance, use {@link #has(int)} to test if the
+     * component exists.
+     *
+     * @return null
+     */
+    @Override
+    public T getIfExists(int entity) {
+        return null;
+    }
+
+    /**
+     * @return the current length of the backing arrays
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Resizes the backing arrays to the given capacity, which is lower than the
+     * current one when the mapper is shrunk.
+     *
+     * @param newCapacity the new length of the backing arrays
+     */
+    protected abstract void grow(int newCapacity);
+
+    /**
+     * Resets the values of the given entity to their default values.
+     *
+     * @param entity the entity id, lower than the capacity
+     */
+    protected abstract void reset(int entity);
+
+    /**
+     * Copies the values of an entity to another entity.
+     *
+     * @param fromEntity the source entity id, lower than the capacity
+     * @param toEntity   the destination entity id, lower than the capacity
+     */
+    protected abstract void copy(int fromEntity, int toEntity);
+}
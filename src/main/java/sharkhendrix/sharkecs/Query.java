@@ -0,0 +1,92 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package sharkhendrix.sharkecs;
+
+import sharkhendrix.sharkecs.subscription.TrackingSubscription;
+import sharkhendrix.sharkecs.util.IntIterator;
+
+/**
+ * <p>
+ * Handle of a runtime entity query, returned by
+ * {@link EntityManager#query(Aspect)}. Queries of equal aspects share the same
+ * handle, which counts its acquisitions: each query must be balanced by a
+ * {@link #release()} once its result is no longer needed. The last release
+ * detaches the subscription from the archetypes and transmutations, so that
+ * it stops costing per-entity work.
+ * <p>
+ * Queries must not be released concurrently with the {@link EntityManager}
+ * process.
+ */
+public class Query {
+
+    private QueryCache cache;
+    private Aspect aspect;
+    private TrackingSubscription subscription;
+    int references;
+
+    Query(QueryCache cache, Aspect aspect, TrackingSubscription subscription) {
+        this.cache = cache;
+        this.aspect = aspect;
+        this.subscription = subscription;
+    }
+
+    /**
+     * @return the entities matching the aspect of this query, reusing the
+     * iterator of the subscription
+     */
+    public IntIterator iterator() {
+        return subscription.iterator();
+    }
+
+    /**
+     * @return the indexed copy of the queried aspect
+     */
+    public Aspect getAspect() {
+        return aspect;
+    }
+
+    /**
+     * @return the subscription of the entities matching the aspect of this query
+     */
+    public TrackingSubscription getSubscription() {
+        return subscription;
+    }
+
+    /**
+     * Releases one acquisition of this query, the last release stops the
+     * updates of the subscription.
+     *
+     * @throws IllegalStateException if this query is already fully released
+     */
+    public void release() {
+        if (references <= 0) {
+            throw new IllegalStateException("the query is already released");
+        }
+        references--;
+        if (references == 0) {
+            cache.remove(aspect, this);
+        }
+    }
+
+    /**
+     * @return true if this query has not been fully released
+     */
+    public boolean isActive() {
+        return references > 0;
+    }
+}
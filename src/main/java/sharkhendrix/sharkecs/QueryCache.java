@@ -0,0 +1,127 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs;
+
+import sharkhendrix.sharkecs.builder.EngineBuilder;
+import sharkhendrix.sharkecs.builder.RegistrationMap;
+import sharkhendrix.sharkecs.builder.configurator.Configurator;
+import sharkhendrix.sharkecs.subscription.Subscriber;
+import sharkhendrix.sharkecs.subscription.TrackingSubscription;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * Cache of runtime entity queries, for tools, scripts, or commands that cannot
+ * declare their {@link Aspect} as a {@link Subscriber}. Each queried aspect
+ * gets its own {@link Query}, backed by a {@link TrackingSubscription}: the
+ * matching archetypes and transmutations are resolved once, on the first
+ * query, then the subscription is kept up to date by the {@link EntityManager}
+ * process cycles, as the subscriptions of the subscribers, until the query is
+ * released.
+ * <p>
+ * It is registered by {@link EngineBuilder#withDefaults()}, after the
+ * transmutations configuration, and configures itself as the query cache of
+ * the {@link EntityManager}, see {@link EntityManager#query(Aspect)}.
+ * <p>
+ * Queries must not be made or released concurrently with the
+ * {@link EntityManager} process.
+ */
+public class QueryCache implements Configurator {
+
+    private EntityManager entityManager;
+    private ComponentIndex componentIndex;
+    private Archetype[] archetypes;
+    private int expectedEntityCount;
+    private Map<Aspect, Query> queries = new HashMap<>();
+
+    @Override
+    public void configure(EngineBuilder engineBuilder) {
+        RegistrationMap registrations = engineBuilder.getRegistrations();
+        entityManager = registrations.getOrFail(EntityManager.class);
+        componentIndex = registrations.getOrFail(ComponentIndex.class);
+        archetypes = registrations.getAllAssignableFrom(Archetype.class).toArray(new Archetype[0]);
+        expectedEntityCount = engineBuilder.getExpectedEntityCount();
+        entityManager.setQueryCache(this);
+    }
+
+    /**
+     * Acquires the query of the entities matching the given aspect, creating and
+     * filling its subscription on the first call for this aspect. Each call must
+     * be balanced by a {@link Query#release()}.
+     *
+     * @param aspect the aspect to query, not modified
+     * @return the query of the given aspect
+     * @throws IllegalStateException if this cache is not configured yet
+     */
+    public Query get(Aspect aspect) {
+        Query query = queries.get(aspect);
+        if (query == null) {
+            query = create(aspect.copy());
+            queries.put(query.getAspect(), query);
+        }
+        query.references++;
+        return query;
+    }
+
+    /**
+     * @return the number of cached queries
+     */
+    public int size() {
+        return queries.size();
+    }
+
+    /**
+     * Detaches the subscription of the given query from the archetypes and
+     * transmutations, then drops it from the cache.
+     */
+    void remove(Aspect aspect, Query query) {
+        TrackingSubscription subscription = query.getSubscription();
+        for (Archetype archetype : archetypes) {
+            archetype.removeQuerySubscription(subscription);
+            for (Transmutation transmutation : archetype.getTransmutations()) {
+                if (transmutation != null) {
+                    transmutation.removeQuerySubscription(subscription);
+                }
+            }
+        }
+        queries.remove(aspect, query);
+    }
+
+    private Query create(Aspect aspect) {
+        if (entityManager == null) {
+            throw new IllegalStateException("the QueryCache is not configured yet");
+        }
+        aspect.index(componentIndex);
+        TrackingSubscription subscription = new TrackingSubscription(expectedEntityCount);
+        for (Archetype archetype : archetypes) {
+            boolean fromMatches = aspect.matches(archetype.getCompositionMask());
+            if (fromMatches) {
+                archetype.addQuerySubscription(subscription);
+            }
+            for (Transmutation transmutation : archetype.getTransmutations()) {
+                if (transmutation != null) {
+                    transmutation.addQuerySubscription(subscription, fromMatches,
+                            aspect.matches(transmutation.getTo().getCompositionMask()));
+                }
+            }
+        }
+        entityManager.populate(subscription, aspect);
+        return new Query(this, aspect, subscription);
+    }
+}
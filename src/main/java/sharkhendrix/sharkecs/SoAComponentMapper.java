@@ -0,0 +1,380 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs;
+
+import sharkhendrix.sharkecs.builder.EngineConfigurationException;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * Structure-of-arrays {@link PrimitiveComponentMapper}: each field of the
+ * component is stored in its own primitive array indexed by entity id.
+ * <p>
+ * Fields are declared by name, typically when registering the mapper:
+ *
+ * <pre>
+ * builder.component(Position.class, new SoAComponentMapper&lt;Position&gt;(expectedEntityCount)
+ *         .withFloat("x")
+ *         .withFloat("y"));
+ * </pre>
+ * <p>
+ * Systems then retrieve the field handles once, for instance in
+ * {@link Initializable#initialize()}, and access the values without boxing
+ * nor indirection:
+ *
+ * <pre>
+ * x = positionMapper.floatField("x");
+ * ...
+ * x.set(entity, x.get(entity) + vx.get(entity) * delta);
+ * </pre>
+ *
+ * @param <T> the marker component type
+ */
+public class SoAComponentMapper<T> extends PrimitiveComponentMapper<T> {
+
+    /**
+     * Base class of the field handles.
+     */
+    public abstract static class Field {
+
+        private String name;
+
+        private Field(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        abstract void grow(int newCapacity);
+
+        abstract void reset(int entity);
+
+        abstract void copy(int fromEntity, int toEntity);
+    }
+
+    /**
+     * Handle on a {@code int} field of a {@link SoAComponentMapper}.
+     */
+    public static class IntField extends Field {
+
+        private int[] data;
+
+        private IntField(String name, int capacity) {
+            super(name);
+            data = new int[capacity];
+        }
+
+        public int get(int entity) {
+            return data[entity];
+        }
+
+        public void set(int entity, int value) {
+            data[entity] = value;
+        }
+
+        /**
+         * @return the backing data array, indexed by entity id. It is replaced when
+         * the mapper grows.
+         */
+        public int[] getData() {
+            return data;
+        }
+
+        @Override
+        void grow(int newCapacity) {
+            data = Arrays.copyOf(data, newCapacity);
+        }
+
+        @Override
+        void reset(int entity) {
+            data[entity] = 0;
+        }
+
+        @Override
+        void copy(int fromEntity, int toEntity) {
+            data[toEntity] = data[fromEntity];
+        }
+    }
+
+    /**
+     * Handle on a {@code long} field of a {@link SoAComponentMapper}.
+     */
+    public static class LongField extends Field {
+
+        private long[] data;
+
+        private LongField(String name, int capacity) {
+            super(name);
+            data = new long[capacity];
+        }
+
+        public long get(int entity) {
+            return data[entity];
+        }
+
+        public void set(int entity, long value) {
+            data[entity] = value;
+        }
+
+        /**
+         * @return the backing data array, indexed by entity id. It is replaced when
+         * the mapper grows.
+         */
+        public long[] getData() {
+            return data;
+        }
+
+        @Override
+        void grow(int newCapacity) {
+            data = Arrays.copyOf(data, newCapacity);
+        }
+
+        @Override
+        void reset(int entity) {
+            data[entity] = 0;
+        }
+
+        @Override
+        void copy(int fromEntity, int toEntity) {
+            data[toEntity] = data[fromEntity];
+        }
+    }
+
+    /**
+     * Handle on a {@code float} field of a {@link SoAComponentMapper}.
+     */
+    public static class FloatField extends Field {
+
+        private float[] data;
+
+        private FloatField(String name, int capacity) {
+            super(name);
+            data = new float[capacity];
+        }
+
+        public float get(int entity) {
+            return data[entity];
+        }
+
+        public void set(int entity, float value) {
+            data[entity] = value;
+        }
+
+        /**
+         * @return the backing data array, indexed by entity id. It is replaced when
+         * the mapper grows.
+         */
+        public float[] getData() {
+            return data;
+        }
+
+        @Override
+        void grow(int newCapacity) {
+            data = Arrays.copyOf(data, newCapacity);
+        }
+
+        @Override
+        void reset(int entity) {
+            data[entity] = 0;
+        }
+
+        @Override
+        void copy(int fromEntity, int toEntity) {
+            data[toEntity] = data[fromEntity];
+        }
+    }
+
+    /**
+     * Handle on a {@code double} field of a {@link SoAComponentMapper}.
+     */
+    public static class DoubleField extends Field {
+
+        private double[] data;
+
+        private DoubleField(String name, int capacity) {
+            super(name);
+            data = new double[capacity];
+        }
+
+        public double get(int entity) {
+            return data[entity];
+        }
+
+        public void set(int entity, double value) {
+            data[entity] = value;
+        }
+
+        /**
+         * @return the backing data array, indexed by entity id. It is replaced when
+         * the mapper grows.
+         */
+        public double[] getData() {
+            return data;
+        }
+
+        @Override
+        void grow(int newCapacity) {
+            data = Arrays.copyOf(data, newCapacity);
+        }
+
+        @Override
+        void reset(int entity) {
+            data[entity] = 0;
+        }
+
+        @Override
+        void copy(int fromEntity, int toEntity) {
+            data[toEntity] = data[fromEntity];
+        }
+    }
+
+    private Map<String, Field> fields = new LinkedHashMap<>();
+    private Field[] fieldArray = new Field[0];
+
+    public SoAComponentMapper(int initialCapacity) {
+        super(initialCapacity);
+    }
+
+    /**
+     * Declares a new {@code int} field.
+     *
+     * @param name the name of the field
+     * @return this for chaining
+     * @throws EngineConfigurationException if the field name is already declared
+     */
+    public SoAComponentMapper<T> withInt(String name) {
+        addField(new IntField(name, getCapacity()));
+        return this;
+    }
+
+    /**
+     * @param name the name of a declared {@code int} field
+     * @return the handle of the field
+     * @throws EngineConfigurationException if there is no {@code int} field with
+     *                                      this name
+     */
+    public IntField intField(String name) {
+        return getField(name, IntField.class);
+    }
+
+    /**
+     * Declares a new {@code long} field.
+     *
+     * @param name the name of the field
+     * @return this for chaining
+     * @throws EngineConfigurationException if the field name is already declared
+     */
+    public SoAComponentMapper<T> withLong(String name) {
+        addField(new LongField(name, getCapacity()));
+        return this;
+    }
+
+    /**
+     * @param name the name of a declared {@code long} field
+     * @return the handle of the field
+     * @throws EngineConfigurationException if there is no {@code long} field with
+     *                                      this name
+     */
+    public LongField longField(String name) {
+        return getField(name, LongField.class);
+    }
+
+    /**
+     * Declares a new {@code float} field.
+     *
+     * @param name the name of the field
+     * @return this for chaining
+     * @throws EngineConfigurationException if the field name is already declared
+     */
+    public SoAComponentMapper<T> withFloat(String name) {
+        addField(new FloatField(name, getCapacity()));
+        return this;
+    }
+
+    /**
+     * @param name the name of a declared {@code float} field
+     * @return the handle of the field
+     * @throws EngineConfigurationException if there is no {@code float} field with
+     *                                      this name
+     */
+    public FloatField floatField(String name) {
+        return getField(name, FloatField.class);
+    }
+
+    /**
+     * Declares a new {@code double} field.
+     *
+     * @param name the name of the field
+     * @return this for chaining
+     * @throws EngineConfigurationException if the field name is already declared
+     */
+    public SoAComponentMapper<T> withDouble(String name) {
+        addField(new DoubleField(name, getCapacity()));
+        return this;
+    }
+
+    /**
+     * @param name the name of a declared {@code double} field
+     * @return the handle of the field
+     * @throws EngineConfigurationException if there is no {@code double} field with
+     *                                      this name
+     */
+    public DoubleField doubleField(String name) {
+        return getField(name, DoubleField.class);
+    }
+
+    @Override
+    protected void grow(int newCapacity) {
+        for (Field field : fieldArray) {
+            field.grow(newCapacity);
+        }
+    }
+
+    @Override
+    protected void reset(int entity) {
+        for (Field field : fieldArray) {
+            field.reset(entity);
+        }
+    }
+
+    @Override
+    protected void copy(int fromEntity, int toEntity) {
+        for (Field field : fieldArray) {
+            field.copy(fromEntity, toEntity);
+        }
+    }
+
+    private void addField(Field field) {
+        if (fields.putIfAbsent(field.getName(), field) != null) {
+            throw new EngineConfigurationException("Duplicate field: " + field.getName());
+        }
+        fieldArray = fields.values().toArray(new Field[0]);
+    }
+
+    private <F extends Field> F getField(String name, Class<F> type) {
+        Field field = fields.get(name);
+        if (!type.isInstance(field)) {
+            throw new EngineConfigurationException("No " + type.getSimpleName() + " named " + name);
+        }
+        return type.cast(field);
+    }
+}
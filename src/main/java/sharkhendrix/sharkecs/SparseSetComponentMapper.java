@@ -0,0 +1,213 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs;
+
+import sharkhendrix.sharkecs.builder.EngineConfigurationException;
+import sharkhendrix.sharkecs.util.Bag;
+import sharkhendrix.sharkecs.util.IntBag;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * {@link ComponentMapper} for components held by a small fraction of the
+ * entities. Components are stored in a dense array, along with a dense array of
+ * their owner entities, and a paged sparse index maps each entity to its dense
+ * index. Pages of the sparse index are allocated on the first component of
+ * their entity range, so the memory footprint follows the number of components
+ * rather than the highest entity id, unlike {@link ArrayComponentMapper}.
+ * <p>
+ * {@link #get(int)}, {@link #has(int)} and {@link #remove(int)} are O(1). The
+ * owners can be iterated densely via {@link #size()}, {@link #entityAt(int)}
+ * and {@link #componentAt(int)}, removals move the last component to the
+ * removed index.
+ *
+ * @param <T> the component type
+ */
+public class SparseSetComponentMapper<T> implements ComponentMapper<T> {
+
+    public static final int DEFAULT_PAGE_SIZE = 1024;
+
+    private int[][] pages;
+    private int pageShift;
+    private int pageMask;
+    private Bag<T> components;
+    private IntBag entities;
+    private Supplier<? extends T> newInstanceSupplier;
+
+    /**
+     * Creates a sparse set mapper with a page size of {@link #DEFAULT_PAGE_SIZE}.
+     *
+     * @param initialCapacity     the initial capacity of the dense arrays
+     * @param newInstanceSupplier the supplier of new components
+     */
+    public SparseSetComponentMapper(int initialCapacity, Supplier<? extends T> newInstanceSupplier) {
+        this(DEFAULT_PAGE_SIZE, initialCapacity, newInstanceSupplier);
+    }
+
+    /**
+     * @param pageSize            the number of entities indexed by a page of the
+     *                            sparse index, must be a power of two
+     * @param initialCapacity     the initial capacity of the dense arrays
+     * @param newInstanceSupplier the supplier of new components
+     */
+    public SparseSetComponentMapper(int pageSize, int initialCapacity, Supplier<? extends T> newInstanceSupplier) {
+        if (pageSize < 1 || Integer.bitCount(pageSize) != 1) {
+            throw new EngineConfigurationException("pageSize must be a power of two");
+        }
+        pageShift = Integer.numberOfTrailingZeros(pageSize);
+        pageMask = pageSize - 1;
+        pages = new int[1][];
+        components = new Bag<>(initialCapacity);
+        entities = new IntBag(initialCapacity);
+        this.newInstanceSupplier = newInstanceSupplier;
+    }
+
+    @Override
+    public T create(int entity) {
+        T component = newInstanceSupplier.get();
+        put(entity, component);
+        return component;
+    }
+
+    @Override
+    public void put(int entity, T component) {
+        int[] page = page(entity);
+        int denseIndex = page[entity & pageMask] - 1;
+        if (denseIndex >= 0) {
+            components.unsafeSet(denseIndex, component);
+        } else {
+            page[entity & pageMask] = entities.size() + 1;
+            entities.add(entity);
+            components.add(component);
+        }
+    }
+
+    @Override
+    public void remove(int entity) {
+        int denseIndex = denseIndexOf(entity);
+        if (denseIndex < 0) {
+            return;
+        }
+        pages[entity >>> pageShift][entity & pageMask] = 0;
+        int movedEntity = entities.remove(denseIndex);
+        components.remove(denseIndex);
+        // Releases the reference left behind the last index
+        components.unsafeSet(components.size(), null);
+        if (movedEntity != entity) {
+            pages[movedEntity >>> pageShift][movedEntity & pageMask] = denseIndex + 1;
+        }
+    }
+
+    @Override
+    public void move(int fromEntity, int toEntity) {
+        int denseIndex = denseIndexOf(fromEntity);
+        if (denseIndex < 0) {
+            return;
+        }
+        pages[fromEntity >>> pageShift][fromEntity & pageMask] = 0;
+        page(toEntity)[toEntity & pageMask] = denseIndex + 1;
+        entities.unsafeSet(denseIndex, toEntity);
+    }
+
+    /**
+     * Releases the pages of the sparse index located beyond the given capacity,
+     * and shrinks the dense arrays to the given capacity if they are larger.
+     */
+    @Override
+    public void shrink(int capacity) {
+        int pageCount = Math.max(1, (capacity + pageMask) >>> pageShift);
+        if (pageCount < pages.length) {
+            pages = Arrays.copyOf(pages, pageCount);
+        }
+        components.shrink(capacity);
+        entities.shrink(capacity);
+    }
+
+    /**
+     * @return the component of the given entity, or null if it has none
+     */
+    @Override
+    public T get(int entity) {
+        int denseIndex = denseIndexOf(entity);
+        return denseIndex < 0 ? null : components.get(denseIndex);
+    }
+
+    @Override
+    public T getIfExists(int entity) {
+        return get(entity);
+    }
+
+    @Override
+    public boolean has(int entity) {
+        return denseIndexOf(entity) >= 0;
+    }
+
+    /**
+     * @return the number of components of this mapper
+     */
+    public int size() {
+        return entities.size();
+    }
+
+    /**
+     * @param index a dense index, lower than {@link #size()}
+     * @return the entity owning the component at the given dense index
+     */
+    public int entityAt(int index) {
+        return entities.get(index);
+    }
+
+    /**
+     * @param index a dense index, lower than {@link #size()}
+     * @return the component at the given dense index
+     */
+    public T componentAt(int index) {
+        return components.get(index);
+    }
+
+    /**
+     * @return the dense array of the entities owning a component, must not be
+     * modified
+     */
+    public IntBag entities() {
+        return entities;
+    }
+
+    private int denseIndexOf(int entity) {
+        int pageIndex = entity >>> pageShift;
+        if (pageIndex >= pages.length) {
+            return -1;
+        }
+        int[] page = pages[pageIndex];
+        return page == null ? -1 : page[entity & pageMask] - 1;
+    }
+
+    private int[] page(int entity) {
+        int pageIndex = entity >>> pageShift;
+        if (pageIndex >= pages.length) {
+            pages = Arrays.copyOf(pages, Math.max(pageIndex + 1, pages.length * 2));
+        }
+        int[] page = pages[pageIndex];
+        if (page == null) {
+            page = new int[pageMask + 1];
+            pages[pageIndex] = page;
+        }
+        return page;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs;
+
+import sharkhendrix.sharkecs.annotation.Inject;
+import sharkhendrix.sharkecs.builder.EngineBuilder;
+import sharkhendrix.sharkecs.util.Bits;
+
+/**
+ * <p>
+ * {@link ComponentMapper} of a tag component type, registered via
+ * {@link EngineBuilder#tag(Class...)}. A tag only exists in the composition of
+ * the {@link Archetype}s, for {@link Aspect} matching: it has no instance and
+ * no per-entity storage.
+ * <p>
+ * Tag mappers are excluded from the component mappers of the archetypes and
+ * the transmutations, so creating, transmuting or removing an entity never
+ * calls them. {@link #create(int)}, {@link #put(int, Object)} and
+ * {@link #remove(int)} do nothing, {@link #get(int)} and
+ * {@link #getIfExists(int)} always return null. {@link #has(int)} tests the
+ * composition of the actual (or future) archetype of the entity, which must
+ * have been created, see {@link EntityManager#archetypeOf(int)}.
+ *
+ * @param <T> the tag type
+ */
+public class TagComponentMapper<T> implements ComponentMapper<T>, Initializable {
+
+    private Class<T> type;
+    private int index;
+    @Inject
+    private EntityManager entityManager;
+    @Inject
+    private ComponentIndex componentIndex;
+
+    /**
+     * @param type the tag type
+     */
+    public TagComponentMapper(Class<T> type) {
+        this.type = type;
+    }
+
+    @Override
+    public void initialize() {
+        index = componentIndex.indexOf(type);
+    }
+
+    @Override
+    public T create(int entity) {
+        return null;
+    }
+
+    @Override
+    public void createRange(int fromEntity, int toEntity) {
+        // Nothing to create
+    }
+
+    @Override
+    public void put(int entity, T component) {
+        // Nothing to store
+    }
+
+    @Override
+    public void remove(int entity) {
+        // Nothing to remove
+    }
+
+    @Override
+    public void move(int fromEntity, int toEntity) {
+        // The tag is part of the archetype, which moves with the entity
+    }
+
+    @Override
+    public T get(int entity) {
+        return null;
+    }
+
+    @Override
+    public T getIfExists(int entity) {
+        return null;
+    }
+
+    @Override
+    public boolean has(int entity) {
+        Archetype archetype = entityManager.archetypeOf(entity);
+        return archetype != null && Bits.get(archetype.getCompositionMask(), index);
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    public void setEntityManager(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    public void setComponentIndex(ComponentIndex componentIndex) {
+        this.componentIndex = componentIndex;
+    }
+}
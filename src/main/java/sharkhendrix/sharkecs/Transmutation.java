@@ -103,6 +103,34 @@ public class Transmutation {
         this.removeMappers = removeMappers;
     }
 
+    /**
+     * Adds a runtime query subscription, bypassing the configured check.
+     *
+     * @param subscription the subscription to add
+     * @param fromMatches  true if the "from" archetype matches the subscription
+     * @param toMatches    true if the "to" archetype matches the subscription
+     */
+    void addQuerySubscription(Subscription subscription, boolean fromMatches, boolean toMatches) {
+        if (fromMatches && toMatches) {
+            changeSubscriptions = Archetype.append(changeSubscriptions, subscription);
+        } else if (fromMatches) {
+            removeSubscriptions = Archetype.append(removeSubscriptions, subscription);
+        } else if (toMatches) {
+            addSubscriptions = Archetype.append(addSubscriptions, subscription);
+        }
+    }
+
+    /**
+     * Removes a runtime query subscription, bypassing the configured check.
+     *
+     * @param subscription the subscription to remove
+     */
+    void removeQuerySubscription(Subscription subscription) {
+        changeSubscriptions = Archetype.remove(changeSubscriptions, subscription);
+        removeSubscriptions = Archetype.remove(removeSubscriptions, subscription);
+        addSubscriptions = Archetype.remove(addSubscriptions, subscription);
+    }
+
     @Override
     public String toString() {
         return "Transmutation (" + from.getName() + " -> " + to.getName() + ")";
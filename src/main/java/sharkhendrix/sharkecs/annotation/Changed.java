@@ -0,0 +1,39 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.annotation;
+
+import sharkhendrix.sharkecs.ChangeTracker;
+import sharkhendrix.sharkecs.subscription.ChangedSubscription;
+import sharkhendrix.sharkecs.subscription.Subscriber;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Annotation for {@link Subscriber} implementers to only iterate the entities
+ * of their aspect having one of the given component types changed since the
+ * previous iteration, see {@link ChangedSubscription}. A {@link ChangeTracker}
+ * must be registered for each given component type.
+ */
+@Retention(RUNTIME)
+@Target(TYPE)
+public @interface Changed {
+    Class<?>[] value();
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.annotation;
+
+import sharkhendrix.sharkecs.IntervalProcessor;
+import sharkhendrix.sharkecs.Processor;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * <p>
+ * Annotation for {@link Processor} implementers to run less often than the
+ * engine: every {@link #frames()} engine process calls, or at most once every
+ * {@link #millis()} milliseconds if set. The processor is wrapped in an
+ * {@link IntervalProcessor} by the engine building, skipped calls cost a
+ * counter decrement.
+ * <p>
+ * {@link #offset()} delays the first run, so processors with the same interval
+ * may be spread over different frames.
+ */
+@Retention(RUNTIME)
+@Target(TYPE)
+public @interface RunEvery {
+
+    /**
+     * @return the number of engine process calls between two runs
+     */
+    int frames() default 1;
+
+    /**
+     * @return the minimum duration between two runs in milliseconds, zero to
+     * use {@link #frames()}
+     */
+    long millis() default 0;
+
+    /**
+     * @return the number of engine process calls skipped before the first run,
+     * only used with {@link #frames()}
+     */
+    int offset() default 0;
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.annotation;
+
+import sharkhendrix.sharkecs.ParallelEngine;
+import sharkhendrix.sharkecs.Processor;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Annotation for {@link Processor} types to declare the component (or any
+ * other shared data) types written during a process run. Used by the
+ * {@link ParallelEngine} to run non-conflicting processors at the same time.
+ * <p>
+ * A processor declaring neither {@link Reads} nor {@link Writes} is assumed to
+ * conflict with every other processor.
+ */
+@Retention(RUNTIME)
+@Target(TYPE)
+public @interface Writes {
+    Class<?>[] value();
+}
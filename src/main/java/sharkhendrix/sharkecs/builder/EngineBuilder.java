@@ -18,15 +18,29 @@ package sharkhendrix.sharkecs.builder;
 
 import sharkhendrix.sharkecs.*;
 import sharkhendrix.sharkecs.annotation.Inject;
+import sharkhendrix.sharkecs.annotation.Reads;
 import sharkhendrix.sharkecs.annotation.SortEntities;
+import sharkhendrix.sharkecs.annotation.Writes;
 import sharkhendrix.sharkecs.builder.configurator.*;
+import sharkhendrix.sharkecs.metrics.InstrumentedEngine;
+import sharkhendrix.sharkecs.metrics.InstrumentedProcessor;
+import sharkhendrix.sharkecs.metrics.MetricsListener;
 import sharkhendrix.sharkecs.subscription.Subscriber;
+import sharkhendrix.sharkecs.subscription.TrackingSubscription;
+import sharkhendrix.sharkecs.table.TableComponentMapper;
+import sharkhendrix.sharkecs.table.TableStorage;
+import sharkhendrix.sharkecs.util.Bag;
+import sharkhendrix.sharkecs.util.BufferedSortableIntList;
+import sharkhendrix.sharkecs.util.IntBag;
 import sharkhendrix.sharkecs.util.IntComparator;
-import sharkhendrix.sharkecs.util.SortableIntArrayList;
+import sharkhendrix.sharkecs.util.PagedBag;
+import sharkhendrix.sharkecs.util.PagedIntBag;
+import sharkhendrix.sharkecs.util.ParallelIntSort;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Supplier;
 
 /**
@@ -74,6 +88,10 @@ public class EngineBuilder {
     private Configurator rootConfigurator;
     private RegistrationMap registrations;
     private List<Processor> processors;
+    private ForkJoinPool parallelPool;
+    private int instrumentationWindowSize;
+    private MetricsListener metricsListener;
+    private int pageSize;
 
     private boolean configuring;
     private Object previousObject;
@@ -133,14 +151,32 @@ public class EngineBuilder {
      * @return an EngineBuilder with default configuration
      */
     public static EngineBuilder withDefaults(int expectedEntityCount) {
-        EntityManager entityManager = new EntityManager(expectedEntityCount);
+        return withDefaults(expectedEntityCount, new EntityManager(expectedEntityCount));
+    }
 
+    /**
+     * Creates an EngineBuilder with the minimal default configuration as mentioned
+     * above, using paged storage for the {@link EntityManager} and as set by
+     * {@link #pagedStorage(int)}.
+     *
+     * @param expectedEntityCount the expected maximum number of entity.
+     * @param pageSize            the number of elements of a page, must be a power
+     *                            of two
+     * @return an EngineBuilder with default configuration and paged storage
+     */
+    public static EngineBuilder withPagedDefaults(int expectedEntityCount, int pageSize) {
+        return withDefaults(expectedEntityCount, new EntityManager(expectedEntityCount, pageSize))
+                .pagedStorage(pageSize);
+    }
+
+    private static EngineBuilder withDefaults(int expectedEntityCount, EntityManager entityManager) {
         return new EngineBuilder(expectedEntityCount)
                 .with(new Prioritizer())
                 // Configurators
                 .with(new SubscriberConfigurator())
                 .then(new ArchetypeConfigurator())
                 .then(new TransmutationConfigurator())
+                .then(new QueryCache())
                 .then(new ProcessorConfigurator())
                 .then(new Injector())
                 .then(new InitializableConfigurator())
@@ -258,10 +294,181 @@ public class EngineBuilder {
      * @return this for chaining
      */
     public <T> EngineBuilder component(Class<T> type, Supplier<T> newInstanceSupplier) {
-        component(type, new ArrayComponentMapper<>(expectedEntityCount, newInstanceSupplier));
+        component(type, new ArrayComponentMapper<>(newComponentBag(), newInstanceSupplier));
+        return this;
+    }
+
+    /**
+     * Register a pooled {@link ArrayComponentMapper} for the given component
+     * type: removed components are reused by subsequent creations, see
+     * {@link ArrayComponentMapper#ArrayComponentMapper(int, Supplier, int)}.
+     *
+     * @param <T>                 the component type
+     * @param type                the component type
+     * @param newInstanceSupplier a constructor reference for the given {@code type}
+     * @param maxPoolSize         the maximum number of pooled components
+     * @return this for chaining
+     */
+    public <T> EngineBuilder pooledComponent(Class<T> type, Supplier<T> newInstanceSupplier, int maxPoolSize) {
+        return component(type, new ArrayComponentMapper<>(newComponentBag(), newInstanceSupplier, maxPoolSize));
+    }
+
+    /**
+     * Register the given object as a writable resource, shared by the processors.
+     * Injection will be done by field type. Processors of a parallel engine
+     * declare their accesses to it via {@link Reads} and {@link Writes}, see
+     * {@link ResourceRegistry}.
+     *
+     * @param resource the resource to register
+     * @return this for chaining
+     */
+    public EngineBuilder resource(Object resource) {
+        return resource(null, resource);
+    }
+
+    /**
+     * Register the given object as a writable resource, shared by the processors.
+     * Injection will be done by field type and name.
+     *
+     * @param name     the name of the registration for field name matching during
+     *                 injection, may be null
+     * @param resource the resource to register
+     * @return this for chaining
+     */
+    public EngineBuilder resource(String name, Object resource) {
+        with(name, resource);
+        registrations.computeIfAbsent(ResourceRegistry.class, null, ResourceRegistry::new)
+                .register(resource.getClass(), false);
+        return this;
+    }
+
+    /**
+     * Register the given object as a read-only resource: it must not be modified
+     * once the engine is built, so processors of a parallel engine may read it
+     * concurrently without declaring it. Injection will be done by field type.
+     *
+     * @param resource the resource to register
+     * @return this for chaining
+     */
+    public EngineBuilder readOnlyResource(Object resource) {
+        return readOnlyResource(null, resource);
+    }
+
+    /**
+     * Register the given object as a read-only resource, see
+     * {@link #readOnlyResource(Object)}. Injection will be done by field type and
+     * name.
+     *
+     * @param name     the name of the registration for field name matching during
+     *                 injection, may be null
+     * @param resource the resource to register
+     * @return this for chaining
+     */
+    public EngineBuilder readOnlyResource(String name, Object resource) {
+        with(name, resource);
+        registrations.computeIfAbsent(ResourceRegistry.class, null, ResourceRegistry::new)
+                .register(resource.getClass(), true);
+        return this;
+    }
+
+    /**
+     * Makes the {@link ArrayComponentMapper}s registered by the subsequent
+     * convenience component methods, and the {@link TrackingSubscription}s, store
+     * their data in {@link PagedBag}s and {@link PagedIntBag}s of the given page
+     * size: growing allocates new pages instead of copying a whole array. See
+     * {@link #withPagedDefaults(int, int)} to also page the {@link EntityManager}.
+     *
+     * @param pageSize the number of elements of a page, must be a power of two
+     * @return this for chaining
+     */
+    public EngineBuilder pagedStorage(int pageSize) {
+        checkConfiguring();
+        if (pageSize < 1 || Integer.bitCount(pageSize) != 1) {
+            throw new EngineConfigurationException("pageSize must be a power of two");
+        }
+        this.pageSize = pageSize;
+        return this;
+    }
+
+    /**
+     * Register a {@link TagComponentMapper} for each of the given tag types. Tags
+     * take part in archetype compositions and aspects like any component type,
+     * but have no instance and no per-entity storage.
+     *
+     * @param tagTypes the tag types
+     * @return this for chaining
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public EngineBuilder tag(Class<?>... tagTypes) {
+        for (Class<?> tagType : tagTypes) {
+            component((Class) tagType, new TagComponentMapper<>(tagType));
+        }
+        return this;
+    }
+
+    /**
+     * Register a {@link SparseSetComponentMapper} for the given component type,
+     * for components held by a small fraction of the entities.
+     *
+     * @param <T>                 the component type
+     * @param type                the component type
+     * @param newInstanceSupplier a constructor reference for the given {@code type}
+     * @return this for chaining
+     */
+    public <T> EngineBuilder sparseComponent(Class<T> type, Supplier<T> newInstanceSupplier) {
+        return component(type, new SparseSetComponentMapper<>(SparseSetComponentMapper.DEFAULT_PAGE_SIZE,
+                Math.min(expectedEntityCount, SparseSetComponentMapper.DEFAULT_PAGE_SIZE), newInstanceSupplier));
+    }
+
+    /**
+     * Register a {@link ChangeTracker} for each of the given component types, whose
+     * {@link ComponentMapper} must already be registered. Trackers are injected in fields declared as
+     * {@code ChangeTracker<Type>}.
+     *
+     * @param componentTypes the component types to track
+     * @return this for chaining
+     * @throws EngineConfigurationException if a component type has no registered mapper
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public EngineBuilder changeTracking(Class<?>... componentTypes) {
+        checkConfiguring();
+        for (Class<?> componentType : componentTypes) {
+            ComponentMapper mapper = registrations.getOrFail(ComponentMapper.class, componentType);
+            registrations.put(ChangeTracker.class, componentType, new ChangeTracker<>(mapper));
+        }
         return this;
     }
 
+    /**
+     * Register a {@link TableStorage} with the given chunk size, used by the
+     * subsequent calls to {@link #tableComponent(Class, Supplier)}.
+     *
+     * @param chunkSize the number of rows of a table chunk, must be a power of two
+     * @return this for chaining
+     */
+    public EngineBuilder tableStorage(int chunkSize) {
+        return with(new TableStorage(chunkSize, expectedEntityCount));
+    }
+
+    /**
+     * Register a {@link TableComponentMapper} for the given component type, stored
+     * in the registered {@link TableStorage}. A {@link TableStorage} with a
+     * {@link TableStorage#DEFAULT_CHUNK_SIZE} is registered if there is none.
+     *
+     * @param <T>                 the component type
+     * @param type                the component type
+     * @param newInstanceSupplier a constructor reference for the given {@code type}
+     * @return this for chaining
+     */
+    public <T> EngineBuilder tableComponent(Class<T> type, Supplier<T> newInstanceSupplier) {
+        TableStorage storage = registrations.get(TableStorage.class);
+        if (storage == null) {
+            tableStorage(TableStorage.DEFAULT_CHUNK_SIZE);
+            storage = registrations.get(TableStorage.class);
+        }
+        return component(type, new TableComponentMapper<>(storage, newInstanceSupplier));
+    }
+
     /**
      * Register a {@link ComponentMapper} for the given component type.
      * {@link ArrayComponentMapper} is used.
@@ -272,14 +479,16 @@ public class EngineBuilder {
      * @return this for chaining
      */
     public <T> EngineBuilder component(Class<T> type) {
-        return component(type, new ArrayComponentMapper<>(expectedEntityCount, () -> {
+        return component(type, new ArrayComponentMapper<>(newComponentBag(), () -> {
             throw new UnsupportedOperationException();
         }));
     }
 
     /**
      * Register the given {@link ComponentMapper} for the given component
-     * {@code type}.
+     * {@code type}. The mapper is also registered under its own class, so fields
+     * declared with the concrete mapper type, such as
+     * {@code FloatComponentMapper<Health>}, are injected.
      *
      * @param <T>             the component type
      * @param type            the component type
@@ -290,6 +499,7 @@ public class EngineBuilder {
     public <T> EngineBuilder component(Class<T> type, ComponentMapper<T> componentMapper) {
         checkConfiguring();
         registrations.put(ComponentMapper.class, type, componentMapper);
+        registrations.alias(componentMapper.getClass(), type, componentMapper);
         return this;
     }
 
@@ -371,9 +581,13 @@ public class EngineBuilder {
     }
 
     /**
-     * Register an entity sorter with the default implementation (array list with insertion sort and binary search).
+     * Register an entity sorter with the default implementation (array list with buffered insertions and removals,
+     * merged by an adaptive sort).
      * <p>
-     * This default implementation is good for 'smoothly' changing comparison values, e.g. entity position.
+     * This default implementation is good for 'smoothly' changing comparison values, e.g. entity position,
+     * and for bulk insertions or removals.
+     * Comparators implementing {@link sharkhendrix.sharkecs.util.IntKeyComparator} or
+     * {@link sharkhendrix.sharkecs.util.FloatKeyComparator} also allow a radix sort of strongly disordered lists.
      * For another situation, prefer giving your own sortable list implementation with {@link #entitySort(String, SortableEntityListSupplier)}
      *
      * @param name       the name of the entity sorter,
@@ -383,7 +597,28 @@ public class EngineBuilder {
      */
     public EngineBuilder entitySort(String name, IntComparator comparator) {
         registrations.put(name + "Comparator", comparator);
-        return entitySort(name, () -> new SortableIntArrayList(expectedEntityCount / 3, comparator));
+        return entitySort(name, () -> new BufferedSortableIntList(expectedEntityCount / 3, comparator));
+    }
+
+    /**
+     * Register an entity sorter with the default implementation, sorting its lists on the given pool when their size
+     * reaches the given threshold, see {@link ParallelIntSort}. The comparator is then called concurrently and must be
+     * thread-safe.
+     *
+     * @param name              the name of the entity sorter,
+     *                          as it will be referenced in {@link SortEntities} annotation.
+     * @param comparator        the thread-safe comparator used for sorting entities
+     * @param pool              the pool running the parallel sorts
+     * @param parallelThreshold the minimum number of entities to sort them in parallel
+     * @return this for chaining
+     */
+    public EngineBuilder entitySort(String name, IntComparator comparator, ForkJoinPool pool, int parallelThreshold) {
+        if (parallelThreshold < 2) {
+            throw new EngineConfigurationException("parallelThreshold must be greater than one");
+        }
+        registrations.put(name + "Comparator", comparator);
+        return entitySort(name, () -> new BufferedSortableIntList(expectedEntityCount / 3, comparator,
+                new ParallelIntSort(pool, parallelThreshold)));
     }
 
     /**
@@ -528,6 +763,51 @@ public class EngineBuilder {
         return this;
     }
 
+    /**
+     * Makes {@link #build()} create a {@link ParallelEngine} running on the common
+     * {@link ForkJoinPool}. See {@link #parallel(ForkJoinPool)}.
+     *
+     * @return this for chaining
+     */
+    public EngineBuilder parallel() {
+        return parallel(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Makes {@link #build()} create a {@link ParallelEngine} running on the given
+     * pool. Processors run concurrently unless a priority constraint orders them,
+     * or their {@link sharkhendrix.sharkecs.annotation.Reads Reads} /
+     * {@link sharkhendrix.sharkecs.annotation.Writes Writes} declarations
+     * conflict. See {@link ProcessorDependencies}.
+     *
+     * @param pool the pool running the processors
+     * @return this for chaining
+     */
+    public EngineBuilder parallel(ForkJoinPool pool) {
+        checkConfiguring();
+        parallelPool = pool;
+        return this;
+    }
+
+    /**
+     * Makes {@link #build()} create an {@link InstrumentedEngine}, recording the
+     * wall time, allocated bytes and invocation count of each processor. Without
+     * this call, processors are not instrumented at all.
+     *
+     * @param windowSize the number of last frames kept by the histograms
+     * @param listener   the listener notified at the end of each frame, may be null
+     * @return this for chaining
+     */
+    public EngineBuilder instrumentation(int windowSize, MetricsListener listener) {
+        checkConfiguring();
+        if (windowSize < 1) {
+            throw new EngineConfigurationException("windowSize must be greater than zero");
+        }
+        instrumentationWindowSize = windowSize;
+        metricsListener = listener;
+        return this;
+    }
+
     /**
      * Set the root configurator to use. The default is a {@link RootConfigurator},
      * which calls all registered configurators in their priority orders.
@@ -559,13 +839,31 @@ public class EngineBuilder {
      * Build the engine, calling successively all the {@link Configurator}s, and
      * then injects all fields of all registered objects using the {@link Injector} (by default).
      *
-     * @return the ready-to-use Engine
+     * @return the ready-to-use Engine, a {@link ParallelEngine} if
+     * {@link #parallel(ForkJoinPool)} has been called, decorated by an
+     * {@link InstrumentedEngine} if {@link #instrumentation(int, MetricsListener)}
+     * has been called
      */
     public Engine build() {
         checkConfiguring();
         configuring = false;
         rootConfigurator.configure(this);
-        return new Engine(processors.toArray(new Processor[0]));
+        Processor[] processorArray = processors.toArray(new Processor[0]);
+        int[][] dependencies = parallelPool == null ? null
+                : ProcessorDependencies.compute(processorArray, registrations.get(Prioritizer.class),
+                registrations.get(ResourceRegistry.class), type -> registrations.get(ChangeTracker.class, type));
+        for (int i = 0; i < processorArray.length; i++) {
+            // Instrumented first, so that the frames skipped by an interval are not recorded
+            Processor processor = instrumentationWindowSize > 0
+                    ? new InstrumentedProcessor(processorArray[i], instrumentationWindowSize) : processorArray[i];
+            processorArray[i] = IntervalProcessor.of(processorArray[i], processor);
+        }
+        Engine engine = parallelPool == null ? new Engine(processorArray)
+                : new ParallelEngine(processorArray, dependencies, parallelPool);
+        if (instrumentationWindowSize > 0) {
+            engine = new InstrumentedEngine(engine, instrumentationWindowSize, metricsListener);
+        }
+        return engine;
     }
 
     /**
@@ -575,6 +873,28 @@ public class EngineBuilder {
         return expectedEntityCount;
     }
 
+    /**
+     * @return the page size set by {@link #pagedStorage(int)}, or zero if storage
+     * is not paged
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Creates an empty {@link IntBag} indexed by entity, paged if set by
+     * {@link #pagedStorage(int)}.
+     *
+     * @return a new bag
+     */
+    public IntBag newEntityIntBag() {
+        return pageSize > 0 ? new PagedIntBag(pageSize) : new IntBag(expectedEntityCount);
+    }
+
+    private <T> Bag<T> newComponentBag() {
+        return pageSize > 0 ? new PagedBag<>(pageSize) : new Bag<>(expectedEntityCount);
+    }
+
     /**
      * @return the registration map containing all registered objects
      */
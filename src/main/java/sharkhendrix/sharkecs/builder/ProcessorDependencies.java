@@ -0,0 +1,237 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.builder;
+
+import sharkhendrix.sharkecs.ChangeTracker;
+import sharkhendrix.sharkecs.EntityManager;
+import sharkhendrix.sharkecs.ParallelEngine;
+import sharkhendrix.sharkecs.Processor;
+import sharkhendrix.sharkecs.annotation.Changed;
+import sharkhendrix.sharkecs.annotation.Reads;
+import sharkhendrix.sharkecs.annotation.Writes;
+import sharkhendrix.sharkecs.builder.configurator.Prioritizer;
+import sharkhendrix.sharkecs.subscription.ChangedSubscription;
+import sharkhendrix.sharkecs.util.ReflectionUtil;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * Computes the dependency graph of {@link Processor}s for a
+ * {@link ParallelEngine}.
+ * <p>
+ * Given two processors, the one with the lowest index depends on the other if:
+ * <ul>
+ * <li>a priority constraint of the {@link Prioritizer} orders them, directly
+ * or transitively.
+ * <li>their access declarations conflict: one writes a type the other reads or
+ * writes, via {@link Reads} and {@link Writes}. A processor declaring none of
+ * them, or declaring {@link EntityManager} in {@link Writes}, conflicts with
+ * any other processor. Accesses to the resources of a
+ * {@link ResourceRegistry} follow its rules.
+ * <li>they feed or iterate the same {@link ChangedSubscription}: writing a
+ * component type tracked by a {@link ChangeTracker}, or subscribing with
+ * {@link Changed}, accesses the dirty set of the changed subscriptions of the
+ * tracker, which is not thread-safe. Writing a tracked component type
+ * therefore conflicts with writing any other component type tracked by the
+ * same changed subscription.
+ * </ul>
+ * <p>
+ * Entity operations are not access declarations: processors running in
+ * parallel must record them via {@link EntityManager#commandBuffer()}. A
+ * processor calling the operations of the {@link EntityManager} directly,
+ * such as {@link EntityManager#create(sharkhendrix.sharkecs.Archetype)} or
+ * {@link EntityManager#remove(int)}, must declare {@link EntityManager} in
+ * {@link Writes} to run alone.
+ */
+public class ProcessorDependencies {
+
+    private static class Access {
+        boolean exclusive;
+        Set<Class<?>> reads = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<Class<?>> writes = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<ChangedSubscription> changes = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        Access(Processor processor, ResourceRegistry resources, Function<Class<?>, ChangeTracker<?>> changeTrackers) {
+            Reads readsAnnotation = processor.getClass().getAnnotation(Reads.class);
+            Writes writesAnnotation = processor.getClass().getAnnotation(Writes.class);
+            exclusive = readsAnnotation == null && writesAnnotation == null;
+            if (readsAnnotation != null) {
+                Collections.addAll(reads, readsAnnotation.value());
+            }
+            if (writesAnnotation != null) {
+                Collections.addAll(writes, writesAnnotation.value());
+                // Direct entity operations write unsynchronized state shared with every processor
+                exclusive = writes.contains(EntityManager.class);
+            }
+            if (resources != null && !exclusive) {
+                applyResources(processor, resources);
+            }
+            if (changeTrackers != null && !exclusive) {
+                applyChangeTrackers(processor, changeTrackers);
+            }
+        }
+
+        /**
+         * The trackers of the written types, and the subscriber of a changed
+         * subscription, write the dirty sets of the changed subscriptions.
+         */
+        private void applyChangeTrackers(Processor processor, Function<Class<?>, ChangeTracker<?>> changeTrackers) {
+            for (Class<?> type : writes) {
+                addChanges(changeTrackers.apply(type));
+            }
+            Changed changed = ReflectionUtil.getAnnotationOnSuperclass(processor.getClass(), Changed.class);
+            if (changed != null) {
+                for (Class<?> type : changed.value()) {
+                    addChanges(changeTrackers.apply(type));
+                }
+            }
+        }
+
+        private void addChanges(ChangeTracker<?> changeTracker) {
+            if (changeTracker != null) {
+                Collections.addAll(changes, changeTracker.getSubscriptions());
+            }
+        }
+
+        private void applyResources(Processor processor, ResourceRegistry resources) {
+            for (Class<?> type : writes) {
+                if (resources.isReadOnly(type)) {
+                    throw new EngineConfigurationException(processor.getClass().getName()
+                            + " declares writing the read-only resource " + type.getName());
+                }
+            }
+            reads.removeIf(resources::isReadOnly);
+            addWritableResources(reads, resources);
+            addWritableResources(writes, resources);
+            for (Class<?> type = processor.getClass(); type != null; type = type.getSuperclass()) {
+                for (Field field : type.getDeclaredFields()) {
+                    for (Class<?> resourceType : resources.getWritableTypes(field.getType())) {
+                        if (!reads.contains(resourceType)) {
+                            writes.add(resourceType);
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Adds the writable resource types assignable to the declared types, so
+         * that declaring a supertype of a resource declares an access to it.
+         */
+        private static void addWritableResources(Set<Class<?>> types, ResourceRegistry resources) {
+            List<Class<?>> resourceTypes = new ArrayList<>();
+            for (Class<?> type : types) {
+                resourceTypes.addAll(resources.getWritableTypes(type));
+            }
+            types.addAll(resourceTypes);
+        }
+
+        boolean conflicts(Access other) {
+            return exclusive || other.exclusive
+                    || intersects(writes, other.writes)
+                    || intersects(writes, other.reads)
+                    || intersects(other.writes, reads)
+                    || intersects(changes, other.changes);
+        }
+
+        private static <T> boolean intersects(Set<T> set1, Set<T> set2) {
+            for (T element : set1) {
+                if (set2.contains(element)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private ProcessorDependencies() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Computes the dependencies of the given processors.
+     *
+     * @param processors  the processors, in their sequential execution order
+     * @param prioritizer the configured prioritizer, or null to only consider
+     *                    access conflicts
+     * @return for each processor, the indexes of the processors it depends on
+     */
+    public static int[][] compute(Processor[] processors, Prioritizer prioritizer) {
+        return compute(processors, prioritizer, null);
+    }
+
+    /**
+     * Computes the dependencies of the given processors, taking the declared
+     * resources into account, see {@link ResourceRegistry}.
+     *
+     * @param processors  the processors, in their sequential execution order
+     * @param prioritizer the configured prioritizer, or null to only consider
+     *                    access conflicts
+     * @param resources   the declared resources, or null if there is none
+     * @return for each processor, the indexes of the processors it depends on
+     * @throws EngineConfigurationException if a processor declares writing a
+     *                                      read-only resource
+     */
+    public static int[][] compute(Processor[] processors, Prioritizer prioritizer, ResourceRegistry resources) {
+        return compute(processors, prioritizer, resources, null);
+    }
+
+    /**
+     * Computes the dependencies of the given processors, taking the declared
+     * resources and the change trackers into account.
+     *
+     * @param processors     the processors, in their sequential execution order
+     * @param prioritizer    the configured prioritizer, or null to only consider
+     *                       access conflicts
+     * @param resources      the declared resources, or null if there is none
+     * @param changeTrackers the change tracker of a component type, returning
+     *                       null for an untracked type, or null if there is no
+     *                       change tracking
+     * @return for each processor, the indexes of the processors it depends on
+     * @throws EngineConfigurationException if a processor declares writing a
+     *                                      read-only resource
+     */
+    public static int[][] compute(Processor[] processors, Prioritizer prioritizer, ResourceRegistry resources,
+                                  Function<Class<?>, ChangeTracker<?>> changeTrackers) {
+        Access[] accesses = new Access[processors.length];
+        for (int i = 0; i < processors.length; i++) {
+            accesses[i] = new Access(processors[i], resources, changeTrackers);
+        }
+        int[][] dependencies = new int[processors.length][];
+        int[] buffer = new int[processors.length];
+        for (int i = 0; i < processors.length; i++) {
+            int count = 0;
+            for (int j = 0; j < i; j++) {
+                if (accesses[i].conflicts(accesses[j])
+                        || prioritizer != null && (prioritizer.isBefore(processors[j], processors[i])
+                        || prioritizer.isBefore(processors[i], processors[j]))) {
+                    buffer[count++] = j;
+                }
+            }
+            dependencies[i] = new int[count];
+            System.arraycopy(buffer, 0, dependencies[i], 0, count);
+        }
+        return dependencies;
+    }
+}
@@ -71,6 +71,24 @@ public class RegistrationMap {
         list.add(o);
     }
 
+    /**
+     * Add an alias of an already registered object, so it can also be retrieved
+     * by {@link #get(Class, Object)} with the given type. Aliases are not
+     * considered as registered objects: they are not visited by
+     * {@link #forEach(Consumer)} nor returned twice by the assignable type
+     * lookups.
+     *
+     * @param type the alias type to associate the object with
+     * @param key  the key to associate the object with
+     * @param o    the already registered object
+     */
+    public void alias(Class<?> type, Object key, Object o) {
+        Map<Object, Object> typeMap = byDeclaredTypeAndKey.computeIfAbsent(type, t -> new HashMap<>());
+        if (typeMap.put(key, o) != null) {
+            throw new EngineConfigurationException("Duplicate registration: [type = " + type + ", key = " + key + "]");
+        }
+    }
+
     private <T> void addAssignableTypes(T o) {
         ReflectionUtil.forEachAssignableTypes(o.getClass(), t -> byAssignableType.computeIfAbsent(t, t2 -> new ArrayList<>()).add(o));
     }
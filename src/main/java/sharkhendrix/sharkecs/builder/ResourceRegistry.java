@@ -0,0 +1,109 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.builder;
+
+import sharkhendrix.sharkecs.annotation.Reads;
+import sharkhendrix.sharkecs.annotation.SkipInject;
+import sharkhendrix.sharkecs.annotation.Writes;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>
+ * Registry of the resource types, global objects shared by the processors
+ * such as the time or the viewport, declared via
+ * {@link EngineBuilder#resource(Object)} and
+ * {@link EngineBuilder#readOnlyResource(Object)}. Resources are injected like
+ * any other registered object.
+ * <p>
+ * Used by {@link ProcessorDependencies} to schedule the processors accessing
+ * resources:
+ * <ul>
+ * <li>a read-only resource never causes a conflict, and declaring it in
+ * {@link Writes} fails the build.
+ * <li>a writable resource conflicts as declared by {@link Reads} and
+ * {@link Writes}, declaring a supertype of the resource type declares an
+ * access to the resource. A processor declaring its accesses but holding a
+ * field assignable from a writable resource type it does not declare is
+ * assumed to write it.
+ * </ul>
+ */
+@SkipInject
+public class ResourceRegistry {
+
+    private Map<Class<?>, Boolean> resources = new IdentityHashMap<>();
+
+    /**
+     * Declares a resource type.
+     *
+     * @param type     the resource type
+     * @param readOnly true if the resource is never written once the engine is
+     *                 built
+     * @throws EngineConfigurationException if the type is already declared with
+     *                                      another access
+     */
+    public void register(Class<?> type, boolean readOnly) {
+        Boolean previous = resources.putIfAbsent(type, readOnly);
+        if (previous != null && previous != readOnly) {
+            throw new EngineConfigurationException("The resource " + type.getName()
+                    + " is already declared as " + (previous ? "read-only" : "writable"));
+        }
+    }
+
+    /**
+     * @param type a type
+     * @return true if the given type is a declared resource type
+     */
+    public boolean isResource(Class<?> type) {
+        return resources.containsKey(type);
+    }
+
+    /**
+     * @param type a type
+     * @return true if the given type is a declared read-only resource type
+     */
+    public boolean isReadOnly(Class<?> type) {
+        return resources.getOrDefault(type, false);
+    }
+
+    /**
+     * @param type a type
+     * @return the declared writable resource types assignable to the given type,
+     * i.e. the given type and its subtypes
+     */
+    public List<Class<?>> getWritableTypes(Class<?> type) {
+        List<Class<?>> writableTypes = new ArrayList<>();
+        for (Map.Entry<Class<?>, Boolean> entry : resources.entrySet()) {
+            if (!entry.getValue() && type.isAssignableFrom(entry.getKey())) {
+                writableTypes.add(entry.getKey());
+            }
+        }
+        return writableTypes;
+    }
+
+    /**
+     * @return the declared resource types
+     */
+    public Set<Class<?>> getTypes() {
+        return Collections.unmodifiableSet(resources.keySet());
+    }
+}
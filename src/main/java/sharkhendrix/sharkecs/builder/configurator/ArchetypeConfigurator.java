@@ -18,23 +18,25 @@ package sharkhendrix.sharkecs.builder.configurator;
 
 import sharkhendrix.sharkecs.Archetype;
 import sharkhendrix.sharkecs.Aspect;
+import sharkhendrix.sharkecs.ComponentIndex;
 import sharkhendrix.sharkecs.ComponentMapper;
+import sharkhendrix.sharkecs.TagComponentMapper;
 import sharkhendrix.sharkecs.Transmutation;
 import sharkhendrix.sharkecs.builder.EngineBuilder;
 import sharkhendrix.sharkecs.builder.EngineConfigurationException;
 import sharkhendrix.sharkecs.builder.RegistrationMap;
 import sharkhendrix.sharkecs.subscription.Subscription;
 
-import java.util.HashMap;
-import java.util.IdentityHashMap;
-import java.util.Map;
+import java.util.*;
 import java.util.Map.Entry;
-import java.util.Set;
 
 /**
  * {@link Configurator} of {@link Archetype}s. Creates the arrays of
  * {@link Subscription}, {@link ComponentMapper} and {@link Transmutation}
- * related to the Archetype.
+ * related to the Archetype, and the composition masks of the archetypes and
+ * the subscription aspects, using a {@link ComponentIndex} registered by this
+ * configurator. {@link TagComponentMapper}s are only part of the composition
+ * masks, they are excluded from the component mapper arrays.
  */
 public class ArchetypeConfigurator extends TypeConfigurator<Archetype> {
 
@@ -44,6 +46,10 @@ public class ArchetypeConfigurator extends TypeConfigurator<Archetype> {
 
     private int nextId;
 
+    private ComponentIndex componentIndex;
+    private Aspect[] aspects;
+    private SubscriptionGroup[] groups;
+
     public ArchetypeConfigurator() {
         super(Archetype.class);
     }
@@ -51,6 +57,25 @@ public class ArchetypeConfigurator extends TypeConfigurator<Archetype> {
     @Override
     protected void beginConfiguration(EngineBuilder engineBuilder) {
         nextId = 0;
+        indexAspects(engineBuilder);
+    }
+
+    private void indexAspects(EngineBuilder engineBuilder) {
+        RegistrationMap registrations = engineBuilder.getRegistrations();
+        componentIndex = registrations.computeIfAbsent(ComponentIndex.class, null, ComponentIndex::new);
+        for (Entry<Object, ?> entry : registrations.entrySet(ComponentMapper.class)) {
+            componentIndex.indexOf((Class<?>) entry.getKey());
+        }
+        Set<Entry<Object, SubscriptionGroup>> groupEntries = registrations.entrySet(SubscriptionGroup.class);
+        aspects = new Aspect[groupEntries.size()];
+        groups = new SubscriptionGroup[groupEntries.size()];
+        int i = 0;
+        for (Entry<Object, SubscriptionGroup> entry : groupEntries) {
+            aspects[i] = (Aspect) entry.getKey();
+            aspects[i].index(componentIndex);
+            groups[i] = entry.getValue();
+            i++;
+        }
     }
 
     @Override
@@ -58,17 +83,23 @@ public class ArchetypeConfigurator extends TypeConfigurator<Archetype> {
     protected void configure(Archetype archetype, EngineBuilder engineBuilder) {
         RegistrationMap registrations = engineBuilder.getRegistrations();
         archetype.setId(nextId++);
-        archetype.setSubscriptions(registrations.entrySet(SubscriptionGroup.class).stream()
-                .filter(e -> ((Aspect) e.getKey()).matches(archetype.getComposition())).map(Entry::getValue)
-                .flatMap(g -> g.getSubscriptionsBySort().values().stream())
-                .distinct()
-                .toArray(Subscription[]::new));
+        long[] compositionMask = componentIndex.mask(archetype.getComposition());
+        archetype.setCompositionMask(compositionMask);
+        Set<Subscription> subscriptions = new LinkedHashSet<>();
+        for (int i = 0; i < aspects.length; i++) {
+            if (aspects[i].matches(compositionMask)) {
+                subscriptions.addAll(groups[i].getSubscriptionsBySort().values());
+            }
+        }
+        archetype.setSubscriptions(subscriptions.toArray(new Subscription[0]));
         archetype.setComponentMappers(archetype.getComposition().stream()
-                .map(t -> registrations.getOrFail(ComponentMapper.class, t)).toArray(ComponentMapper[]::new));
+                .map(t -> registrations.getOrFail(ComponentMapper.class, t))
+                .filter(m -> !(m instanceof TagComponentMapper)).toArray(ComponentMapper[]::new));
         archetype.setAutoCreateComponentMappers(archetype.getComposition().stream()
                 .filter(t -> archetype.getComponentCreationPolicy(t,
                         defaultComponentCreationPolicy) == Archetype.ComponentCreationPolicy.AUTOMATIC)
-                .map(t -> registrations.getOrFail(ComponentMapper.class, t)).toArray(ComponentMapper[]::new));
+                .map(t -> registrations.getOrFail(ComponentMapper.class, t))
+                .filter(m -> !(m instanceof TagComponentMapper)).toArray(ComponentMapper[]::new));
         archetype.setTransmutations(new Transmutation[registrations.typeCount(Archetype.class)]);
         archetype.setAdditiveTransmutations(new IdentityHashMap<>());
         archetype.setSuppressiveTransmutations(new IdentityHashMap<>());
@@ -75,6 +75,7 @@ public class Prioritizer implements Configurator {
     }
 
     private Map<Object, Integer> priorityMap;
+    private Digraph<Object> priorityGraph;
     private List<PriorityEntry> priorityEntries = new ArrayList<>();
     private boolean configured = false;
     private Map<Class<? extends Annotation>, Collection<Object>> annotatedCache = new IdentityHashMap<>();
@@ -111,7 +112,8 @@ public class Prioritizer implements Configurator {
 
     @Override
     public void configure(EngineBuilder engineBuilder) {
-        buildPriorityMap(createPriorityGraph(engineBuilder));
+        priorityGraph = createPriorityGraph(engineBuilder);
+        buildPriorityMap(priorityGraph);
         configured = true;
     }
 
@@ -136,6 +138,22 @@ public class Prioritizer implements Configurator {
         }
     }
 
+    /**
+     * Tests if a priority constraint, directly or transitively, requires
+     * {@code before} to be before {@code after}. {@link #configure(EngineBuilder)}
+     * must be called before calling this function.
+     *
+     * @param before
+     * @param after
+     * @return true if {@code before} is constrained to be before {@code after}
+     */
+    public boolean isBefore(Object before, Object after) {
+        if (!configured) {
+            throw new EngineConfigurationException("Priority not configured yet");
+        }
+        return priorityGraph.hasPath(before, after);
+    }
+
     /**
      * Sort the given list from the most priority object to the lowest.
      * {@link #configure(EngineBuilder)} must be called before calling this
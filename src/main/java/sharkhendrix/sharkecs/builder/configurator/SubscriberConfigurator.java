@@ -18,12 +18,15 @@ package sharkhendrix.sharkecs.builder.configurator;
 
 
 import sharkhendrix.sharkecs.Aspect;
+import sharkhendrix.sharkecs.ChangeTracker;
 import sharkhendrix.sharkecs.SortableEntityListSupplier;
+import sharkhendrix.sharkecs.annotation.Changed;
 import sharkhendrix.sharkecs.annotation.RequiresEntityTracking;
 import sharkhendrix.sharkecs.annotation.SortEntities;
 import sharkhendrix.sharkecs.builder.EngineBuilder;
 import sharkhendrix.sharkecs.builder.EngineConfigurationException;
 import sharkhendrix.sharkecs.builder.RegistrationMap;
+import sharkhendrix.sharkecs.subscription.ChangedSubscription;
 import sharkhendrix.sharkecs.subscription.SortedTrackingSubscription;
 import sharkhendrix.sharkecs.subscription.Subscriber;
 import sharkhendrix.sharkecs.subscription.Subscription;
@@ -46,6 +49,9 @@ import java.util.Map;
  * As a consequence, a subscriber that does not request for tracking or sorting
  * may effectively register to a subscription with tracking or sorting, which should not affect it.
  * <p>
+ * Subscribers annotated with {@link Changed} get their own {@link ChangedSubscription},
+ * listening to the subscription of their aspect.
+ * <p>
  * Uses the {@link Prioritizer} to subscribe and
  * so get notified at runtime in the right order.
  */
@@ -65,6 +71,11 @@ public class SubscriberConfigurator extends TypeConfigurator<Subscriber> {
                     + subscriber.getClass().getSimpleName()
                     + ": @SortEntities requires tracking but @RequiresEntityTracking is set to false.");
         }
+        if (sortName != null && getChanged(subscriber) != null) {
+            throw new EngineConfigurationException("Inconsistent annotation on subscriber "
+                    + subscriber.getClass().getSimpleName()
+                    + ": @SortEntities and @Changed cannot be mixed.");
+        }
         Aspect aspect = new Aspect(subscriber.getClass());
         RegistrationMap registrations = engineBuilder.getRegistrations();
         SubscriptionGroup group = registrations.get(SubscriptionGroup.class, aspect);
@@ -86,7 +97,7 @@ public class SubscriberConfigurator extends TypeConfigurator<Subscriber> {
             SubscriptionGroup subscriptionGroup = entry.getValue();
             Map<String, Subscription> map = subscriptionGroup.getSubscriptionsBySort();
             if (map.size() == 1 && map.containsKey(null)) {
-                map.put(null, subscriptionGroup.isRequiresTracking() ? new TrackingSubscription(engineBuilder.getExpectedEntityCount()) : new Subscription());
+                map.put(null, subscriptionGroup.isRequiresTracking() ? new TrackingSubscription(engineBuilder.newEntityIntBag(), engineBuilder.newEntityIntBag()) : new Subscription());
             } else {
                 Subscription anySubscription = null;
                 for (var sortEntry : map.entrySet()) {
@@ -104,10 +115,28 @@ public class SubscriberConfigurator extends TypeConfigurator<Subscriber> {
         subscribers.forEach(s -> {
             String sortName = getSubscriberSortName(s);
             SubscriptionGroup group = registrations.get(SubscriptionGroup.class, new Aspect(s.getClass()));
-            s.subscribe(group.getSubscriptionsBySort().get(sortName));
+            Subscription subscription = group.getSubscriptionsBySort().get(sortName);
+            Changed changed = getChanged(s);
+            if (changed != null) {
+                subscription = changedSubscription(subscription, changed, engineBuilder);
+            }
+            s.subscribe(subscription);
         });
     }
 
+    @SuppressWarnings("rawtypes")
+    private ChangedSubscription changedSubscription(Subscription source, Changed changed, EngineBuilder engineBuilder) {
+        ChangedSubscription subscription = new ChangedSubscription(source, engineBuilder.getExpectedEntityCount());
+        for (Class<?> componentType : changed.value()) {
+            engineBuilder.getRegistrations().getOrFail(ChangeTracker.class, componentType).subscribe(subscription);
+        }
+        return subscription;
+    }
+
+    private Changed getChanged(Subscriber subscriber) {
+        return ReflectionUtil.getAnnotationOnSuperclass(subscriber.getClass(), Changed.class);
+    }
+
     private String getSubscriberSortName(Subscriber subscriber) {
         SortEntities sort = ReflectionUtil.getAnnotationOnSuperclass(subscriber.getClass(), SortEntities.class);
         return sort == null ? null : sort.value();
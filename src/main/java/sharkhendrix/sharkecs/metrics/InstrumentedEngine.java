@@ -0,0 +1,113 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.metrics;
+
+import sharkhendrix.sharkecs.Engine;
+import sharkhendrix.sharkecs.IntervalProcessor;
+import sharkhendrix.sharkecs.Processor;
+import sharkhendrix.sharkecs.builder.EngineBuilder;
+import sharkhendrix.sharkecs.util.RollingHistogram;
+
+/**
+ * <p>
+ * {@link Engine} recording the metrics of each frame and of each
+ * {@link Processor}, see {@link ProcessorMetrics}. It decorates an engine whose
+ * processors are {@link InstrumentedProcessor}s, or {@link IntervalProcessor}s
+ * of {@link InstrumentedProcessor}s, so it works with a
+ * {@link sharkhendrix.sharkecs.ParallelEngine} as well.
+ * <p>
+ * It is intended to be created via {@link EngineBuilder#instrumentation(int, MetricsListener)}.
+ * Metrics can be read via {@link #getMetrics()} between two frames, or by a
+ * {@link MetricsListener} at the end of each frame.
+ */
+public class InstrumentedEngine extends Engine {
+
+    private Engine engine;
+    private ProcessorMetrics[] metrics;
+    private RollingHistogram frameTimeNanos;
+    private MetricsListener listener;
+
+    /**
+     * @param engine     the engine to decorate, its processors must be
+     *                   {@link InstrumentedProcessor}s, or
+     *                   {@link IntervalProcessor}s of
+     *                   {@link InstrumentedProcessor}s
+     * @param windowSize the number of last frames kept by the frame histogram
+     * @param listener   the listener notified at the end of each frame, may be null
+     */
+    public InstrumentedEngine(Engine engine, int windowSize, MetricsListener listener) {
+        super(engine.getProcessors());
+        this.engine = engine;
+        this.listener = listener;
+        Processor[] processors = engine.getProcessors();
+        metrics = new ProcessorMetrics[processors.length];
+        for (int i = 0; i < processors.length; i++) {
+            Processor processor = processors[i] instanceof IntervalProcessor intervalProcessor
+                    ? intervalProcessor.getProcessor() : processors[i];
+            if (!(processor instanceof InstrumentedProcessor instrumentedProcessor)) {
+                throw new IllegalArgumentException("All processors must be instrumented");
+            }
+            metrics[i] = instrumentedProcessor.getMetrics();
+        }
+        frameTimeNanos = new RollingHistogram(windowSize);
+    }
+
+    @Override
+    public void process() {
+        long start = System.nanoTime();
+        engine.process();
+        frameTimeNanos.record(System.nanoTime() - start);
+        if (listener != null) {
+            listener.frameProcessed(this);
+        }
+    }
+
+    /**
+     * @return the metrics of each processor, in the processor order
+     */
+    public ProcessorMetrics[] getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @param processor a processor of this engine, not instrumented
+     * @return the metrics of the given processor, or null if it is not a processor
+     * of this engine
+     */
+    public ProcessorMetrics getMetrics(Processor processor) {
+        for (ProcessorMetrics processorMetrics : metrics) {
+            if (processorMetrics.getProcessor() == processor) {
+                return processorMetrics;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the wall time histogram of the last frames, in nanoseconds
+     */
+    public RollingHistogram getFrameTimeNanos() {
+        return frameTimeNanos;
+    }
+
+    /**
+     * @return the decorated engine
+     */
+    public Engine getEngine() {
+        return engine;
+    }
+}
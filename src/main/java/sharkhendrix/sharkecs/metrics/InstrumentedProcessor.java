@@ -0,0 +1,82 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.metrics;
+
+import sharkhendrix.sharkecs.IntervalProcessor;
+import sharkhendrix.sharkecs.Processor;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * {@link Processor} decorator recording the wall time, the allocated bytes and
+ * the invocation count of the decorated processor in its
+ * {@link ProcessorMetrics}. Allocations are measured per thread via
+ * {@link com.sun.management.ThreadMXBean}, when supported by the JVM.
+ * <p>
+ * A processor annotated with {@link sharkhendrix.sharkecs.annotation.RunEvery}
+ * is instrumented before being wrapped in its {@link IntervalProcessor}, so
+ * only the frames where it actually runs are recorded.
+ */
+public class InstrumentedProcessor implements Processor {
+
+    private static final com.sun.management.ThreadMXBean ALLOCATION_BEAN = allocationBean();
+
+    private Processor processor;
+    private ProcessorMetrics metrics;
+
+    /**
+     * @param processor  the processor to instrument
+     * @param windowSize the number of last invocations kept by the histograms
+     */
+    public InstrumentedProcessor(Processor processor, int windowSize) {
+        this.processor = processor;
+        metrics = new ProcessorMetrics(processor, windowSize);
+    }
+
+    @Override
+    public void process() {
+        if (ALLOCATION_BEAN != null) {
+            long allocatedBefore = ALLOCATION_BEAN.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            processor.process();
+            metrics.getTimeNanos().record(System.nanoTime() - start);
+            metrics.getAllocatedBytes().record(ALLOCATION_BEAN.getCurrentThreadAllocatedBytes() - allocatedBefore);
+        } else {
+            long start = System.nanoTime();
+            processor.process();
+            metrics.getTimeNanos().record(System.nanoTime() - start);
+        }
+    }
+
+    public Processor getProcessor() {
+        return processor;
+    }
+
+    public ProcessorMetrics getMetrics() {
+        return metrics;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean sunBean && sunBean.isThreadAllocatedMemorySupported()
+                && sunBean.isThreadAllocatedMemoryEnabled()) {
+            return sunBean;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.metrics;
+
+/**
+ * Listener of the frames of an {@link InstrumentedEngine}.
+ */
+@FunctionalInterface
+public interface MetricsListener {
+
+    /**
+     * Called by the thread processing the engine, at the end of each frame.
+     *
+     * @param engine the engine, giving access to the metrics of the frame
+     */
+    void frameProcessed(InstrumentedEngine engine);
+}
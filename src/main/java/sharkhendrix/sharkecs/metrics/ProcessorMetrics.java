@@ -0,0 +1,73 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.metrics;
+
+import sharkhendrix.sharkecs.Processor;
+import sharkhendrix.sharkecs.util.RollingHistogram;
+
+/**
+ * Metrics of one {@link Processor}, recorded by an {@link InstrumentedProcessor}.
+ */
+public class ProcessorMetrics {
+
+    private Processor processor;
+    private RollingHistogram timeNanos;
+    private RollingHistogram allocatedBytes;
+
+    ProcessorMetrics(Processor processor, int windowSize) {
+        this.processor = processor;
+        timeNanos = new RollingHistogram(windowSize);
+        allocatedBytes = new RollingHistogram(windowSize);
+    }
+
+    /**
+     * @return the instrumented processor
+     */
+    public Processor getProcessor() {
+        return processor;
+    }
+
+    /**
+     * @return the number of invocations of the processor
+     */
+    public long getInvocationCount() {
+        return timeNanos.getCount();
+    }
+
+    /**
+     * @return the wall time histogram of the last invocations, in nanoseconds
+     */
+    public RollingHistogram getTimeNanos() {
+        return timeNanos;
+    }
+
+    /**
+     * @return the histogram of the bytes allocated by the last invocations. Empty
+     * if the JVM does not support thread allocation measurement.
+     */
+    public RollingHistogram getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return processor.getClass().getSimpleName() + " [invocations=" + getInvocationCount()
+                + ", meanTimeNanos=" + (long) timeNanos.getMean()
+                + ", maxTimeNanos=" + timeNanos.getMax()
+                + ", meanAllocatedBytes=" + (long) allocatedBytes.getMean() + "]";
+    }
+}
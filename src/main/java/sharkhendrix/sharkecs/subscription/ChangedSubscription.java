@@ -0,0 +1,150 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.subscription;
+
+import sharkhendrix.sharkecs.ChangeTracker;
+import sharkhendrix.sharkecs.Transmutation;
+import sharkhendrix.sharkecs.annotation.Changed;
+import sharkhendrix.sharkecs.annotation.SkipInject;
+import sharkhendrix.sharkecs.util.IntBag;
+import sharkhendrix.sharkecs.util.IntIterator;
+
+import java.util.BitSet;
+
+/**
+ * <p>
+ * Subscription of the subscribers annotated with {@link Changed}. It listens
+ * to the subscription of their aspect, forwarding its notifications, and
+ * {@link #iterator()} only returns the entities marked as changed via a
+ * {@link ChangeTracker} since the previous call.
+ * <p>
+ * Entities entering the subscription are considered changed.
+ */
+@SkipInject
+public class ChangedSubscription extends Subscription implements SubscriptionListener {
+
+    private BitSet members;
+    private BitSet dirty;
+    private IntBag dirtyEntities;
+    private IntBag changedEntities;
+    private IntIterator iterator;
+
+    /**
+     * @param source              the subscription of the aspect
+     * @param expectedEntityCount the expected maximum number of entity
+     */
+    public ChangedSubscription(Subscription source, int expectedEntityCount) {
+        members = new BitSet(expectedEntityCount);
+        dirty = new BitSet(expectedEntityCount);
+        dirtyEntities = new IntBag(expectedEntityCount / 10 + 1);
+        changedEntities = new IntBag(expectedEntityCount / 10 + 1);
+        iterator = changedEntities.iterator();
+        source.addListener(this);
+    }
+
+    /**
+     * Marks the given entity as changed, for the next call to {@link #iterator()}.
+     *
+     * @param entity the changed entity
+     */
+    public void markChanged(int entity) {
+        if (!dirty.get(entity)) {
+            dirty.set(entity);
+            dirtyEntities.add(entity);
+        }
+    }
+
+    @Override
+    public void added(int entity) {
+        members.set(entity);
+        markChanged(entity);
+        add(entity);
+    }
+
+    @Override
+    public void addedAll(IntBag entities) {
+        for (int i = 0, size = entities.size(); i < size; i++) {
+            int entity = entities.get(i);
+            members.set(entity);
+            markChanged(entity);
+        }
+        addAll(entities);
+    }
+
+    @Override
+    public void removed(int entity) {
+        members.clear(entity);
+        remove(entity);
+    }
+
+    @Override
+    public void removedAll(IntBag entities) {
+        for (int i = 0, size = entities.size(); i < size; i++) {
+            members.clear(entities.get(i));
+        }
+        removeAll(entities);
+    }
+
+    @Override
+    public void changed(int entity, Transmutation transmutation) {
+        notifyChanged(entity, transmutation);
+    }
+
+    @Override
+    public void moved(int fromEntity, int toEntity) {
+        if (members.get(fromEntity)) {
+            members.clear(fromEntity);
+            members.set(toEntity);
+        }
+        if (dirty.get(fromEntity)) {
+            // The stale entry of dirtyEntities is skipped by the iterator
+            dirty.clear(fromEntity);
+            markChanged(toEntity);
+        }
+        move(fromEntity, toEntity);
+    }
+
+    @Override
+    public void shrunk(int capacity) {
+        members = members.get(0, capacity);
+        dirty = dirty.get(0, capacity);
+        shrink(capacity);
+    }
+
+    /**
+     * Returns the entities of this subscription changed since the previous call,
+     * and clears the changes.
+     *
+     * @return an iterator of the changed entities
+     */
+    @Override
+    public IntIterator iterator() {
+        changedEntities.clear();
+        for (int i = 0, size = dirtyEntities.size(); i < size; i++) {
+            int entity = dirtyEntities.get(i);
+            if (dirty.get(entity)) {
+                dirty.clear(entity);
+                if (members.get(entity)) {
+                    changedEntities.add(entity);
+                }
+            }
+        }
+        dirtyEntities.clear();
+        iterator.reset();
+        return iterator;
+    }
+}
@@ -16,6 +16,7 @@
 
 package sharkhendrix.sharkecs.subscription;
 
+import sharkhendrix.sharkecs.util.IntBag;
 import sharkhendrix.sharkecs.util.IntIterator;
 import sharkhendrix.sharkecs.util.SortableIntList;
 
@@ -41,6 +42,35 @@ public class SortedTrackingSubscription extends Subscription {
         super.remove(entity);
     }
 
+    @Override
+    public void addAll(IntBag addedEntities) {
+        for (int i = 0, size = addedEntities.size(); i < size; i++) {
+            entities.add(addedEntities.get(i));
+        }
+        super.addAll(addedEntities);
+    }
+
+    @Override
+    public void removeAll(IntBag removedEntities) {
+        for (int i = 0, size = removedEntities.size(); i < size; i++) {
+            entities.remove(removedEntities.get(i));
+        }
+        super.removeAll(removedEntities);
+    }
+
+    @Override
+    public void move(int fromEntity, int toEntity) {
+        entities.remove(fromEntity);
+        entities.add(toEntity);
+        super.move(fromEntity, toEntity);
+    }
+
+    @Override
+    public void shrink(int capacity) {
+        entities.shrink(capacity);
+        super.shrink(capacity);
+    }
+
     @Override
     public IntIterator iterator() {
         entities.sort();
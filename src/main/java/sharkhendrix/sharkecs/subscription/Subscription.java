@@ -19,10 +19,10 @@ package sharkhendrix.sharkecs.subscription;
 import sharkhendrix.sharkecs.Archetype;
 import sharkhendrix.sharkecs.Aspect;
 import sharkhendrix.sharkecs.Transmutation;
+import sharkhendrix.sharkecs.util.IntBag;
 import sharkhendrix.sharkecs.util.IntIterator;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * <p>
@@ -36,10 +36,11 @@ import java.util.List;
  */
 public class Subscription {
 
-    private List<SubscriptionListener> listeners = new ArrayList<>();
+    private SubscriptionListener[] listeners = new SubscriptionListener[0];
 
     public void addListener(SubscriptionListener listener) {
-        listeners.add(listener);
+        listeners = Arrays.copyOf(listeners, listeners.length + 1);
+        listeners[listeners.length - 1] = listener;
     }
 
     /**
@@ -53,6 +54,18 @@ public class Subscription {
         }
     }
 
+    /**
+     * Notify listeners that the given entities have been added to this
+     * subscription, at once.
+     *
+     * @param entities the added entities, not modified
+     */
+    public void addAll(IntBag entities) {
+        for (SubscriptionListener listener : listeners) {
+            listener.addedAll(entities);
+        }
+    }
+
     /**
      * Notify listeners that the given entity has been removed from this
      * subscription.
@@ -65,6 +78,18 @@ public class Subscription {
         }
     }
 
+    /**
+     * Notify listeners that the given entities have been removed from this
+     * subscription, at once.
+     *
+     * @param entities the removed entities, not modified
+     */
+    public void removeAll(IntBag entities) {
+        for (SubscriptionListener listener : listeners) {
+            listener.removedAll(entities);
+        }
+    }
+
     /**
      * Notify listeners that the given entity has changed its {@link Archetype}, but
      * is kept to this subscription.
@@ -77,6 +102,32 @@ public class Subscription {
         }
     }
 
+    /**
+     * Notify listeners that the id of the given entity has changed, the entity
+     * being kept to this subscription.
+     *
+     * @param fromEntity the previous id of the entity
+     * @param toEntity   the new id of the entity
+     */
+    public void move(int fromEntity, int toEntity) {
+        for (SubscriptionListener listener : listeners) {
+            listener.moved(fromEntity, toEntity);
+        }
+    }
+
+    /**
+     * Releases the storage indexed by entity id at or beyond the given
+     * capacity, then notifies the listeners. All entities of this subscription
+     * must be lower than the given capacity.
+     *
+     * @param capacity the number of entity ids to keep the storage of
+     */
+    public void shrink(int capacity) {
+        for (SubscriptionListener listener : listeners) {
+            listener.shrunk(capacity);
+        }
+    }
+
     /**
      * <p>
      * This method is only supported by {@link TrackingSubscription} instances.
@@ -16,7 +16,9 @@
 
 package sharkhendrix.sharkecs.subscription;
 
+import sharkhendrix.sharkecs.EntityManager;
 import sharkhendrix.sharkecs.Transmutation;
+import sharkhendrix.sharkecs.util.IntBag;
 
 /**
  * Listener interface for {@link Subscription}s.
@@ -37,6 +39,31 @@ public interface SubscriptionListener {
      */
     void removed(int entity);
 
+    /**
+     * Called when several entities have been added to the subscription at once.
+     * The default implementation calls {@link #added(int)} for each entity.
+     *
+     * @param entities the newly added entities, must not be modified or kept
+     */
+    default void addedAll(IntBag entities) {
+        for (int i = 0, size = entities.size(); i < size; i++) {
+            added(entities.get(i));
+        }
+    }
+
+    /**
+     * Called when several entities have been removed from the subscription at
+     * once. The default implementation calls {@link #removed(int)} for each
+     * entity.
+     *
+     * @param entities the removed entities, must not be modified or kept
+     */
+    default void removedAll(IntBag entities) {
+        for (int i = 0, size = entities.size(); i < size; i++) {
+            removed(entities.get(i));
+        }
+    }
+
     /**
      * Called when an entity has transmuted, and as a result the entity is still
      * subscribed to the subscription.
@@ -46,4 +73,29 @@ public interface SubscriptionListener {
      * @param transmutation the transmutation that occurred to the entity
      */
     void changed(int entity, Transmutation transmutation);
+
+    /**
+     * Called when the id of a subscribed entity has changed, see
+     * {@link EntityManager#compact()}. The entity is still subscribed, under its
+     * new id, and its components are still reachable by its previous id. Does
+     * nothing by default, listeners keeping state by entity id must override it
+     * to move the state.
+     *
+     * @param fromEntity the previous id of the entity
+     * @param toEntity   the new id of the entity
+     */
+    default void moved(int fromEntity, int toEntity) {
+        // Nothing by default
+    }
+
+    /**
+     * Called by {@link EntityManager#compact()} once all entities are moved, the
+     * state kept by entity id at or beyond the given capacity can be released.
+     * Does nothing by default.
+     *
+     * @param capacity the number of entity ids to keep the state of
+     */
+    default void shrunk(int capacity) {
+        // Nothing by default
+    }
 }
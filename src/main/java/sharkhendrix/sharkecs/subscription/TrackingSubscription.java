@@ -19,6 +19,7 @@ package sharkhendrix.sharkecs.subscription;
 import sharkhendrix.sharkecs.annotation.SkipInject;
 import sharkhendrix.sharkecs.util.IntBag;
 import sharkhendrix.sharkecs.util.IntIterator;
+import sharkhendrix.sharkecs.util.PagedIntBag;
 
 /**
  * A subscription tracking the actual collection of entities. The ordering of
@@ -32,8 +33,19 @@ public class TrackingSubscription extends Subscription {
     private IntIterator iterator;
 
     public TrackingSubscription(int expectedEntityCount) {
-        entities = new IntBag(expectedEntityCount);
-        entityIndexes = new IntBag(expectedEntityCount);
+        this(new IntBag(expectedEntityCount), new IntBag(expectedEntityCount));
+    }
+
+    /**
+     * Creates a subscription storing its entities in the given bags, such as
+     * {@link PagedIntBag}s.
+     *
+     * @param entities      the empty bag of the entity list
+     * @param entityIndexes the empty bag of the entity list indexes, by entity
+     */
+    public TrackingSubscription(IntBag entities, IntBag entityIndexes) {
+        this.entities = entities;
+        this.entityIndexes = entityIndexes;
         iterator = entities.iterator();
     }
 
@@ -51,9 +63,53 @@ public class TrackingSubscription extends Subscription {
         super.remove(entity);
     }
 
+    @Override
+    public void addAll(IntBag addedEntities) {
+        int start = entities.size();
+        entities.addAll(addedEntities);
+        for (int i = 0, size = addedEntities.size(); i < size; i++) {
+            entityIndexes.put(addedEntities.get(i), start + i);
+        }
+        super.addAll(addedEntities);
+    }
+
+    @Override
+    public void removeAll(IntBag removedEntities) {
+        for (int i = 0, size = removedEntities.size(); i < size; i++) {
+            int removeIndex = entityIndexes.get(removedEntities.get(i));
+            entityIndexes.unsafeSet(entities.remove(removeIndex), removeIndex);
+        }
+        super.removeAll(removedEntities);
+    }
+
+    /**
+     * Replaces the entity in place, keeping the ordering of entities.
+     */
+    @Override
+    public void move(int fromEntity, int toEntity) {
+        int index = entityIndexes.get(fromEntity);
+        entities.unsafeSet(index, toEntity);
+        entityIndexes.put(toEntity, index);
+        super.move(fromEntity, toEntity);
+    }
+
+    @Override
+    public void shrink(int capacity) {
+        entities.shrink(capacity);
+        entityIndexes.shrink(capacity);
+        super.shrink(capacity);
+    }
+
     @Override
     public IntIterator iterator() {
         iterator.reset();
         return iterator;
     }
+
+    /**
+     * @return the backing entity list of this subscription, must not be modified
+     */
+    public IntBag entities() {
+        return entities;
+    }
 }
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.system;
+
+import sharkhendrix.sharkecs.annotation.RunEvery;
+import sharkhendrix.sharkecs.annotation.SkipInject;
+import sharkhendrix.sharkecs.builder.EngineConfigurationException;
+import sharkhendrix.sharkecs.util.IntIterator;
+
+/**
+ * <p>
+ * Variant of {@link IteratingSystem} spreading the processing of its entities
+ * over several runs: each {@link #process()} only processes the next slice of
+ * the subscription, so each entity is processed once every
+ * {@link #getSliceCount()} runs, with an even cost per run instead of a spike
+ * as with {@link RunEvery}.
+ * <p>
+ * Slices are index ranges of the subscription: when entities are added or
+ * removed between two runs, an entity may occasionally be processed twice or
+ * skipped for one cycle.
+ */
+public abstract class AmortizedIteratingSystem extends EntitySystem {
+
+    @SkipInject
+    private int sliceCount;
+    @SkipInject
+    private int slice;
+
+    /**
+     * @param sliceCount the number of runs to process all entities
+     */
+    protected AmortizedIteratingSystem(int sliceCount) {
+        if (sliceCount < 1) {
+            throw new EngineConfigurationException("sliceCount must be greater than zero");
+        }
+        this.sliceCount = sliceCount;
+    }
+
+    /**
+     * Called at the beginning of a process run. Does nothing by default.
+     */
+    protected void beginProcess() {
+        // Nothing by default
+    }
+
+    /**
+     * Process the given entity. Called for each entity of the current slice.
+     *
+     * @param entity the ID of the entity to process
+     */
+    protected abstract void process(int entity);
+
+    /**
+     * Called at the end of a process run. Does nothing by default.
+     */
+    protected void endProcess() {
+        // Nothing by default
+    }
+
+    @Override
+    public void process() {
+        beginProcess();
+        IntIterator it = entityIterator();
+        int size = it.totalSize();
+        int from = (int) ((long) slice * size / sliceCount);
+        int to = (int) ((long) (slice + 1) * size / sliceCount);
+        it.skip(from);
+        for (int i = from; i < to; i++) {
+            process(it.next());
+        }
+        slice = slice + 1 == sliceCount ? 0 : slice + 1;
+        endProcess();
+    }
+
+    public int getSliceCount() {
+        return sliceCount;
+    }
+}
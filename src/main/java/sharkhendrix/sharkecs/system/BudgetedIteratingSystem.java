@@ -0,0 +1,199 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.system;
+
+import sharkhendrix.sharkecs.annotation.SkipInject;
+import sharkhendrix.sharkecs.annotation.SortEntities;
+import sharkhendrix.sharkecs.builder.EngineConfigurationException;
+import sharkhendrix.sharkecs.subscription.Subscription;
+import sharkhendrix.sharkecs.subscription.TrackingSubscription;
+import sharkhendrix.sharkecs.util.IntBag;
+
+import java.util.BitSet;
+
+/**
+ * <p>
+ * Variant of {@link BreakableIteratingSystem} stopping a process run once a
+ * time budget is exhausted, and resuming where it stopped on the next run, so
+ * that all entities are processed before any entity is processed again. A
+ * complete pass over the subscription is called a cycle, it spans as many runs
+ * as required by the budget.
+ * <p>
+ * At least one entity is processed per run. A cycle ends at the end of a run
+ * even if the budget is not exhausted: an entity is never processed twice in
+ * the same run. Entities added during a cycle are processed by the next
+ * cycle, entities removed during a cycle are not processed anymore.
+ * <p>
+ * The subscription is iterated backward, from its last index, so that the
+ * swap-remove of {@link TrackingSubscription} only moves already processed
+ * entities into the unprocessed part. Such entities are skipped thanks to a
+ * bit set of the entities processed by the current cycle.
+ * <p>
+ * The subscription must be a {@link TrackingSubscription}, so
+ * {@link SortEntities} is not supported.
+ */
+public abstract class BudgetedIteratingSystem extends EntitySystem {
+
+    @SkipInject
+    private long nanoBudget;
+    @SkipInject
+    private BitSet processed = new BitSet();
+    @SkipInject
+    private int remaining = Integer.MAX_VALUE;
+    @SkipInject
+    private int cycleFrameCount;
+    @SkipInject
+    private int lastProcessedCount;
+    @SkipInject
+    private int lastCycleFrameCount;
+    @SkipInject
+    private long cycleCount;
+
+    /**
+     * @param nanoBudget the maximum duration of a process run in nanoseconds,
+     *                   the run stops after the entity exceeding it
+     */
+    protected BudgetedIteratingSystem(long nanoBudget) {
+        if (nanoBudget < 1) {
+            throw new EngineConfigurationException("nanoBudget must be greater than zero");
+        }
+        this.nanoBudget = nanoBudget;
+    }
+
+    @Override
+    public void subscribe(Subscription subscription) {
+        if (!(subscription instanceof TrackingSubscription)) {
+            throw new EngineConfigurationException(getClass().getSimpleName()
+                    + " requires a TrackingSubscription, sorted or untracked subscriptions are not supported");
+        }
+        super.subscribe(subscription);
+    }
+
+    /**
+     * Called at the beginning of a process run. Does nothing by default.
+     */
+    protected void beginProcess() {
+        // Nothing by default
+    }
+
+    /**
+     * Process the given entity. Called once per cycle for each subscribed entity.
+     *
+     * @param entity the ID of the entity to process
+     */
+    protected abstract void process(int entity);
+
+    /**
+     * Called at the end of a process run. Does nothing by default.
+     */
+    protected void endProcess() {
+        // Nothing by default
+    }
+
+    @Override
+    public void process() {
+        beginProcess();
+        IntBag entities = ((TrackingSubscription) getSubscription()).entities();
+        if (remaining > entities.size()) {
+            remaining = entities.size();
+        }
+        long deadline = System.nanoTime() + nanoBudget;
+        int count = 0;
+        while (remaining > 0) {
+            int entity = entities.get(--remaining);
+            if (processed.get(entity)) {
+                continue;
+            }
+            processed.set(entity);
+            process(entity);
+            count++;
+            if (System.nanoTime() - deadline >= 0) {
+                break;
+            }
+        }
+        lastProcessedCount = count;
+        cycleFrameCount++;
+        if (remaining == 0) {
+            processed.clear();
+            remaining = Integer.MAX_VALUE;
+            lastCycleFrameCount = cycleFrameCount;
+            cycleFrameCount = 0;
+            cycleCount++;
+        }
+        endProcess();
+    }
+
+    /**
+     * Keeps the processed state of the entity under its new id.
+     */
+    @Override
+    public void moved(int fromEntity, int toEntity) {
+        if (processed.get(fromEntity)) {
+            processed.clear(fromEntity);
+            processed.set(toEntity);
+        }
+    }
+
+    @Override
+    public void shrunk(int capacity) {
+        processed = processed.get(0, capacity);
+    }
+
+    /**
+     * @param nanoBudget the maximum duration of a process run in nanoseconds
+     */
+    public void setNanoBudget(long nanoBudget) {
+        if (nanoBudget < 1) {
+            throw new IllegalArgumentException("nanoBudget must be greater than zero");
+        }
+        this.nanoBudget = nanoBudget;
+    }
+
+    public long getNanoBudget() {
+        return nanoBudget;
+    }
+
+    /**
+     * @return the number of entities processed by the last run
+     */
+    public int getLastProcessedCount() {
+        return lastProcessedCount;
+    }
+
+    /**
+     * @return an upper bound of the number of entities left to process in the
+     * current cycle, zero if the last run completed a cycle
+     */
+    public int getRemainingCount() {
+        return remaining == Integer.MAX_VALUE ? 0 : remaining;
+    }
+
+    /**
+     * @return the number of runs the last completed cycle took, zero if no
+     * cycle has completed yet
+     */
+    public int getLastCycleFrameCount() {
+        return lastCycleFrameCount;
+    }
+
+    /**
+     * @return the number of completed cycles
+     */
+    public long getCycleCount() {
+        return cycleCount;
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.system;
+
+import sharkhendrix.sharkecs.EntityManager;
+import sharkhendrix.sharkecs.annotation.SkipInject;
+import sharkhendrix.sharkecs.annotation.SortEntities;
+import sharkhendrix.sharkecs.builder.EngineConfigurationException;
+import sharkhendrix.sharkecs.subscription.Subscription;
+import sharkhendrix.sharkecs.subscription.TrackingSubscription;
+import sharkhendrix.sharkecs.util.IntBag;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <p>
+ * Parallel variant of {@link IteratingSystem}. The entities of the
+ * subscription are split into index ranges of at most {@link #getRangeSize()}
+ * entities, processed by the tasks of a {@link ForkJoinPool} (the common pool
+ * by default). {@link #process()} returns once all entities are processed.
+ * <p>
+ * {@link #beginProcess()} and {@link #endProcess()} are called by the thread
+ * calling {@link #process()}, before and after all ranges.
+ * {@link #beginRange(int, int)} and {@link #endRange(int, int)} are called by
+ * the worker thread around each range, this is the place to set up and flush
+ * per-range state. A worker thread processes many ranges, and a range is
+ * processed by a single thread: state kept across ranges by worker, such as
+ * the views below, belongs in a {@link ThreadLocal}.
+ * <p>
+ * The subscription must be a {@link TrackingSubscription}, so
+ * {@link SortEntities} is not supported.
+ * <p>
+ * Thread-safety contract for {@link #process(int)} implementations:
+ * <ul>
+ * <li>Reading and writing the components of the processed entity is safe, as
+ * long as no other entity of the same run touches them.
+ * <li>{@link EntityManager#archetypeOf(int)} and the getters of the component
+ * mappers are safe, structural changes are not performed during the run,
+ * except {@link sharkhendrix.sharkecs.OffHeapComponentMapper#view(int)}, which
+ * positions a single view shared by all threads. Use a view per worker thread
+ * instead, for instance a {@code ThreadLocal.withInitial(mapper::newView)}
+ * positioned via
+ * {@link sharkhendrix.sharkecs.OffHeapComponentMapper#moveTo(sharkhendrix.sharkecs.OffHeapView, int)}.
+ * <li>{@link EntityManager#create(sharkhendrix.sharkecs.Archetype)},
+ * {@link EntityManager#remove(int)}, the transmutation methods and
+ * {@link EntityManager#reference(int)} are <b>not</b> thread-safe and must not
+ * be called from worker threads. Use the command buffer of the worker thread
+ * instead, via {@link EntityManager#commandBuffer()}: recorded operations are
+ * merged in a deterministic order by the next {@link EntityManager#process()}.
+ * <li>{@link sharkhendrix.sharkecs.ComponentMapper#create(int)} and
+ * {@link sharkhendrix.sharkecs.ComponentMapper#put(int, Object)} may grow the
+ * backing storage, they are <b>not</b> thread-safe.
+ * </ul>
+ */
+public abstract class ParallelIteratingSystem extends EntitySystem {
+
+    public static final int DEFAULT_RANGE_SIZE = 1024;
+
+    private class RangeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient IntBag entities;
+        private final int from;
+        private final int to;
+
+        RangeTask(IntBag entities, int from, int to) {
+            this.entities = entities;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > rangeSize) {
+                int rangeCount = (to - from + rangeSize - 1) / rangeSize;
+                int middle = from + rangeCount / 2 * rangeSize;
+                invokeAll(new RangeTask(entities, from, middle), new RangeTask(entities, middle, to));
+            } else {
+                processRange(entities, from, to);
+            }
+        }
+    }
+
+    @SkipInject
+    private ForkJoinPool pool;
+    @SkipInject
+    private int rangeSize;
+
+    /**
+     * Creates a parallel system running on the common {@link ForkJoinPool}, with
+     * a range size of {@link #DEFAULT_RANGE_SIZE}.
+     */
+    protected ParallelIteratingSystem() {
+        this(ForkJoinPool.commonPool(), DEFAULT_RANGE_SIZE);
+    }
+
+    /**
+     * @param pool      the pool running the ranges
+     * @param rangeSize the maximum number of entity processed by one task
+     */
+    protected ParallelIteratingSystem(ForkJoinPool pool, int rangeSize) {
+        if (rangeSize < 1) {
+            throw new EngineConfigurationException("rangeSize must be greater than zero");
+        }
+        this.pool = Objects.requireNonNull(pool);
+        this.rangeSize = rangeSize;
+    }
+
+    @Override
+    public void subscribe(Subscription subscription) {
+        if (!(subscription instanceof TrackingSubscription)) {
+            throw new EngineConfigurationException(getClass().getSimpleName()
+                    + " requires a TrackingSubscription, sorted or untracked subscriptions are not supported");
+        }
+        super.subscribe(subscription);
+    }
+
+    /**
+     * Called at the beginning of a process run, by the calling thread. Does
+     * nothing by default.
+     */
+    protected void beginProcess() {
+        // Nothing by default
+    }
+
+    /**
+     * Called by a worker thread before processing a range of entities. Does
+     * nothing by default.
+     *
+     * @param from the index of the first entity of the range, inclusive
+     * @param to   the index of the last entity of the range, exclusive
+     */
+    protected void beginRange(int from, int to) {
+        // Nothing by default
+    }
+
+    /**
+     * Process the given entity, potentially concurrently with other entities. See
+     * the class documentation for the thread-safety contract.
+     *
+     * @param entity the ID of the entity to process
+     */
+    protected abstract void process(int entity);
+
+    /**
+     * Called by a worker thread after processing a range of entities. Does
+     * nothing by default.
+     *
+     * @param from the index of the first entity of the range, inclusive
+     * @param to   the index of the last entity of the range, exclusive
+     */
+    protected void endRange(int from, int to) {
+        // Nothing by default
+    }
+
+    /**
+     * Called at the end of a process run, by the calling thread, once all ranges
+     * are processed. Does nothing by default.
+     */
+    protected void endProcess() {
+        // Nothing by default
+    }
+
+    @Override
+    public void process() {
+        beginProcess();
+        IntBag entities = ((TrackingSubscription) getSubscription()).entities();
+        int size = entities.size();
+        if (size <= rangeSize) {
+            processRange(entities, 0, size);
+        } else {
+            pool.invoke(new RangeTask(entities, 0, size));
+        }
+        endProcess();
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public int getRangeSize() {
+        return rangeSize;
+    }
+
+    private void processRange(IntBag entities, int from, int to) {
+        beginRange(from, to);
+        for (int i = from; i < to; i++) {
+            process(entities.get(i));
+        }
+        endRange(from, to);
+    }
+}
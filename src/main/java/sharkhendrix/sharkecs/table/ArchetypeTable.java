@@ -0,0 +1,244 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.table;
+
+import sharkhendrix.sharkecs.Archetype;
+import sharkhendrix.sharkecs.ComponentMapper;
+import sharkhendrix.sharkecs.util.Bag;
+import sharkhendrix.sharkecs.util.IntBag;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Densely packed rows of the entities of one {@link Archetype}, owned by a
+ * {@link TableStorage}. Rows are stored in fixed-size chunks: each chunk holds
+ * an array of entity ids and one array per {@link TableComponentMapper}
+ * component of the archetype, all indexed by the row index in the chunk.
+ * <p>
+ * Chunks are iterated with linear memory access:
+ *
+ * <pre>
+ * for (int chunk = 0; chunk &lt; table.getChunkCount(); chunk++) {
+ *     int[] entities = table.getEntities(chunk);
+ *     Object[] positions = table.getColumnChunk(positionMapper, chunk);
+ *     for (int i = 0, rows = table.getRowCount(chunk); i &lt; rows; i++) {
+ *         if (entities[i] != ArchetypeTable.DEAD_ROW) {
+ *             Position position = (Position) positions[i];
+ *             ...
+ *         }
+ *     }
+ * }
+ * </pre>
+ * <p>
+ * Rows left by transmuted or removed entities are marked with
+ * {@link #DEAD_ROW} until the end of the process cycle of the
+ * {@link sharkhendrix.sharkecs.EntityManager}, where the table is compacted.
+ * Rows of entities created during the current cycle are already present.
+ */
+public class ArchetypeTable {
+
+    /**
+     * Entity id of the rows left by transmuted or removed entities.
+     */
+    public static final int DEAD_ROW = -1;
+
+    private Archetype archetype;
+    private TableStorage storage;
+    private int chunkShift;
+    private int chunkMask;
+    private Bag<int[]> entityChunks;
+    private Bag<Object[]>[] columns;
+    private int[] columnByMapperId;
+    private int size;
+    private IntBag deadRows;
+    private boolean dirty;
+
+    ArchetypeTable(Archetype archetype, TableStorage storage) {
+        this.archetype = archetype;
+        this.storage = storage;
+        chunkShift = Integer.numberOfTrailingZeros(storage.getChunkSize());
+        chunkMask = storage.getChunkSize() - 1;
+        entityChunks = new Bag<>(4);
+        columnByMapperId = new int[storage.getMapperCount()];
+        Arrays.fill(columnByMapperId, -1);
+        int columnCount = 0;
+        for (ComponentMapper<Object> mapper : archetype.getComponentMappers()) {
+            if (mapper instanceof TableComponentMapper<?> tableMapper && tableMapper.getStorage() == storage) {
+                columnByMapperId[tableMapper.getId()] = columnCount++;
+            }
+        }
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        Bag<Object[]>[] newColumns = new Bag[columnCount];
+        columns = newColumns;
+        for (int i = 0; i < columnCount; i++) {
+            columns[i] = new Bag<>(4);
+        }
+        deadRows = new IntBag(16);
+    }
+
+    public Archetype getArchetype() {
+        return archetype;
+    }
+
+    /**
+     * @return the number of rows, including dead rows
+     */
+    public int getSize() {
+        return size;
+    }
+
+    public int getChunkSize() {
+        return chunkMask + 1;
+    }
+
+    /**
+     * @return the number of chunks holding at least one row
+     */
+    public int getChunkCount() {
+        return (size + chunkMask) >> chunkShift;
+    }
+
+    /**
+     * @param chunk the chunk index
+     * @return the number of rows of the given chunk
+     */
+    public int getRowCount(int chunk) {
+        return Math.min(chunkMask + 1, size - (chunk << chunkShift));
+    }
+
+    /**
+     * @param chunk the chunk index
+     * @return the entity ids of the rows of the given chunk, {@link #DEAD_ROW} for
+     * dead rows
+     */
+    public int[] getEntities(int chunk) {
+        return entityChunks.get(chunk);
+    }
+
+    /**
+     * @param mapper the mapper of a component of this table
+     * @param chunk  the chunk index
+     * @return the components of the rows of the given chunk
+     * @throws IllegalArgumentException if this table has no column for the given
+     *                                  mapper
+     */
+    public Object[] getColumnChunk(TableComponentMapper<?> mapper, int chunk) {
+        int column = mapper.getStorage() == storage ? getColumn(mapper.getId()) : -1;
+        if (column == -1) {
+            throw new IllegalArgumentException("No column for this mapper in the table of " + archetype.getName());
+        }
+        return columns[column].get(chunk);
+    }
+
+    int getColumn(int mapperId) {
+        return mapperId < columnByMapperId.length ? columnByMapperId[mapperId] : -1;
+    }
+
+    Object get(int column, int row) {
+        return columns[column].get(row >> chunkShift)[row & chunkMask];
+    }
+
+    void set(int column, int row, Object component) {
+        columns[column].get(row >> chunkShift)[row & chunkMask] = component;
+    }
+
+    int getEntity(int row) {
+        return entityChunks.get(row >> chunkShift)[row & chunkMask];
+    }
+
+    void setEntity(int row, int entity) {
+        entityChunks.get(row >> chunkShift)[row & chunkMask] = entity;
+    }
+
+    int allocateRow(int entity) {
+        int row = size++;
+        int chunk = row >> chunkShift;
+        if (chunk == entityChunks.size()) {
+            int chunkSize = chunkMask + 1;
+            entityChunks.add(new int[chunkSize]);
+            for (Bag<Object[]> column : columns) {
+                column.add(new Object[chunkSize]);
+            }
+        }
+        entityChunks.get(chunk)[row & chunkMask] = entity;
+        return row;
+    }
+
+    /**
+     * Copies the components of the given row of the source table which are part
+     * of this table.
+     */
+    void copyRow(ArchetypeTable source, int sourceRow, int row) {
+        for (int i = 0; i < columnByMapperId.length; i++) {
+            int column = columnByMapperId[i];
+            if (column != -1) {
+                int sourceColumn = source.getColumn(i);
+                if (sourceColumn != -1) {
+                    set(column, row, source.get(sourceColumn, sourceRow));
+                }
+            }
+        }
+    }
+
+    void killRow(int row) {
+        entityChunks.get(row >> chunkShift)[row & chunkMask] = DEAD_ROW;
+        deadRows.add(row);
+    }
+
+    boolean isDirty() {
+        return dirty;
+    }
+
+    void setDirty(boolean dirty) {
+        this.dirty = dirty;
+    }
+
+    /**
+     * Moves the last live rows into the dead rows, and clears the freed rows.
+     */
+    void compact() {
+        if (deadRows.isEmpty()) {
+            return;
+        }
+        for (int i = 0, deadCount = deadRows.size(); i < deadCount; i++) {
+            int row = deadRows.get(i);
+            while (size > 0 && getEntity(size - 1) == DEAD_ROW) {
+                clearRow(--size);
+            }
+            if (row < size) {
+                int lastRow = --size;
+                int entity = getEntity(lastRow);
+                entityChunks.get(row >> chunkShift)[row & chunkMask] = entity;
+                for (int column = 0; column < columns.length; column++) {
+                    set(column, row, get(column, lastRow));
+                }
+                clearRow(lastRow);
+                storage.rowMoved(entity, row);
+            }
+        }
+        deadRows.clear();
+        dirty = false;
+    }
+
+    private void clearRow(int row) {
+        entityChunks.get(row >> chunkShift)[row & chunkMask] = DEAD_ROW;
+        for (int column = 0; column < columns.length; column++) {
+            set(column, row, null);
+        }
+    }
+}
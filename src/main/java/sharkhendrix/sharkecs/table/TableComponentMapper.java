@@ -0,0 +1,97 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.table;
+
+import sharkhendrix.sharkecs.ComponentMapper;
+
+import java.util.function.Supplier;
+
+/**
+ * {@link ComponentMapper} storing its components in the
+ * {@link ArchetypeTable}s of a {@link TableStorage}. Accessing a component by
+ * entity id requires a table and row lookup, prefer the chunk iteration of the
+ * tables for hot loops.
+ *
+ * @param <T> the component type
+ */
+public class TableComponentMapper<T> implements ComponentMapper<T> {
+
+    private TableStorage storage;
+    private int id;
+    private Supplier<? extends T> newInstanceSupplier;
+
+    /**
+     * @param storage             the storage of the components, all mappers must
+     *                            be created before the first entity creation
+     * @param newInstanceSupplier the supplier of new components
+     */
+    public TableComponentMapper(TableStorage storage, Supplier<? extends T> newInstanceSupplier) {
+        this.storage = storage;
+        this.newInstanceSupplier = newInstanceSupplier;
+        id = storage.register();
+    }
+
+    @Override
+    public T create(int entity) {
+        T component = newInstanceSupplier.get();
+        put(entity, component);
+        return component;
+    }
+
+    /**
+     * @throws IllegalStateException if the archetype of the entity does not contain
+     *                               this component type
+     */
+    @Override
+    public void put(int entity, T component) {
+        if (!storage.set(id, entity, component)) {
+            throw new IllegalStateException("The archetype of the entity " + entity + " has no such component");
+        }
+    }
+
+    @Override
+    public void remove(int entity) {
+        storage.set(id, entity, null);
+    }
+
+    /**
+     * Does nothing, the row of the entity is moved by the {@link TableStorage}.
+     */
+    @Override
+    public void move(int fromEntity, int toEntity) {
+        // Moved with the row of the entity
+    }
+
+    @Override
+    public T get(int entity) {
+        return getIfExists(entity);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T getIfExists(int entity) {
+        return (T) storage.get(id, entity);
+    }
+
+    public TableStorage getStorage() {
+        return storage;
+    }
+
+    int getId() {
+        return id;
+    }
+}
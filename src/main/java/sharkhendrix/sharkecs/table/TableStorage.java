@@ -0,0 +1,257 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.table;
+
+import sharkhendrix.sharkecs.Archetype;
+import sharkhendrix.sharkecs.EntityManager;
+import sharkhendrix.sharkecs.EntityStorage;
+import sharkhendrix.sharkecs.Transmutation;
+import sharkhendrix.sharkecs.builder.EngineBuilder;
+import sharkhendrix.sharkecs.builder.EngineConfigurationException;
+import sharkhendrix.sharkecs.builder.configurator.Configurator;
+import sharkhendrix.sharkecs.subscription.Subscription;
+import sharkhendrix.sharkecs.util.Bag;
+import sharkhendrix.sharkecs.util.IntBag;
+
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * Optional archetype-table storage mode: the components of
+ * {@link TableComponentMapper}s are stored in one {@link ArchetypeTable} per
+ * {@link Archetype}, in densely packed fixed-size chunks, instead of arrays
+ * indexed by entity id. Systems may then iterate the tables chunk by chunk,
+ * with linear memory access, see {@link #forEachTable(Subscription, Consumer)}.
+ * <p>
+ * Transmutations move the row of the entity to the table of its new archetype.
+ * Components lost by a transmutation remain readable from its mapper until
+ * the end of the process cycle, as with the other mappers.
+ * <p>
+ * It is registered via {@link EngineBuilder#tableStorage(int)} and configures
+ * itself as the {@link EntityStorage} of the {@link EntityManager}. Tables are
+ * created on the first entity of their archetype.
+ */
+public class TableStorage implements EntityStorage, Configurator {
+
+    public static final int DEFAULT_CHUNK_SIZE = 256;
+
+    private int chunkSize;
+    private int mapperCount;
+    private Bag<ArchetypeTable> tables = new Bag<>(16);
+    private Bag<ArchetypeTable> dirtyTables = new Bag<>(16);
+    private Bag<ArchetypeTable> tableOf;
+    private IntBag rowOf;
+    private Bag<ArchetypeTable> previousTableOf;
+    private IntBag previousRowOf;
+    private IntBag transmutedEntities = new IntBag(16);
+
+    public TableStorage() {
+        this(DEFAULT_CHUNK_SIZE, EngineBuilder.DEFAULT_EXPECTED_ENTITY_COUNT);
+    }
+
+    /**
+     * @param chunkSize           the number of rows of a chunk, must be a power of
+     *                            two
+     * @param expectedEntityCount the expected maximum number of entity
+     */
+    public TableStorage(int chunkSize, int expectedEntityCount) {
+        if (chunkSize < 1 || Integer.bitCount(chunkSize) != 1) {
+            throw new EngineConfigurationException("chunkSize must be a power of two");
+        }
+        this.chunkSize = chunkSize;
+        tableOf = new Bag<>(expectedEntityCount);
+        rowOf = new IntBag(expectedEntityCount);
+        previousTableOf = new Bag<>(expectedEntityCount);
+        previousRowOf = new IntBag(expectedEntityCount);
+    }
+
+    @Override
+    public void configure(EngineBuilder engineBuilder) {
+        engineBuilder.getRegistrations().getOrFail(EntityManager.class).setEntityStorage(this);
+    }
+
+    /**
+     * Iterates over the existing tables of the archetypes of the given
+     * subscription.
+     *
+     * @param subscription the subscription
+     * @param action       the action to execute for each table
+     */
+    public void forEachTable(Subscription subscription, Consumer<ArchetypeTable> action) {
+        for (int i = 0, size = tables.size(); i < size; i++) {
+            ArchetypeTable table = tables.get(i);
+            if (table != null && contains(table.getArchetype().getSubscriptions(), subscription)) {
+                action.accept(table);
+            }
+        }
+    }
+
+    /**
+     * @param archetype the archetype
+     * @return the table of the given archetype, or null if it has never hold an
+     * entity
+     */
+    public ArchetypeTable getTable(Archetype archetype) {
+        return tables.getOrNull(archetype.getId());
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    @Override
+    public void created(int entity, Archetype archetype) {
+        ArchetypeTable table = tableFor(archetype);
+        tableOf.put(entity, table);
+        rowOf.put(entity, table.allocateRow(entity));
+    }
+
+    @Override
+    public void transmuted(int entity, Transmutation transmutation) {
+        ArchetypeTable table = tableFor(transmutation.getTo());
+        ArchetypeTable previousTable = tableOf.get(entity);
+        int previousRow = rowOf.get(entity);
+        int row = table.allocateRow(entity);
+        table.copyRow(previousTable, previousRow, row);
+        kill(previousTable, previousRow);
+        if (previousTableOf.getOrNull(entity) == null) {
+            previousTableOf.put(entity, previousTable);
+            previousRowOf.put(entity, previousRow);
+            transmutedEntities.add(entity);
+        }
+        tableOf.unsafeSet(entity, table);
+        rowOf.unsafeSet(entity, row);
+    }
+
+    @Override
+    public void removed(int entity, Archetype archetype) {
+        kill(tableOf.get(entity), rowOf.get(entity));
+        tableOf.unsafeSet(entity, null);
+    }
+
+    @Override
+    public void flush() {
+        for (int i = 0, size = transmutedEntities.size(); i < size; i++) {
+            previousTableOf.unsafeSet(transmutedEntities.get(i), null);
+        }
+        transmutedEntities.clear();
+        for (int i = 0, size = dirtyTables.size(); i < size; i++) {
+            dirtyTables.get(i).compact();
+        }
+        dirtyTables.clear();
+    }
+
+    @Override
+    public void moved(int fromEntity, int toEntity) {
+        ArchetypeTable table = tableOf.get(fromEntity);
+        int row = rowOf.get(fromEntity);
+        table.setEntity(row, toEntity);
+        tableOf.put(toEntity, table);
+        rowOf.put(toEntity, row);
+        tableOf.unsafeSet(fromEntity, null);
+    }
+
+    @Override
+    public void shrink(int capacity) {
+        tableOf.shrink(capacity);
+        rowOf.shrink(capacity);
+        previousTableOf.shrink(capacity);
+        previousRowOf.shrink(capacity);
+    }
+
+    int register() {
+        if (!tables.isEmpty()) {
+            throw new IllegalStateException("Mappers must be registered before the first entity creation");
+        }
+        return mapperCount++;
+    }
+
+    int getMapperCount() {
+        return mapperCount;
+    }
+
+    /**
+     * @return the component of the given mapper for the given entity, including
+     * components lost by a transmutation during the current cycle, or null
+     */
+    Object get(int mapperId, int entity) {
+        ArchetypeTable table = tableOf.getOrNull(entity);
+        if (table == null) {
+            return null;
+        }
+        int column = table.getColumn(mapperId);
+        if (column != -1) {
+            return table.get(column, rowOf.get(entity));
+        }
+        ArchetypeTable previousTable = previousTableOf.getOrNull(entity);
+        if (previousTable != null) {
+            column = previousTable.getColumn(mapperId);
+            if (column != -1) {
+                return previousTable.get(column, previousRowOf.get(entity));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Sets the component of the given mapper for the given entity, if its table
+     * has a column for the given mapper.
+     *
+     * @return true if the table of the entity has a column for the given mapper
+     */
+    boolean set(int mapperId, int entity, Object component) {
+        ArchetypeTable table = tableOf.getOrNull(entity);
+        if (table != null) {
+            int column = table.getColumn(mapperId);
+            if (column != -1) {
+                table.set(column, rowOf.get(entity), component);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void rowMoved(int entity, int row) {
+        rowOf.unsafeSet(entity, row);
+    }
+
+    private ArchetypeTable tableFor(Archetype archetype) {
+        ArchetypeTable table = tables.getOrNull(archetype.getId());
+        if (table == null) {
+            table = new ArchetypeTable(archetype, this);
+            tables.set(archetype.getId(), table);
+        }
+        return table;
+    }
+
+    private void kill(ArchetypeTable table, int row) {
+        table.killRow(row);
+        if (!table.isDirty()) {
+            table.setDirty(true);
+            dirtyTables.add(table);
+        }
+    }
+
+    private static boolean contains(Subscription[] subscriptions, Subscription subscription) {
+        for (Subscription s : subscriptions) {
+            if (s == subscription) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -16,6 +16,7 @@
 
 package sharkhendrix.sharkecs.util;
 
+import java.util.Arrays;
 import java.util.function.Supplier;
 
 /**
@@ -111,9 +112,9 @@ public class Bag<T> {
      * @param other
      */
     public void addAll(Bag<T> other) {
-        int newSize = size + other.size;
+        int newSize = size + other.size();
         ensureCapacity(newSize - 1);
-        System.arraycopy(other.data, 0, data, size, other.size);
+        other.copyTo(data, size);
         size = newSize;
     }
 
@@ -178,6 +179,29 @@ public class Bag<T> {
         }
     }
 
+    /**
+     * Set the size, does not check the backing array's length and does not clear
+     * the backing array.
+     *
+     * @param size the new size
+     */
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    /**
+     * Shrinks the backing storage to the given capacity if it is larger. Elements
+     * at or beyond the given capacity are lost, the size is lowered accordingly.
+     *
+     * @param capacity the number of elements to keep
+     */
+    public void shrink(int capacity) {
+        if (capacity < data.length) {
+            data = Arrays.copyOf(data, capacity);
+            size = Math.min(size, capacity);
+        }
+    }
+
     /**
      * Set the size to zero, does not clear the backing array
      */
@@ -201,6 +225,28 @@ public class Bag<T> {
         return size == 0;
     }
 
+    /**
+     * @return the number of elements the backing storage can hold without growing
+     */
+    public int capacity() {
+        return data.length;
+    }
+
+    /**
+     * Copies the {@link #size()} first elements to the given array.
+     *
+     * @param dest    the destination array
+     * @param destPos the index of the first copied element in the destination
+     */
+    protected void copyTo(Object[] dest, int destPos) {
+        System.arraycopy(data, 0, dest, destPos, size);
+    }
+
+    /**
+     * Grow the storage if necessary so that the given index is valid.
+     *
+     * @param requiredIndex
+     */
     protected void ensureCapacity(int requiredIndex) {
         if (requiredIndex >= data.length) {
             Object[] newArray = new Object[(requiredIndex + 1) * 2];
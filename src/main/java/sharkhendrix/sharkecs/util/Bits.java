@@ -0,0 +1,98 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.util;
+
+/**
+ * Static helpers for bitsets stored as {@code long[]}, one bit per index.
+ * Arrays of different lengths are supported, missing words being considered
+ * as zero.
+ */
+public class Bits {
+
+    private Bits() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * @param bitCount the number of bits
+     * @return the number of words required to store the given number of bits
+     */
+    public static int wordCount(int bitCount) {
+        return (bitCount + 63) >>> 6;
+    }
+
+    /**
+     * Sets the given bit, the array must be large enough.
+     *
+     * @param bits  the bitset
+     * @param index the bit index
+     */
+    public static void set(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    /**
+     * @param bits  the bitset
+     * @param index the bit index
+     * @return true if the given bit is set
+     */
+    public static boolean get(long[] bits, int index) {
+        int word = index >>> 6;
+        return word < bits.length && (bits[word] & 1L << index) != 0;
+    }
+
+    /**
+     * @param bits   the bitset
+     * @param subset the bits to test
+     * @return true if all bits of {@code subset} are set in {@code bits}
+     */
+    public static boolean containsAll(long[] bits, long[] subset) {
+        for (int i = 0; i < subset.length; i++) {
+            long word = i < bits.length ? bits[i] : 0;
+            if ((word & subset[i]) != subset[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param bits1 a bitset
+     * @param bits2 another bitset
+     * @return true if at least one bit is set in both bitsets
+     */
+    public static boolean intersects(long[] bits1, long[] bits2) {
+        for (int i = 0, length = Math.min(bits1.length, bits2.length); i < length; i++) {
+            if ((bits1[i] & bits2[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param bits the bitset
+     * @return the number of set bits
+     */
+    public static int cardinality(long[] bits) {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
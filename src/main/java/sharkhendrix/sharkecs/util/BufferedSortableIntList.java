@@ -0,0 +1,190 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.util;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * A sortable int list buffering its modifications: {@link #add(int)} and
+ * {@link #remove(int)} are constant time, and are applied all at once by the
+ * next {@link #sort()}, in a single merge pass. This is suited for lists with
+ * bulk insertions or removals, such as entities spawned by thousands in one
+ * frame.
+ * <p>
+ * Values must be non-negative and reasonably small, such as entity ids, since
+ * pending removals are indexed by value. Pending modifications are not visible
+ * by {@link #iterator()} until the next {@link #sort()}. Removing a value
+ * which is not in the list has no effect.
+ * <p>
+ * The sort algorithm is selected by {@link IntSort}, see
+ * {@link SortableIntArrayList}. Large lists may be sorted in parallel by a
+ * {@link ParallelIntSort}, see
+ * {@link #BufferedSortableIntList(int, IntComparator, ParallelIntSort)}.
+ */
+public class BufferedSortableIntList implements SortableIntList {
+
+    private IntBag bag;
+    private IntBag pendingAdds;
+    private IntBag pendingRemovals;
+    private int pendingRemovalCount;
+    private int[] mergeBuffer = new int[0];
+    private IntComparator comparator;
+    private IntSort sorter = new IntSort();
+    private ParallelIntSort parallelSorter;
+
+    public BufferedSortableIntList(int initialCapacity, IntComparator comparator) {
+        this(initialCapacity, comparator, null);
+    }
+
+    /**
+     * @param initialCapacity the initial capacity of the list
+     * @param comparator      the comparator, which must be thread-safe if a
+     *                        parallel sorter is given
+     * @param parallelSorter  the sorter of the list when its size reaches the
+     *                        sorter threshold, or null to always sort
+     *                        sequentially
+     */
+    public BufferedSortableIntList(int initialCapacity, IntComparator comparator, ParallelIntSort parallelSorter) {
+        this.comparator = comparator;
+        this.parallelSorter = parallelSorter;
+        bag = new IntBag(initialCapacity);
+        pendingAdds = new IntBag(initialCapacity);
+        pendingRemovals = new IntBag(initialCapacity);
+    }
+
+    @Override
+    public void sort() {
+        applyRemovals();
+        int size = bag.size();
+        if (parallelSorter != null) {
+            parallelSorter.sort(bag.getData(), 0, size, comparator);
+        } else {
+            sorter.sort(bag.getData(), 0, size, comparator);
+        }
+        int addCount = pendingAdds.size();
+        if (addCount > 0) {
+            sorter.sort(pendingAdds.getData(), 0, addCount, comparator);
+            merge(size, addCount);
+            pendingAdds.clear();
+        }
+    }
+
+    @Override
+    public void add(int value) {
+        pendingAdds.add(value);
+    }
+
+    @Override
+    public void remove(int value) {
+        pendingRemovals.put(value, value < pendingRemovals.getData().length ? pendingRemovals.get(value) + 1 : 1);
+        pendingRemovalCount++;
+    }
+
+    /**
+     * Applies the pending removals, then releases the storage of the pending
+     * removals beyond the given capacity.
+     */
+    @Override
+    public void shrink(int capacity) {
+        applyRemovals();
+        pendingRemovals.shrink(capacity);
+        bag.shrink(capacity);
+        pendingAdds.shrink(capacity);
+        if (mergeBuffer.length > capacity) {
+            mergeBuffer = new int[0];
+        }
+    }
+
+    @Override
+    public IntIterator iterator() {
+        return bag.iterator();
+    }
+
+    public IntComparator getComparator() {
+        return comparator;
+    }
+
+    public ParallelIntSort getParallelSorter() {
+        return parallelSorter;
+    }
+
+    /**
+     * Removes the values having a pending removal from the list and the pending
+     * adds. The remaining pending removals target values which are not in the
+     * list, they are discarded so that the next sorts do not compact again.
+     */
+    private void applyRemovals() {
+        if (pendingRemovalCount == 0) {
+            return;
+        }
+        compact(bag);
+        compact(pendingAdds);
+        if (pendingRemovalCount > 0) {
+            Arrays.fill(pendingRemovals.getData(), 0);
+            pendingRemovalCount = 0;
+        }
+    }
+
+    /**
+     * Removes the values of the given bag having a pending removal, keeping the
+     * order of the other values.
+     */
+    private void compact(IntBag values) {
+        int[] data = values.getData();
+        int[] removals = pendingRemovals.getData();
+        int newSize = 0;
+        for (int i = 0, size = values.size(); i < size; i++) {
+            int value = data[i];
+            if (value < removals.length && removals[value] > 0) {
+                removals[value]--;
+                pendingRemovalCount--;
+            } else {
+                data[newSize++] = value;
+            }
+        }
+        values.setSize(newSize);
+    }
+
+    /**
+     * Merges the sorted pending adds into the sorted bag, existing values first
+     * for equal values.
+     */
+    private void merge(int size, int addCount) {
+        if (mergeBuffer.length < size) {
+            mergeBuffer = new int[Math.max(size, mergeBuffer.length * 2)];
+        }
+        System.arraycopy(bag.getData(), 0, mergeBuffer, 0, size);
+        int total = size + addCount;
+        bag.put(total - 1, 0);
+        bag.setSize(total);
+        int[] data = bag.getData();
+        int[] adds = pendingAdds.getData();
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < size && j < addCount) {
+            if (comparator.compare(adds[j], mergeBuffer[i]) < 0) {
+                data[k++] = adds[j++];
+            } else {
+                data[k++] = mergeBuffer[i++];
+            }
+        }
+        System.arraycopy(mergeBuffer, i, data, k, size - i);
+        System.arraycopy(adds, j, data, k + size - i, addCount - j);
+    }
+}
@@ -86,6 +86,36 @@ public class Digraph<T> {
         return Collections.unmodifiableSet(nodes.keySet());
     }
 
+    /**
+     * Tests if there is a directed path from the node of value {@code from} to the
+     * node of value {@code to}.
+     *
+     * @param from the node's value of the path's start
+     * @param to   the node's value of the path's end
+     * @return true if {@code to} is reachable from {@code from}, false otherwise,
+     * or if one of the values is not part of this graph
+     */
+    public boolean hasPath(T from, T to) {
+        Node<T> fromNode = nodes.get(from);
+        Node<T> toNode = nodes.get(to);
+        if (fromNode == null || toNode == null || fromNode == toNode) {
+            return false;
+        }
+        Set<Node<T>> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Node<T>> toVisit = new ArrayDeque<>();
+        toVisit.push(fromNode);
+        while (!toVisit.isEmpty()) {
+            for (Node<T> following : toVisit.pop().edges) {
+                if (following == toNode) {
+                    return true;
+                } else if (visited.add(following)) {
+                    toVisit.push(following);
+                }
+            }
+        }
+        return false;
+    }
+
     /**
      * Compute the topological order of all nodes of this graph.
      *
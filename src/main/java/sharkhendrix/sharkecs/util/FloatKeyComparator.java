@@ -0,0 +1,37 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.util;
+
+/**
+ * An {@link IntComparator} ordering values by a float sort key, such as a
+ * depth or a position. Exposing the key allows {@link IntSort} to use a radix
+ * sort instead of comparisons.
+ */
+@FunctionalInterface
+public interface FloatKeyComparator extends IntComparator {
+
+    /**
+     * @param value the value to get the sort key of
+     * @return the sort key of the given value
+     */
+    float key(int value);
+
+    @Override
+    default int compare(int i1, int i2) {
+        return Float.compare(key(i1), key(i2));
+    }
+}
@@ -16,6 +16,8 @@
 
 package sharkhendrix.sharkecs.util;
 
+import java.util.Arrays;
+
 /**
  * <p>
  * Fast but unsafe list of primitive integers, must be used carefully.
@@ -26,8 +28,8 @@ package sharkhendrix.sharkecs.util;
  */
 public class IntBag {
 
-    private int[] data;
-    private int size;
+    protected int[] data;
+    protected int size;
 
     /**
      * @param initialCapacity the initial capacity of the backing array
@@ -71,9 +73,9 @@ public class IntBag {
      * @param other
      */
     public void addAll(IntBag other) {
-        int newSize = size + other.size;
+        int newSize = size + other.size();
         ensureCapacity(newSize - 1);
-        System.arraycopy(other.data, 0, data, size, other.size);
+        other.copyTo(data, size);
         size = newSize;
     }
 
@@ -148,6 +150,29 @@ public class IntBag {
         size++;
     }
 
+    /**
+     * Set the size, does not check the backing array's length and does not clear
+     * the backing array.
+     *
+     * @param size the new size
+     */
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    /**
+     * Shrinks the backing storage to the given capacity if it is larger. Elements
+     * at or beyond the given capacity are lost, the size is lowered accordingly.
+     *
+     * @param capacity the number of elements to keep
+     */
+    public void shrink(int capacity) {
+        if (capacity < data.length) {
+            data = Arrays.copyOf(data, capacity);
+            size = Math.min(size, capacity);
+        }
+    }
+
     /**
      * Set the size to zero, does not clear the backing array
      */
@@ -171,9 +196,16 @@ public class IntBag {
         return size == 0;
     }
 
+    /**
+     * @return the number of elements the backing storage can hold without growing
+     */
+    public int capacity() {
+        return data.length;
+    }
+
     public int[] toArray() {
         int[] result = new int[size];
-        System.arraycopy(data, 0, result, 0, size);
+        copyTo(result, 0);
         return result;
     }
 
@@ -197,6 +229,11 @@ public class IntBag {
                 currentIndex = 0;
             }
 
+            @Override
+            public void skip(int count) {
+                currentIndex += count;
+            }
+
             @Override
             public int totalSize() {
                 return size;
@@ -204,8 +241,22 @@ public class IntBag {
         };
     }
 
+    /**
+     * Copies the {@link #size()} first elements to the given array.
+     *
+     * @param dest    the destination array
+     * @param destPos the index of the first copied element in the destination
+     */
+    protected void copyTo(int[] dest, int destPos) {
+        System.arraycopy(data, 0, dest, destPos, size);
+    }
 
-    private void ensureCapacity(int requiredIndex) {
+    /**
+     * Grow the storage if necessary so that the given index is valid.
+     *
+     * @param requiredIndex
+     */
+    protected void ensureCapacity(int requiredIndex) {
         if (requiredIndex >= data.length) {
             int[] newArray = new int[(requiredIndex + 1) * 2];
             System.arraycopy(data, 0, newArray, 0, data.length);
@@ -16,6 +16,14 @@
 
 package sharkhendrix.sharkecs.util;
 
+/**
+ * Comparison function of int values, usually entity ids.
+ * <p>
+ * When used by a {@link ParallelIntSort}, the comparator is called
+ * concurrently by several threads, it must then be thread-safe: for instance
+ * only reading data that is not modified during the sort, without any
+ * internal mutable state.
+ */
 @FunctionalInterface
 public interface IntComparator {
     int compare(int i1, int i2);
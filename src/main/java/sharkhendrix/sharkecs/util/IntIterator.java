@@ -35,6 +35,19 @@ public interface IntIterator {
      */
     int totalSize();
 
+    /**
+     * Skips the given number of elements, as calling {@link #next()} as many
+     * times would do. Implementations backed by an array skip in constant time.
+     *
+     * @param count the number of elements to skip, not greater than the number
+     *              of remaining elements
+     */
+    default void skip(int count) {
+        for (int i = 0; i < count; i++) {
+            next();
+        }
+    }
+
     default int[] toArray() {
         IntBag ints = new IntBag(totalSize());
         while (hasNext()) {
@@ -0,0 +1,412 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.util;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Sort algorithms for arrays of int primitives ordered by an
+ * {@link IntComparator}. An instance keeps its work buffers between calls, so
+ * sorting does not allocate once the buffers are large enough. Instances are
+ * not thread-safe.
+ * <p>
+ * {@link #sort(int[], int, int, IntComparator)} selects the algorithm from the
+ * size and the measured disorder of the range:
+ * <ul>
+ * <li>small ranges are insertion sorted.
+ * <li>strongly disordered ranges ordered by an {@link IntKeyComparator} or a
+ * {@link FloatKeyComparator} are radix sorted on their keys.
+ * <li>other ranges are sorted by {@link #mergeSort(int[], int, int, IntComparator)},
+ * an adaptive natural merge sort (TimSort), in linear time for already sorted
+ * or slightly disordered ranges.
+ * </ul>
+ * All algorithms are stable.
+ */
+public class IntSort {
+
+    /**
+     * Ranges smaller than this are insertion sorted.
+     */
+    public static final int INSERTION_SORT_THRESHOLD = 32;
+
+    /**
+     * Ranges of a key comparator with more than one descent for this number of
+     * elements are radix sorted.
+     */
+    public static final int RADIX_DISORDER_RATIO = 16;
+
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX_SIZE = 1 << RADIX_BITS;
+    private static final int RADIX_MASK = RADIX_SIZE - 1;
+    private static final int RADIX_PASSES = Integer.SIZE / RADIX_BITS;
+
+    private int[] buffer = new int[0];
+    private int[] valueBuffer = new int[0];
+    private int[] keys = new int[0];
+    private int[] keyBuffer = new int[0];
+    private int[] counts = new int[RADIX_PASSES * RADIX_SIZE];
+    private int[] runBases = new int[49];
+    private int[] runLengths = new int[49];
+    private int runCount;
+
+    /**
+     * Sorts the given range with the most appropriate algorithm.
+     *
+     * @param array      the array to sort
+     * @param from       the index of the first element, inclusive
+     * @param to         the index of the last element, exclusive
+     * @param comparator the comparator ordering the values
+     */
+    public void sort(int[] array, int from, int to, IntComparator comparator) {
+        int length = to - from;
+        if (length < INSERTION_SORT_THRESHOLD) {
+            insertionSort(array, from, to, comparator);
+            return;
+        }
+        int descents = countDescents(array, from, to, comparator);
+        if (descents == 0) {
+            return;
+        }
+        if (descents > length / RADIX_DISORDER_RATIO) {
+            if (comparator instanceof IntKeyComparator) {
+                radixSortByInt(array, from, to, (IntKeyComparator) comparator);
+                return;
+            } else if (comparator instanceof FloatKeyComparator) {
+                radixSortByFloat(array, from, to, (FloatKeyComparator) comparator);
+                return;
+            }
+        }
+        mergeSort(array, from, to, comparator);
+    }
+
+    /**
+     * Counts the number of adjacent pairs in the wrong order, as a measure of the
+     * disorder of the given range.
+     *
+     * @param array      the array to measure
+     * @param from       the index of the first element, inclusive
+     * @param to         the index of the last element, exclusive
+     * @param comparator the comparator ordering the values
+     * @return the number of descents of the given range, zero if it is sorted
+     */
+    public static int countDescents(int[] array, int from, int to, IntComparator comparator) {
+        int descents = 0;
+        for (int i = from + 1; i < to; i++) {
+            if (comparator.compare(array[i], array[i - 1]) < 0) {
+                descents++;
+            }
+        }
+        return descents;
+    }
+
+    /**
+     * Insertion sort, efficient for small or almost sorted ranges.
+     *
+     * @param array      the array to sort
+     * @param from       the index of the first element, inclusive
+     * @param to         the index of the last element, exclusive
+     * @param comparator the comparator ordering the values
+     */
+    public static void insertionSort(int[] array, int from, int to, IntComparator comparator) {
+        for (int i = from + 1; i < to; i++) {
+            int value = array[i];
+            int j = i - 1;
+            if (comparator.compare(value, array[j]) < 0) {
+                while (j > from && comparator.compare(value, array[j - 1]) < 0) {
+                    j--;
+                }
+                System.arraycopy(array, j, array, j + 1, i - j);
+                array[j] = value;
+            }
+        }
+    }
+
+    /**
+     * Adaptive natural merge sort, following the TimSort merge policy: ascending
+     * and strictly descending runs are detected, short runs are extended by
+     * binary insertion, and runs are merged while keeping the run stack
+     * balanced.
+     *
+     * @param array      the array to sort
+     * @param from       the index of the first element, inclusive
+     * @param to         the index of the last element, exclusive
+     * @param comparator the comparator ordering the values
+     */
+    public void mergeSort(int[] array, int from, int to, IntComparator comparator) {
+        int remaining = to - from;
+        if (remaining < 2) {
+            return;
+        }
+        if (remaining < INSERTION_SORT_THRESHOLD) {
+            int runLength = countRunAndMakeAscending(array, from, to, comparator);
+            binaryInsertionSort(array, from, to, from + runLength, comparator);
+            return;
+        }
+        buffer = ensureCapacity(buffer, remaining);
+        runCount = 0;
+        int minRun = minRunLength(remaining);
+        int low = from;
+        do {
+            int runLength = countRunAndMakeAscending(array, low, to, comparator);
+            if (runLength < minRun) {
+                int forced = Math.min(remaining, minRun);
+                binaryInsertionSort(array, low, low + forced, low + runLength, comparator);
+                runLength = forced;
+            }
+            runBases[runCount] = low;
+            runLengths[runCount] = runLength;
+            runCount++;
+            mergeCollapse(array, comparator);
+            low += runLength;
+            remaining -= runLength;
+        } while (remaining != 0);
+        while (runCount > 1) {
+            int n = runCount - 2;
+            if (n > 0 && runLengths[n - 1] < runLengths[n + 1]) {
+                n--;
+            }
+            mergeAt(array, n, comparator);
+        }
+    }
+
+    /**
+     * Least significant digit radix sort on the int keys of the values.
+     *
+     * @param array      the array to sort
+     * @param from       the index of the first element, inclusive
+     * @param to         the index of the last element, exclusive
+     * @param comparator the comparator providing the keys
+     */
+    public void radixSortByInt(int[] array, int from, int to, IntKeyComparator comparator) {
+        int length = to - from;
+        keys = ensureCapacity(keys, length);
+        for (int i = 0; i < length; i++) {
+            keys[i] = comparator.key(array[from + i]) ^ Integer.MIN_VALUE;
+        }
+        radixSortByKeys(array, from, length);
+    }
+
+    /**
+     * Least significant digit radix sort on the float keys of the values, in the
+     * order of {@link Float#compare(float, float)}.
+     *
+     * @param array      the array to sort
+     * @param from       the index of the first element, inclusive
+     * @param to         the index of the last element, exclusive
+     * @param comparator the comparator providing the keys
+     */
+    public void radixSortByFloat(int[] array, int from, int to, FloatKeyComparator comparator) {
+        int length = to - from;
+        keys = ensureCapacity(keys, length);
+        for (int i = 0; i < length; i++) {
+            int bits = Float.floatToIntBits(comparator.key(array[from + i]));
+            keys[i] = (bits ^ (bits >> 31 & Integer.MAX_VALUE)) ^ Integer.MIN_VALUE;
+        }
+        radixSortByKeys(array, from, length);
+    }
+
+    /**
+     * Sorts the given range of values by the unsigned keys of the {@link #keys}
+     * buffer.
+     */
+    private void radixSortByKeys(int[] array, int from, int length) {
+        if (length < 2) {
+            return;
+        }
+        buffer = ensureCapacity(buffer, length);
+        valueBuffer = ensureCapacity(valueBuffer, length);
+        keyBuffer = ensureCapacity(keyBuffer, length);
+        Arrays.fill(counts, 0);
+        for (int i = 0; i < length; i++) {
+            int key = keys[i];
+            for (int pass = 0; pass < RADIX_PASSES; pass++) {
+                counts[pass * RADIX_SIZE + (key >>> pass * RADIX_BITS & RADIX_MASK)]++;
+            }
+        }
+        System.arraycopy(array, from, buffer, 0, length);
+        int[] sourceKeys = keys;
+        int[] sourceValues = buffer;
+        int[] targetKeys = keyBuffer;
+        int[] targetValues = valueBuffer;
+        for (int pass = 0; pass < RADIX_PASSES; pass++) {
+            int countOffset = pass * RADIX_SIZE;
+            int shift = pass * RADIX_BITS;
+            if (counts[countOffset + (sourceKeys[0] >>> shift & RADIX_MASK)] == length) {
+                // All keys share this digit, the pass would not change anything
+                continue;
+            }
+            int sum = 0;
+            for (int digit = 0; digit < RADIX_SIZE; digit++) {
+                int count = counts[countOffset + digit];
+                counts[countOffset + digit] = sum;
+                sum += count;
+            }
+            for (int i = 0; i < length; i++) {
+                int key = sourceKeys[i];
+                int index = counts[countOffset + (key >>> shift & RADIX_MASK)]++;
+                targetKeys[index] = key;
+                targetValues[index] = sourceValues[i];
+            }
+            int[] tmp = sourceKeys;
+            sourceKeys = targetKeys;
+            targetKeys = tmp;
+            tmp = sourceValues;
+            sourceValues = targetValues;
+            targetValues = tmp;
+        }
+        System.arraycopy(sourceValues, 0, array, from, length);
+    }
+
+    private void mergeCollapse(int[] array, IntComparator comparator) {
+        while (runCount > 1) {
+            int n = runCount - 2;
+            if (n > 0 && runLengths[n - 1] <= runLengths[n] + runLengths[n + 1]
+                    || n > 1 && runLengths[n - 2] <= runLengths[n] + runLengths[n - 1]) {
+                if (runLengths[n - 1] < runLengths[n + 1]) {
+                    n--;
+                }
+            } else if (runLengths[n] > runLengths[n + 1]) {
+                break;
+            }
+            mergeAt(array, n, comparator);
+        }
+    }
+
+    private void mergeAt(int[] array, int i, IntComparator comparator) {
+        int base1 = runBases[i];
+        int length1 = runLengths[i];
+        int base2 = runBases[i + 1];
+        int length2 = runLengths[i + 1];
+        runLengths[i] = length1 + length2;
+        if (i == runCount - 3) {
+            runBases[i + 1] = runBases[i + 2];
+            runLengths[i + 1] = runLengths[i + 2];
+        }
+        runCount--;
+
+        // Elements of run1 lower or equal to the first of run2 are already in place
+        int start = upperBound(array, base1, base2, array[base2], comparator);
+        if (start == base2) {
+            return;
+        }
+        // Elements of run2 greater or equal to the last of run1 are already in place
+        int end = lowerBound(array, base2, base2 + length2, array[base2 - 1], comparator);
+        merge(array, start, base2, end, comparator);
+    }
+
+    /**
+     * Merges the sorted ranges [start, middle) and [middle, end), using the buffer
+     * for the first range.
+     */
+    private void merge(int[] array, int start, int middle, int end, IntComparator comparator) {
+        int length1 = middle - start;
+        System.arraycopy(array, start, buffer, 0, length1);
+        int i = 0;
+        int j = middle;
+        int k = start;
+        while (i < length1 && j < end) {
+            if (comparator.compare(array[j], buffer[i]) < 0) {
+                array[k++] = array[j++];
+            } else {
+                array[k++] = buffer[i++];
+            }
+        }
+        System.arraycopy(buffer, i, array, k, length1 - i);
+    }
+
+    /**
+     * @return the index of the first element of the sorted range strictly greater
+     * than the given value
+     */
+    private static int upperBound(int[] array, int from, int to, int value, IntComparator comparator) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (comparator.compare(value, array[mid]) < 0) {
+                to = mid;
+            } else {
+                from = mid + 1;
+            }
+        }
+        return from;
+    }
+
+    /**
+     * @return the index of the first element of the sorted range greater or equal
+     * to the given value
+     */
+    private static int lowerBound(int[] array, int from, int to, int value, IntComparator comparator) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (comparator.compare(array[mid], value) < 0) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+
+    private static int countRunAndMakeAscending(int[] array, int from, int to, IntComparator comparator) {
+        int runEnd = from + 1;
+        if (runEnd == to) {
+            return 1;
+        }
+        if (comparator.compare(array[runEnd++], array[from]) < 0) {
+            while (runEnd < to && comparator.compare(array[runEnd], array[runEnd - 1]) < 0) {
+                runEnd++;
+            }
+            reverse(array, from, runEnd);
+        } else {
+            while (runEnd < to && comparator.compare(array[runEnd], array[runEnd - 1]) >= 0) {
+                runEnd++;
+            }
+        }
+        return runEnd - from;
+    }
+
+    private static void reverse(int[] array, int from, int to) {
+        to--;
+        while (from < to) {
+            int tmp = array[from];
+            array[from++] = array[to];
+            array[to--] = tmp;
+        }
+    }
+
+    private static void binaryInsertionSort(int[] array, int from, int to, int start, IntComparator comparator) {
+        for (int i = start; i < to; i++) {
+            int value = array[i];
+            int index = upperBound(array, from, i, value, comparator);
+            System.arraycopy(array, index, array, index + 1, i - index);
+            array[index] = value;
+        }
+    }
+
+    private static int minRunLength(int length) {
+        int r = 0;
+        while (length >= INSERTION_SORT_THRESHOLD) {
+            r |= length & 1;
+            length >>= 1;
+        }
+        return length + r;
+    }
+
+    private static int[] ensureCapacity(int[] array, int capacity) {
+        return array.length >= capacity ? array : new int[Math.max(capacity, array.length * 2)];
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.util;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * {@link Bag} storing its elements in fixed-size pages instead of a single
+ * array: growing never copies any element, pages being allocated on the first
+ * write of a non-null element, so a single high index does not trigger a large
+ * copy nor temporarily double the memory. Pages beyond the size can be released via {@link #trim()}, and pages
+ * only holding null elements via {@link #releaseEmptyPages()}.
+ * <p>
+ * There is no backing array, {@link #getData()} is not supported.
+ *
+ * @param <T> the elements type
+ */
+public class PagedBag<T> extends Bag<T> {
+
+    public static final int DEFAULT_PAGE_SIZE = 4096;
+
+    private Object[][] pages;
+    private int pageCount;
+    private int pageShift;
+    private int pageMask;
+
+    /**
+     * Creates a paged bag with a page size of {@link #DEFAULT_PAGE_SIZE}.
+     */
+    public PagedBag() {
+        this(DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * @param pageSize the number of elements of a page, must be a power of two
+     */
+    public PagedBag(int pageSize) {
+        super(0);
+        if (pageSize < 1 || Integer.bitCount(pageSize) != 1) {
+            throw new IllegalArgumentException("pageSize must be a power of two");
+        }
+        pageShift = Integer.numberOfTrailingZeros(pageSize);
+        pageMask = pageSize - 1;
+        pages = new Object[1][];
+    }
+
+    /**
+     * Not supported, a paged bag has no backing array.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public Object[] getData() {
+        throw new UnsupportedOperationException("A paged bag has no backing array");
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        Object[] page = pages[index >>> pageShift];
+        return page == null ? null : (T) page[index & pageMask];
+    }
+
+    @Override
+    public T getOrNull(int index) {
+        return index >= capacity() ? null : get(index);
+    }
+
+    @Override
+    public void add(T o) {
+        ensureCapacity(size);
+        unsafeSet(size, o);
+        size++;
+    }
+
+    @Override
+    public T nextOrAdd(Supplier<T> newInstanceSupplier) {
+        ensureCapacity(size);
+        T result = get(size);
+        if (result == null) {
+            result = newInstanceSupplier.get();
+            unsafeSet(size, result);
+        }
+        size++;
+        return result;
+    }
+
+    @Override
+    public void addAll(Bag<T> other) {
+        int otherSize = other.size();
+        ensureCapacity(size + otherSize - 1);
+        for (int i = 0; i < otherSize; i++) {
+            unsafeSet(size + i, other.get(i));
+        }
+        size += otherSize;
+    }
+
+    @Override
+    public T remove(int index) {
+        size--;
+        T movedData = get(size);
+        unsafeSet(index, movedData);
+        return movedData;
+    }
+
+    @Override
+    public T removeLast() {
+        size--;
+        return get(size);
+    }
+
+    @Override
+    public void unsafeSet(int index, T o) {
+        Object[] page = pages[index >>> pageShift];
+        if (page == null) {
+            if (o == null) {
+                return;
+            }
+            page = new Object[pageMask + 1];
+            pages[index >>> pageShift] = page;
+        }
+        page[index & pageMask] = o;
+    }
+
+    @Override
+    public void put(int index, T o) {
+        ensureCapacity(index);
+        unsafeSet(index, o);
+    }
+
+    @Override
+    public int capacity() {
+        return pageCount << pageShift;
+    }
+
+    /**
+     * Releases the pages located entirely beyond the size. Only relevant if the
+     * size is maintained, elements put beyond the size are lost.
+     */
+    public void trim() {
+        shrink(size);
+    }
+
+    /**
+     * Releases the pages located entirely beyond the given capacity. Elements of
+     * the released pages are lost, the size is lowered accordingly.
+     *
+     * @param capacity the number of elements to keep
+     */
+    @Override
+    public void shrink(int capacity) {
+        int requiredPageCount = (capacity + pageMask) >>> pageShift;
+        for (int i = requiredPageCount; i < pageCount; i++) {
+            pages[i] = null;
+        }
+        pageCount = Math.min(pageCount, requiredPageCount);
+        size = Math.min(size, capacity());
+    }
+
+    /**
+     * Releases the pages only holding null elements, they are allocated again
+     * when a non-null element is set. Runs in time proportional to the capacity.
+     */
+    public void releaseEmptyPages() {
+        for (int i = 0; i < pageCount; i++) {
+            Object[] page = pages[i];
+            if (page != null && isEmpty(page)) {
+                pages[i] = null;
+            }
+        }
+    }
+
+    /**
+     * @return the number of allocated pages
+     */
+    public int getPageCount() {
+        int count = 0;
+        for (int i = 0; i < pageCount; i++) {
+            if (pages[i] != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    protected void copyTo(Object[] dest, int destPos) {
+        for (int i = 0; i < size; i++) {
+            dest[destPos + i] = get(i);
+        }
+    }
+
+    @Override
+    protected void ensureCapacity(int requiredIndex) {
+        int requiredPageCount = (requiredIndex >> pageShift) + 1;
+        if (requiredPageCount <= pageCount) {
+            return;
+        }
+        if (requiredPageCount > pages.length) {
+            pages = Arrays.copyOf(pages, Math.max(requiredPageCount, pages.length * 2));
+        }
+        // Pages are allocated on the first write, reads of missing pages return null
+        pageCount = requiredPageCount;
+    }
+
+    private static boolean isEmpty(Object[] page) {
+        for (Object o : page) {
+            if (o != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
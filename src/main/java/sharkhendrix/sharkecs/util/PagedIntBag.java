@@ -0,0 +1,226 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.util;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * {@link IntBag} storing its elements in fixed-size pages instead of a single
+ * array: growing allocates the missing pages without copying any element, so a
+ * single high index does not trigger a large copy nor temporarily double the
+ * memory. Pages beyond the size can be released via {@link #trim()}.
+ * <p>
+ * There is no backing array, {@link #getData()} is not supported.
+ */
+public class PagedIntBag extends IntBag {
+
+    public static final int DEFAULT_PAGE_SIZE = 4096;
+
+    private int[][] pages;
+    private int pageCount;
+    private int pageShift;
+    private int pageMask;
+
+    /**
+     * Creates a paged bag with a page size of {@link #DEFAULT_PAGE_SIZE}.
+     */
+    public PagedIntBag() {
+        this(DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * @param pageSize the number of elements of a page, must be a power of two
+     */
+    public PagedIntBag(int pageSize) {
+        super(0);
+        if (pageSize < 1 || Integer.bitCount(pageSize) != 1) {
+            throw new IllegalArgumentException("pageSize must be a power of two");
+        }
+        pageShift = Integer.numberOfTrailingZeros(pageSize);
+        pageMask = pageSize - 1;
+        pages = new int[1][];
+    }
+
+    /**
+     * Not supported, a paged bag has no backing array.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public int[] getData() {
+        throw new UnsupportedOperationException("A paged bag has no backing array");
+    }
+
+    @Override
+    public int get(int index) {
+        return pages[index >>> pageShift][index & pageMask];
+    }
+
+    @Override
+    public void add(int i) {
+        ensureCapacity(size);
+        unsafeSet(size, i);
+        size++;
+    }
+
+    @Override
+    public void addAll(IntBag other) {
+        int otherSize = other.size();
+        ensureCapacity(size + otherSize - 1);
+        for (int i = 0; i < otherSize; i++) {
+            unsafeSet(size + i, other.get(i));
+        }
+        size += otherSize;
+    }
+
+    @Override
+    public int remove(int index) {
+        size--;
+        int movedData = get(size);
+        unsafeSet(index, movedData);
+        return movedData;
+    }
+
+    @Override
+    public int removeLast() {
+        size--;
+        return get(size);
+    }
+
+    @Override
+    public void removeKeepOrder(int index) {
+        for (int i = index + 1; i < size; i++) {
+            unsafeSet(i - 1, get(i));
+        }
+        size--;
+    }
+
+    @Override
+    public void unsafeSet(int index, int i) {
+        pages[index >>> pageShift][index & pageMask] = i;
+    }
+
+    @Override
+    public void put(int index, int i) {
+        ensureCapacity(index);
+        unsafeSet(index, i);
+    }
+
+    @Override
+    public void insert(int index, int value) {
+        ensureCapacity(size);
+        for (int i = size; i > index; i--) {
+            unsafeSet(i, get(i - 1));
+        }
+        unsafeSet(index, value);
+        size++;
+    }
+
+    @Override
+    public int capacity() {
+        return pageCount << pageShift;
+    }
+
+    @Override
+    public IntIterator iterator() {
+        return new IntIterator() {
+
+            private int currentIndex = 0;
+
+            @Override
+            public boolean hasNext() {
+                return currentIndex < size;
+            }
+
+            @Override
+            public int next() {
+                return get(currentIndex++);
+            }
+
+            @Override
+            public void reset() {
+                currentIndex = 0;
+            }
+
+            @Override
+            public void skip(int count) {
+                currentIndex += count;
+            }
+
+            @Override
+            public int totalSize() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Releases the pages located entirely beyond the size. Only relevant if the
+     * size is maintained, elements put beyond the size are lost.
+     */
+    public void trim() {
+        shrink(size);
+    }
+
+    /**
+     * Releases the pages located entirely beyond the given capacity. Elements of
+     * the released pages are lost, the size is lowered accordingly.
+     *
+     * @param capacity the number of elements to keep
+     */
+    @Override
+    public void shrink(int capacity) {
+        int requiredPageCount = (capacity + pageMask) >>> pageShift;
+        for (int i = requiredPageCount; i < pageCount; i++) {
+            pages[i] = null;
+        }
+        pageCount = Math.min(pageCount, requiredPageCount);
+        size = Math.min(size, capacity());
+    }
+
+    /**
+     * @return the number of allocated pages
+     */
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    @Override
+    protected void copyTo(int[] dest, int destPos) {
+        for (int page = 0, copied = 0; copied < size; page++) {
+            int length = Math.min(pageMask + 1, size - copied);
+            System.arraycopy(pages[page], 0, dest, destPos + copied, length);
+            copied += length;
+        }
+    }
+
+    @Override
+    protected void ensureCapacity(int requiredIndex) {
+        int requiredPageCount = (requiredIndex >> pageShift) + 1;
+        if (requiredPageCount <= pageCount) {
+            return;
+        }
+        if (requiredPageCount > pages.length) {
+            pages = Arrays.copyOf(pages, Math.max(requiredPageCount, pages.length * 2));
+        }
+        for (int i = pageCount; i < requiredPageCount; i++) {
+            pages[i] = new int[pageMask + 1];
+        }
+        pageCount = requiredPageCount;
+    }
+}
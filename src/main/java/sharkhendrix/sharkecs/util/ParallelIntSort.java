@@ -0,0 +1,225 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <p>
+ * Parallel merge sort of int arrays on a {@link ForkJoinPool}. The range is
+ * split in segments sorted concurrently by {@link IntSort}, which are then
+ * merged concurrently: each merge is itself split around the median of the
+ * largest run, so the last merges also use all the workers.
+ * <p>
+ * Ranges smaller than the threshold are sorted sequentially. The sort is
+ * stable, and does not allocate except for its fork/join tasks once the
+ * buffers are large enough.
+ * <p>
+ * The {@link IntComparator} is called concurrently by the workers, it must be
+ * thread-safe, which is the case of comparators only reading component data.
+ * Instances of this class are not thread-safe.
+ */
+public class ParallelIntSort {
+
+    /**
+     * Default minimum size of a range to sort it in parallel.
+     */
+    public static final int DEFAULT_THRESHOLD = 100_000;
+
+    private static final int MIN_SEGMENT_SIZE = 4096;
+    private static final int MERGE_GRANULARITY = 8192;
+
+    private class SortTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int firstSegment;
+        private final int segmentCount;
+
+        SortTask(int from, int to, int firstSegment, int segmentCount) {
+            this.from = from;
+            this.to = to;
+            this.firstSegment = firstSegment;
+            this.segmentCount = segmentCount;
+        }
+
+        @Override
+        protected void compute() {
+            if (segmentCount == 1) {
+                segmentSorts[firstSegment].sort(array, from, to, comparator);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            int half = segmentCount / 2;
+            invokeAll(new SortTask(from, middle, firstSegment, half),
+                    new SortTask(middle, to, firstSegment + half, half));
+            if (comparator.compare(array[middle], array[middle - 1]) < 0) {
+                System.arraycopy(array, from, buffer, from, to - from);
+                new MergeTask(from, middle, middle, to, from).compute();
+            }
+        }
+    }
+
+    /**
+     * Merges two sorted runs of the buffer into the array.
+     */
+    private class MergeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from1;
+        private final int to1;
+        private final int from2;
+        private final int to2;
+        private final int target;
+
+        MergeTask(int from1, int to1, int from2, int to2, int target) {
+            this.from1 = from1;
+            this.to1 = to1;
+            this.from2 = from2;
+            this.to2 = to2;
+            this.target = target;
+        }
+
+        @Override
+        protected void compute() {
+            int length1 = to1 - from1;
+            int length2 = to2 - from2;
+            if (length1 + length2 <= MERGE_GRANULARITY) {
+                merge(from1, to1, from2, to2, target);
+                return;
+            }
+            int split1;
+            int split2;
+            // Values equal to the split value go after it when taken from run1,
+            // before it when taken from run2, to keep the merge stable
+            if (length1 >= length2) {
+                split1 = (from1 + to1) >>> 1;
+                split2 = lowerBound(from2, to2, buffer[split1]);
+            } else {
+                split2 = (from2 + to2) >>> 1;
+                split1 = upperBound(from1, to1, buffer[split2]);
+            }
+            invokeAll(new MergeTask(from1, split1, from2, split2, target),
+                    new MergeTask(split1, to1, split2, to2, target + split1 - from1 + split2 - from2));
+        }
+    }
+
+    private ForkJoinPool pool;
+    private int threshold;
+    private IntSort sequentialSort = new IntSort();
+    private IntSort[] segmentSorts;
+    private int[] buffer = new int[0];
+    private int[] array;
+    private IntComparator comparator;
+
+    /**
+     * @param pool      the pool running the sort
+     * @param threshold the minimum size of a range to sort it in parallel
+     */
+    public ParallelIntSort(ForkJoinPool pool, int threshold) {
+        this.pool = pool;
+        this.threshold = threshold;
+        segmentSorts = new IntSort[Integer.highestOneBit(Math.max(1, pool.getParallelism() * 4))];
+        for (int i = 0; i < segmentSorts.length; i++) {
+            segmentSorts[i] = new IntSort();
+        }
+    }
+
+    /**
+     * Sorts the given range, in parallel if its size reaches the threshold.
+     *
+     * @param array      the array to sort
+     * @param from       the index of the first element, inclusive
+     * @param to         the index of the last element, exclusive
+     * @param comparator the thread-safe comparator ordering the values
+     */
+    public void sort(int[] array, int from, int to, IntComparator comparator) {
+        int length = to - from;
+        if (length < threshold || IntSort.countDescents(array, from, to, comparator) == 0) {
+            sequentialSort.sort(array, from, to, comparator);
+            return;
+        }
+        if (buffer.length < to) {
+            buffer = new int[Math.max(to, buffer.length * 2)];
+        }
+        int segmentCount = Math.min(segmentSorts.length, Integer.highestOneBit(Math.max(1, length / MIN_SEGMENT_SIZE)));
+        this.array = array;
+        this.comparator = comparator;
+        try {
+            pool.invoke(new SortTask(from, to, 0, segmentCount));
+        } finally {
+            this.array = null;
+            this.comparator = null;
+        }
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    private void merge(int from1, int to1, int from2, int to2, int target) {
+        while (from1 < to1 && from2 < to2) {
+            if (comparator.compare(buffer[from2], buffer[from1]) < 0) {
+                array[target++] = buffer[from2++];
+            } else {
+                array[target++] = buffer[from1++];
+            }
+        }
+        System.arraycopy(buffer, from1, array, target, to1 - from1);
+        System.arraycopy(buffer, from2, array, target + to1 - from1, to2 - from2);
+    }
+
+    /**
+     * @return the index of the first value of the buffer range greater or equal
+     * to the given value
+     */
+    private int lowerBound(int from, int to, int value) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (comparator.compare(buffer[mid], value) < 0) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+
+    /**
+     * @return the index of the first value of the buffer range strictly greater
+     * than the given value
+     */
+    private int upperBound(int from, int to, int value) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (comparator.compare(value, buffer[mid]) < 0) {
+                to = mid;
+            } else {
+                from = mid + 1;
+            }
+        }
+        return from;
+    }
+}
@@ -76,7 +76,7 @@ public class ReflectionUtil {
         A annotation = type.getAnnotation(annotationType);
         while (annotation == null && currentType != null && currentType != Object.class) {
             currentType = currentType.getSuperclass();
-            annotation = type.getAnnotation(annotationType);
+            annotation = currentType.getAnnotation(annotationType);
         }
         return annotation;
     }
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.util;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Histogram of the last {@code windowSize} recorded values, in a ring buffer.
+ * Recording is constant time and does not allocate, statistics are computed
+ * on demand over the current window.
+ * <p>
+ * Not thread-safe.
+ */
+public class RollingHistogram {
+
+    private long[] values;
+    private long[] sortBuffer;
+    private int next;
+    private int size;
+    private long count;
+
+    /**
+     * @param windowSize the number of last values kept
+     */
+    public RollingHistogram(int windowSize) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("windowSize must be greater than zero");
+        }
+        values = new long[windowSize];
+        sortBuffer = new long[windowSize];
+    }
+
+    /**
+     * Records the given value, replacing the oldest one if the window is full.
+     *
+     * @param value the value to record
+     */
+    public void record(long value) {
+        values[next] = value;
+        next = (next + 1) % values.length;
+        if (size < values.length) {
+            size++;
+        }
+        count++;
+    }
+
+    /**
+     * @return the number of values of the current window
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the total number of recorded values, including values out of the
+     * window
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the last recorded value, or 0 if empty
+     */
+    public long getLast() {
+        return size == 0 ? 0 : values[(next - 1 + values.length) % values.length];
+    }
+
+    /**
+     * @return the minimum value of the window, or 0 if empty
+     */
+    public long getMin() {
+        if (size == 0) {
+            return 0;
+        }
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            min = Math.min(min, values[i]);
+        }
+        return min;
+    }
+
+    /**
+     * @return the maximum value of the window, or 0 if empty
+     */
+    public long getMax() {
+        if (size == 0) {
+            return 0;
+        }
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            max = Math.max(max, values[i]);
+        }
+        return max;
+    }
+
+    /**
+     * @return the mean value of the window, or 0 if empty
+     */
+    public double getMean() {
+        if (size == 0) {
+            return 0;
+        }
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += values[i];
+        }
+        return sum / size;
+    }
+
+    /**
+     * Computes the given percentile of the window, with the nearest-rank method.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the value at the given percentile, or 0 if empty
+     */
+    public long getPercentile(double percentile) {
+        if (size == 0) {
+            return 0;
+        }
+        System.arraycopy(values, 0, sortBuffer, 0, size);
+        Arrays.sort(sortBuffer, 0, size);
+        int rank = (int) Math.ceil(percentile / 100 * size);
+        return sortBuffer[Math.max(0, Math.min(size - 1, rank - 1))];
+    }
+
+    /**
+     * Removes all recorded values.
+     */
+    public void clear() {
+        next = 0;
+        size = 0;
+        count = 0;
+    }
+}
@@ -21,12 +21,14 @@ import java.util.Arrays;
 /**
  * A sortable int list backed by an array.
  * <p>
- * The {@link #sort()} algorithm is the insertion algorithm,
- * which is as simple as efficient for smoothly changing comparison values (e.g. z-order of moving entities).
+ * The {@link #sort()} algorithm is selected by {@link IntSort} from the measured disorder of the list:
+ * an adaptive merge sort, linear for smoothly changing comparison values (e.g. z-order of moving entities),
+ * or a radix sort for strongly disordered lists when the comparator is an {@link IntKeyComparator}
+ * or a {@link FloatKeyComparator}.
  * <p>
  * The {@link #add(int)} method uses a binary search to insert the value.
  * It may insert in the wrong place since the array may be partially sorted,
- * but it's still beneficial for the insertion sort algorithm.
+ * but it's still beneficial for the adaptive sort algorithm.
  * <p>
  * In the same way, the {@link #remove(int)} method uses a binary search to find and remove the value.
  * In the worst case, because the array may be partially sorted, the binary search fail, in that case,
@@ -35,6 +37,7 @@ import java.util.Arrays;
 public class SortableIntArrayList implements SortableIntList {
     private IntBag bag;
     private IntComparator comparator;
+    private IntSort sorter = new IntSort();
 
     public SortableIntArrayList(int initialCapacity, IntComparator comparator) {
         this.comparator = comparator;
@@ -43,25 +46,7 @@ public class SortableIntArrayList implements SortableIntList {
 
     @Override
     public void sort() {
-        int[] array = bag.getData();
-        int length = bag.size();
-        for (int i = 1; i < length; i++) {
-            int j = i - 1;
-            int value = array[i];
-            if (comparator.compare(value, array[j]) < 0) {
-                while (j > 0 && comparator.compare(value, array[j - 1]) < 0) {
-                    j--;
-                }
-                if (i - j == 1) {
-                    int tmp = array[i];
-                    array[i] = array[j];
-                    array[j] = tmp;
-                } else {
-                    System.arraycopy(array, j, array, j + 1, (i - j));
-                }
-                array[j] = value;
-            }
-        }
+        sorter.sort(bag.getData(), 0, bag.size(), comparator);
     }
 
     @Override
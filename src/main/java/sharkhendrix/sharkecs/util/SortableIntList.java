@@ -39,6 +39,16 @@ public interface SortableIntList {
      */
     void add(int value);
 
+    /**
+     * Releases the storage indexed by the values at or beyond the given
+     * capacity, all values of this list being lower. Does nothing by default.
+     *
+     * @param capacity the number of values to keep the storage of
+     */
+    default void shrink(int capacity) {
+        // Nothing by default
+    }
+
     /**
      * Remove the first element with the given value of this list,
      * keeping the other values to the same relative order.
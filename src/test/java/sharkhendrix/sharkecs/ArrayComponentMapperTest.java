@@ -21,6 +21,15 @@ import org.junit.jupiter.api.Test;
 
 class ArrayComponentMapperTest {
 
+    static class Bullet implements Resettable {
+        int damage;
+
+        @Override
+        public void reset() {
+            damage = 0;
+        }
+    }
+
     private Object component;
 
     @Test
@@ -46,4 +55,29 @@ class ArrayComponentMapperTest {
         Assertions.assertSame(mapper.get(10), component);
         mapper.ifExists(2, c -> Assertions.fail("action must not be executed"));
     }
+
+    @Test
+    void pooledTest() {
+        ArrayComponentMapper<Bullet> mapper = new ArrayComponentMapper<>(5, Bullet::new, 2);
+        Assertions.assertTrue(mapper.isPooled());
+        Bullet bullet1 = mapper.create(0);
+        bullet1.damage = 10;
+        Bullet bullet2 = mapper.create(1);
+        mapper.create(2);
+        Assertions.assertEquals(3, mapper.getPoolMisses());
+
+        mapper.remove(0);
+        mapper.remove(1);
+        mapper.remove(2);
+        Assertions.assertEquals(2, mapper.getPoolSize());
+        Assertions.assertEquals(0, bullet1.damage);
+        Assertions.assertNull(mapper.getIfExists(0));
+
+        Assertions.assertSame(bullet2, mapper.create(3));
+        Assertions.assertSame(bullet1, mapper.create(4));
+        mapper.create(5);
+        Assertions.assertEquals(2, mapper.getPoolHits());
+        Assertions.assertEquals(4, mapper.getPoolMisses());
+        Assertions.assertEquals(0, mapper.getPoolSize());
+    }
 }
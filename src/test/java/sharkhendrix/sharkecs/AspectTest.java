@@ -114,6 +114,25 @@ class AspectTest {
         Assertions.assertFalse(aspect.matches(notMatching));
     }
 
+    @Test
+    void maskTest() {
+        ComponentIndex index = new ComponentIndex();
+        Aspect aspect = new Aspect(AnnotatedWithMixed.class);
+        Assertions.assertThrows(IllegalStateException.class, () -> aspect.matches(new long[1]));
+        aspect.index(index);
+        Assertions.assertEquals(4, index.size());
+
+        Assertions.assertTrue(aspect.matches(index.mask(Arrays.asList(A.class, C.class))));
+        Assertions.assertFalse(aspect.matches(index.mask(Arrays.asList(C.class))));
+        Assertions.assertFalse(aspect.matches(index.mask(Arrays.asList(A.class, C.class, D.class))));
+        Assertions.assertFalse(aspect.matches(index.mask(Arrays.asList(A.class))));
+        Assertions.assertFalse(aspect.matches(new long[0]));
+
+        Aspect all = new Aspect(Object.class);
+        all.index(index);
+        Assertions.assertTrue(all.matches(new long[0]));
+    }
+
     @Test
     void equalsAndHashcodeTest() {
         Aspect a1 = new Aspect(AnnotatedWithMixed.class);
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import sharkhendrix.sharkecs.annotation.With;
+import sharkhendrix.sharkecs.builder.EngineBuilder;
+import sharkhendrix.sharkecs.builder.RegistrationMap;
+import sharkhendrix.sharkecs.subscription.SubscriberAdapter;
+import sharkhendrix.sharkecs.testutil.SubscriptionLogger;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+class EntityCommandBufferTest {
+
+    static class A {
+    }
+
+    static class B {
+    }
+
+    @With(A.class)
+    private static class SubscriberA extends SubscriberAdapter {
+
+    }
+
+    @With(B.class)
+    private static class SubscriberB extends SubscriberAdapter {
+
+    }
+
+    @Test
+    void test() throws InterruptedException {
+        SubscriberA subscriberA = new SubscriberA();
+        SubscriberB subscriberB = new SubscriberB();
+        EngineBuilder builder = EngineBuilder.withDefaults(10)
+                .defaultComponentCreationPolicy(Archetype.ComponentCreationPolicy.AUTOMATIC)
+                .component(A.class, A::new)
+                .component(B.class, B::new)
+                .archetype("a", A.class)
+                .archetype("ab", A.class, B.class)
+                .with(subscriberA)
+                .with(subscriberB)
+                .transmutation("a", "ab");
+        builder.build();
+        RegistrationMap registrations = builder.getRegistrations();
+        EntityManager manager = registrations.get(EntityManager.class);
+        Archetype archetypeA = registrations.get(Archetype.class, "a");
+        ComponentMapper<?> mapperB = registrations.get(ComponentMapper.class, B.class);
+        SubscriptionLogger listenerA = new SubscriptionLogger();
+        subscriberA.getSubscription().addListener(listenerA);
+        SubscriptionLogger listenerB = new SubscriptionLogger();
+        subscriberB.getSubscription().addListener(listenerB);
+
+        // Concurrent creation
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        pool.submit(() -> IntStream.range(0, 100).parallel()
+                .forEach(i -> manager.commandBuffer().create(archetypeA))).join();
+        Assertions.assertTrue(manager.commandBuffer().isEmpty());
+        Assertions.assertNull(manager.archetypeOf(0));
+
+        manager.process();
+
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals(archetypeA, manager.archetypeOf(i));
+        }
+        listenerA.assertAddLog(IntStream.range(0, 100).toArray());
+        listenerA.clear();
+
+        // Concurrent transmutation and removal
+
+        pool.submit(() -> IntStream.range(0, 100).parallel().forEach(i -> {
+            if (i % 2 == 0) {
+                manager.commandBuffer().remove(i);
+            } else {
+                manager.commandBuffer().addComponent(i, B.class);
+            }
+        })).join();
+
+        manager.process();
+
+        int[] evens = IntStream.range(0, 50).map(i -> i * 2).toArray();
+        int[] odds = IntStream.range(0, 50).map(i -> i * 2 + 1).toArray();
+        listenerA.assertRemoveLog(evens);
+        listenerB.assertAddLog(odds);
+        for (int odd : odds) {
+            Assertions.assertNotNull(mapperB.get(odd));
+        }
+
+        // Recycled ids are unique
+
+        listenerA.clear();
+        pool.submit(() -> IntStream.range(0, 60).parallel()
+                .forEach(i -> manager.commandBuffer().create(archetypeA))).join();
+        manager.process();
+
+        int[] recreated = IntStream.concat(IntStream.of(evens), IntStream.range(100, 110)).sorted().toArray();
+        listenerA.assertAddLog(recreated);
+
+        pool.shutdown();
+        Assertions.assertTrue(pool.awaitTermination(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void terminatedThreadTest() throws InterruptedException {
+        EngineBuilder builder = EngineBuilder.withDefaults(10)
+                .component(A.class, A::new)
+                .archetype("a", A.class);
+        builder.build();
+        RegistrationMap registrations = builder.getRegistrations();
+        EntityManager manager = registrations.get(EntityManager.class);
+        Archetype archetypeA = registrations.get(Archetype.class, "a");
+
+        // Operations recorded by a terminated thread are merged before its buffer is dropped
+        for (int i = 0; i < 3; i++) {
+            Thread thread = new Thread(() -> manager.commandBuffer().create(archetypeA));
+            thread.start();
+            thread.join();
+            manager.process();
+            Assertions.assertEquals(archetypeA, manager.archetypeOf(i));
+        }
+        manager.process();
+        Assertions.assertEquals(archetypeA, manager.archetypeOf(2));
+    }
+
+    static class Value {
+        int value;
+    }
+
+    @Test
+    void initTest() {
+        EngineBuilder builder = EngineBuilder.withDefaults(10)
+                .defaultComponentCreationPolicy(Archetype.ComponentCreationPolicy.AUTOMATIC)
+                .component(Value.class, Value::new)
+                .archetype("value", Value.class);
+        builder.build();
+        RegistrationMap registrations = builder.getRegistrations();
+        EntityManager manager = registrations.get(EntityManager.class);
+        Archetype archetype = registrations.get(Archetype.class, "value");
+        ComponentMapper<Value> mapper = registrations.get(ComponentMapper.class, Value.class);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        pool.submit(() -> IntStream.range(0, 20).parallel()
+                .forEach(i -> manager.commandBuffer().create(archetype, id -> mapper.get(id).value = i))).join();
+        pool.shutdown();
+        manager.process();
+
+        Set<Integer> values = new HashSet<>();
+        for (int id = 0; id < 20; id++) {
+            values.add(mapper.get(id).value);
+        }
+        Assertions.assertEquals(20, values.size());
+    }
+}
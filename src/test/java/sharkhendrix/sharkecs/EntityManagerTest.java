@@ -26,6 +26,7 @@ import sharkhendrix.sharkecs.subscription.SubscriberAdapter;
 import sharkhendrix.sharkecs.subscription.Subscription;
 import sharkhendrix.sharkecs.subscription.SubscriptionListener;
 import sharkhendrix.sharkecs.testutil.SubscriptionLogger;
+import sharkhendrix.sharkecs.util.IntIterator;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -346,6 +347,130 @@ class EntityManagerTest {
 
     }
 
+    @Test
+    void createBatchTest() {
+        manager.create(archetype2);
+        manager.create(archetype2);
+        manager.process();
+        manager.remove(0);
+        manager.process();
+        clearListeners();
+
+        List<Integer> initLog = new ArrayList<>();
+        manager.createBatch(archetype1, 4, id -> {
+            Assertions.assertNotNull(mapperA.get(id));
+            initLog.add(id);
+        });
+
+        Assertions.assertEquals(Arrays.asList(0, 2, 3, 4), initLog);
+        Assertions.assertNotNull(mapperB.get(4));
+        Assertions.assertEquals(5, manager.create(archetype2));
+
+        manager.process();
+
+        listenerA.assertAddLog(0, 2, 3, 4);
+        listenerB.assertAddLog(0, 2, 3, 4);
+        listenerC.assertAddLog(5);
+        Assertions.assertEquals(archetype1, manager.archetypeOf(4));
+
+        manager.createBatch(archetype2, 0, null);
+        checkEmptyRun();
+    }
+
+    @Test
+    void handleTest() {
+        int entity = manager.create(archetype1);
+        long handle = manager.handle(entity);
+        EntityReference reference = manager.reference(entity);
+        Assertions.assertFalse(manager.isAlive(handle));
+        manager.process();
+
+        Assertions.assertTrue(manager.isAlive(handle));
+        Assertions.assertEquals(entity, EntityHandle.entity(handle));
+        Assertions.assertFalse(manager.isAlive(EntityHandle.NONE));
+        Assertions.assertFalse(manager.isAlive(EntityHandle.of(entity + 1, 0)));
+        Assertions.assertFalse(manager.isAlive(EntityHandle.of(1000, 0)));
+
+        manager.remove(entity);
+        Assertions.assertTrue(manager.isAlive(handle));
+        manager.process();
+
+        Assertions.assertFalse(manager.isAlive(handle));
+        Assertions.assertFalse(reference.exists());
+
+        int recycled = manager.create(archetype1);
+        manager.process();
+
+        Assertions.assertEquals(entity, recycled);
+        Assertions.assertFalse(manager.isAlive(handle));
+        long newHandle = manager.handle(recycled);
+        Assertions.assertTrue(manager.isAlive(newHandle));
+        Assertions.assertEquals(1, EntityHandle.generation(newHandle));
+    }
+
+    @Test
+    void compactTest() {
+        for (int i = 0; i < 6; i++) {
+            manager.create(archetype1);
+        }
+        manager.create(archetype2);
+        manager.process();
+        A a5 = mapperA.get(5);
+        C c6 = mapperC.get(6);
+        EntityReference reference = manager.reference(5);
+        long handle = manager.handle(6);
+        manager.remove(0);
+        manager.remove(1);
+        manager.remove(3);
+        manager.process();
+        clearListeners();
+        List<A> movedComponents = new ArrayList<>();
+        subscriptionA.addListener(new SubscriptionLogger() {
+            @Override
+            public void moved(int fromEntity, int toEntity) {
+                movedComponents.add(mapperA.getIfExists(fromEntity));
+            }
+        });
+
+        Assertions.assertEquals(3, manager.compact());
+
+        listenerA.assertRemoveLog();
+        listenerA.assertAddLog();
+        listenerA.assertMoveLog(5, 1, 4, 3);
+        listenerC.assertRemoveLog();
+        listenerC.assertAddLog();
+        listenerC.assertMoveLog(6, 0);
+        Assertions.assertSame(a5, movedComponents.get(0));
+        Assertions.assertSame(archetype2, manager.archetypeOf(0));
+        Assertions.assertSame(archetype1, manager.archetypeOf(1));
+        Assertions.assertSame(c6, mapperC.get(0));
+        Assertions.assertSame(a5, mapperA.get(1));
+        Assertions.assertNull(mapperA.getIfExists(5));
+        Assertions.assertNull(mapperC.getIfExists(6));
+        Assertions.assertEquals(1, reference.get());
+        Assertions.assertFalse(manager.isAlive(handle));
+        Assertions.assertTrue(manager.isAlive(manager.handle(0)));
+        Assertions.assertEquals(List.of(1, 2, 3), sortedEntities(subscriptionA));
+        Assertions.assertEquals(List.of(0), sortedEntities(subscriptionC));
+
+        Assertions.assertEquals(4, manager.create(archetype2));
+        manager.process();
+        Assertions.assertEquals(0, manager.compact());
+
+        manager.remove(2);
+        Assertions.assertThrows(IllegalStateException.class, manager::compact);
+    }
+
+    private static List<Integer> sortedEntities(Subscription subscription) {
+        List<Integer> entities = new ArrayList<>();
+        IntIterator iterator = subscription.iterator();
+        while (iterator.hasNext()) {
+            entities.add(iterator.next());
+        }
+        entities.sort(null);
+        return entities;
+    }
+
     private void checkEmptyRun() {
         clearListeners();
 
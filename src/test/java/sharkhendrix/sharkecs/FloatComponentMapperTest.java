@@ -0,0 +1,48 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class FloatComponentMapperTest {
+
+    @Test
+    void test() {
+        FloatComponentMapper<Object> mapper = new FloatComponentMapper<>(5);
+        mapper.create(2);
+        mapper.setFloat(2, 1.5f);
+        mapper.create(10);
+        mapper.setFloat(10, 3f);
+
+        Assertions.assertTrue(mapper.getCapacity() > 10);
+        Assertions.assertEquals(1.5f, mapper.getFloat(2));
+        Assertions.assertEquals(3f, mapper.getData()[10]);
+        Assertions.assertTrue(mapper.has(2));
+        Assertions.assertFalse(mapper.has(3));
+        Assertions.assertFalse(mapper.has(1000));
+
+        mapper.remove(2);
+        Assertions.assertFalse(mapper.has(2));
+        mapper.create(2);
+        Assertions.assertEquals(0f, mapper.getFloat(2));
+
+        Assertions.assertNull(mapper.getIfExists(2));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> mapper.get(2));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> mapper.put(2, new Object()));
+    }
+}
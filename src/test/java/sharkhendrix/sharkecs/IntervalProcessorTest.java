@@ -0,0 +1,82 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import sharkhendrix.sharkecs.annotation.RunEvery;
+import sharkhendrix.sharkecs.builder.EngineBuilder;
+import sharkhendrix.sharkecs.builder.EngineConfigurationException;
+
+class IntervalProcessorTest {
+
+    static class CountingProcessor implements Processor {
+        int count;
+
+        @Override
+        public void process() {
+            count++;
+        }
+    }
+
+    @RunEvery(frames = 3, offset = 1)
+    static class EveryThreeFrames extends CountingProcessor {
+    }
+
+    @RunEvery(millis = 60_000)
+    static class EveryMinute extends CountingProcessor {
+    }
+
+    static class EveryThreeFramesSubclass extends EveryThreeFrames {
+    }
+
+    @RunEvery(millis = -1)
+    static class NegativeMillis extends CountingProcessor {
+    }
+
+    @Test
+    void test() {
+        EveryThreeFrames everyThreeFrames = new EveryThreeFrames();
+        EveryMinute everyMinute = new EveryMinute();
+        CountingProcessor always = new CountingProcessor();
+        Engine engine = EngineBuilder.withDefaults(10)
+                .with(everyThreeFrames)
+                .with(everyMinute)
+                .with(always)
+                .build();
+
+        engine.process();
+        Assertions.assertEquals(0, everyThreeFrames.count);
+        Assertions.assertEquals(1, everyMinute.count);
+        for (int i = 0; i < 7; i++) {
+            engine.process();
+        }
+        Assertions.assertEquals(3, everyThreeFrames.count);
+        Assertions.assertEquals(1, everyMinute.count);
+        Assertions.assertEquals(8, always.count);
+    }
+
+    @Test
+    void ofTest() {
+        CountingProcessor processor = new CountingProcessor();
+        Assertions.assertSame(processor, IntervalProcessor.of(processor));
+        Assertions.assertTrue(IntervalProcessor.of(new EveryThreeFramesSubclass()) instanceof IntervalProcessor);
+        Assertions.assertThrows(EngineConfigurationException.class, () -> IntervalProcessor.of(new NegativeMillis()));
+        Assertions.assertThrows(EngineConfigurationException.class, () -> new IntervalProcessor(processor, 0, 0));
+        Assertions.assertThrows(EngineConfigurationException.class, () -> new IntervalProcessor(processor, 0L));
+    }
+}
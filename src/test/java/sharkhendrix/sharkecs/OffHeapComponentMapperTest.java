@@ -0,0 +1,75 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class OffHeapComponentMapperTest {
+
+    static class PositionView extends OffHeapView {
+
+        static final int STRIDE = 12;
+
+        float getX() {
+            return getFloat(0);
+        }
+
+        void setX(float x) {
+            putFloat(0, x);
+        }
+
+        long getId() {
+            return getLong(4);
+        }
+
+        void setId(long id) {
+            putLong(4, id);
+        }
+    }
+
+    @Test
+    void test() {
+        OffHeapComponentMapper<Object, PositionView> mapper = new OffHeapComponentMapper<>(2, PositionView.STRIDE,
+                PositionView::new);
+        mapper.create(0);
+        mapper.view(0).setX(1.5f);
+        mapper.view(0).setId(42L);
+        mapper.create(1);
+        mapper.view(1).setX(-3f);
+
+        mapper.create(7);
+        Assertions.assertTrue(mapper.getBuffer().capacity() >= 8 * PositionView.STRIDE);
+        Assertions.assertTrue(mapper.getBuffer().isDirect());
+        mapper.view(7).setX(7f);
+
+        PositionView other = mapper.newView();
+        mapper.moveTo(other, 1);
+        PositionView view = mapper.view(0);
+        Assertions.assertEquals(0, view.getEntity());
+        Assertions.assertEquals(1.5f, view.getX());
+        Assertions.assertEquals(42L, view.getId());
+        Assertions.assertEquals(-3f, other.getX());
+        Assertions.assertEquals(7f, mapper.view(7).getX());
+
+        mapper.remove(0);
+        Assertions.assertFalse(mapper.has(0));
+        mapper.create(0);
+        Assertions.assertEquals(0f, mapper.view(0).getX());
+        Assertions.assertEquals(0L, mapper.view(0).getId());
+    }
+}
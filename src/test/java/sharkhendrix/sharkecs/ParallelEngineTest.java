@@ -0,0 +1,102 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import sharkhendrix.sharkecs.annotation.Reads;
+import sharkhendrix.sharkecs.builder.EngineBuilder;
+import sharkhendrix.sharkecs.builder.configurator.Prioritizer;
+import sharkhendrix.sharkecs.builder.configurator.ProcessorConfigurator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+class ParallelEngineTest {
+
+    @Test
+    void dependencyOrderTest() {
+        List<Integer> log = Collections.synchronizedList(new ArrayList<>());
+        Processor[] processors = new Processor[4];
+        for (int i = 0; i < processors.length; i++) {
+            int index = i;
+            processors[i] = () -> log.add(index);
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        Engine engine = new ParallelEngine(processors, new int[][]{{}, {0}, {1}, {1, 2}}, pool);
+
+        for (int i = 0; i < 3; i++) {
+            log.clear();
+            engine.process();
+            Assertions.assertEquals(List.of(0, 1, 2, 3), log);
+        }
+        pool.shutdown();
+    }
+
+    @Reads(Object.class)
+    static class WaitingProcessor implements Processor {
+
+        private CountDownLatch latch;
+
+        WaitingProcessor(CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        @Override
+        public void process() {
+            latch.countDown();
+            try {
+                Assertions.assertTrue(latch.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Test
+    void concurrencyTest() {
+        CountDownLatch latch = new CountDownLatch(2);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        Engine engine = new EngineBuilder()
+                .with(new WaitingProcessor(latch))
+                .with("other", new WaitingProcessor(latch))
+                .with(new Prioritizer())
+                .with(new ProcessorConfigurator())
+                .parallel(pool)
+                .build();
+
+        Assertions.assertTrue(engine instanceof ParallelEngine);
+        engine.process();
+        Assertions.assertEquals(0, latch.getCount());
+        pool.shutdown();
+    }
+
+    @Test
+    void exceptionTest() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        Engine engine = new ParallelEngine(new Processor[]{() -> {
+            throw new IllegalStateException("expected");
+        }}, new int[][]{{}}, pool);
+
+        Assertions.assertThrows(IllegalStateException.class, engine::process);
+        pool.shutdown();
+    }
+}
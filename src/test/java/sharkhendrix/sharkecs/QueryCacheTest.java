@@ -0,0 +1,137 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import sharkhendrix.sharkecs.builder.EngineBuilder;
+import sharkhendrix.sharkecs.subscription.TrackingSubscription;
+import sharkhendrix.sharkecs.util.IntIterator;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+class QueryCacheTest {
+
+    static class Health {
+    }
+
+    static class Bullet {
+    }
+
+    static class Position {
+    }
+
+    @Test
+    void test() {
+        EngineBuilder builder = EngineBuilder.withDefaults(10)
+                .component(Health.class, Health::new)
+                .component(Bullet.class, Bullet::new)
+                .component(Position.class, Position::new)
+                .archetype("unit", Health.class, Position.class)
+                .archetype("armoredBullet", Health.class, Bullet.class)
+                .archetype("prop", Position.class)
+                .transmutation("unit", "prop")
+                .transmutation("prop", "unit");
+        Engine engine = builder.build();
+        EntityManager entityManager = builder.getRegistrations().get(EntityManager.class);
+        Archetype unit = builder.getRegistrations().get(Archetype.class, "unit");
+        Archetype armoredBullet = builder.getRegistrations().get(Archetype.class, "armoredBullet");
+        Archetype prop = builder.getRegistrations().get(Archetype.class, "prop");
+
+        int unit1 = entityManager.create(unit);
+        int unit2 = entityManager.create(unit);
+        entityManager.create(armoredBullet);
+        int prop1 = entityManager.create(prop);
+        engine.process();
+
+        Aspect aspect = Aspect.all().with(Health.class).without(Bullet.class);
+        Query query = entityManager.query(aspect);
+        Assertions.assertEquals(Set.of(unit1, unit2), toSet(query.iterator()));
+        Assertions.assertSame(query, entityManager.query(Aspect.all().without(Bullet.class).with(Health.class)));
+        Assertions.assertEquals(1, entityManager.getQueryCache().size());
+        Assertions.assertNotSame(aspect, query.getAspect());
+
+        entityManager.transmute(unit1, prop);
+        entityManager.transmute(prop1, unit);
+        int unit3 = entityManager.create(unit);
+        entityManager.remove(unit2);
+        engine.process();
+        Assertions.assertEquals(Set.of(prop1, unit3), toSet(query.iterator()));
+
+        // Released by its two acquisitions, the query is no longer updated
+        query.release();
+        Assertions.assertTrue(query.isActive());
+        query.release();
+        Assertions.assertFalse(query.isActive());
+        Assertions.assertEquals(0, entityManager.getQueryCache().size());
+        Assertions.assertThrows(IllegalStateException.class, query::release);
+        TrackingSubscription subscription = query.getSubscription();
+        Assertions.assertFalse(Arrays.asList(unit.getSubscriptions()).contains(subscription));
+        for (Transmutation transmutation : prop.getTransmutations()) {
+            if (transmutation != null) {
+                Assertions.assertFalse(Arrays.asList(transmutation.getAddSubscriptions()).contains(subscription));
+            }
+        }
+        entityManager.create(unit);
+        engine.process();
+        Assertions.assertEquals(Set.of(prop1, unit3), toSet(query.iterator()));
+
+        Query newQuery = entityManager.query(aspect);
+        Assertions.assertNotSame(query, newQuery);
+        Assertions.assertEquals(3, toSet(newQuery.iterator()).size());
+    }
+
+    @Test
+    void pendingOperationsTest() {
+        EngineBuilder builder = EngineBuilder.withDefaults(10)
+                .component(Health.class, Health::new)
+                .component(Position.class, Position::new)
+                .archetype("unit", Health.class, Position.class)
+                .archetype("prop", Position.class)
+                .transmutation("unit", "prop");
+        Engine engine = builder.build();
+        EntityManager entityManager = builder.getRegistrations().get(EntityManager.class);
+        Archetype unit = builder.getRegistrations().get(Archetype.class, "unit");
+        Archetype prop = builder.getRegistrations().get(Archetype.class, "prop");
+
+        int unit1 = entityManager.create(unit);
+        int unit2 = entityManager.create(unit);
+        engine.process();
+        entityManager.transmute(unit1, prop);
+        int unit3 = entityManager.create(unit);
+
+        Query query = entityManager.query(Aspect.all().with(Health.class));
+        Assertions.assertEquals(Set.of(unit1, unit2), toSet(query.iterator()));
+        engine.process();
+        Assertions.assertEquals(Set.of(unit2, unit3), toSet(query.iterator()));
+    }
+
+    @Test
+    void notConfiguredTest() {
+        Assertions.assertThrows(IllegalStateException.class, () -> new EntityManager(10).query(Aspect.all()));
+    }
+
+    private Set<Integer> toSet(IntIterator iterator) {
+        Set<Integer> set = new HashSet<>();
+        while (iterator.hasNext()) {
+            set.add(iterator.next());
+        }
+        return set;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import sharkhendrix.sharkecs.annotation.With;
+import sharkhendrix.sharkecs.builder.EngineBuilder;
+import sharkhendrix.sharkecs.builder.EngineConfigurationException;
+import sharkhendrix.sharkecs.system.IteratingSystem;
+
+class SoAComponentMapperTest {
+
+    static class Position {
+    }
+
+    static class Health {
+    }
+
+    @With({Position.class, Health.class})
+    public static class MoveSystem extends IteratingSystem implements Initializable {
+
+        private SoAComponentMapper<Position> positionMapper;
+        private IntComponentMapper<Health> healthMapper;
+        private SoAComponentMapper.FloatField x;
+
+        @Override
+        public void initialize() {
+            x = positionMapper.floatField("x");
+        }
+
+        @Override
+        protected void process(int entity) {
+            x.set(entity, x.get(entity) + 1);
+            healthMapper.setInt(entity, healthMapper.getInt(entity) - 1);
+        }
+
+        public void setPositionMapper(SoAComponentMapper<Position> positionMapper) {
+            this.positionMapper = positionMapper;
+        }
+
+        public void setHealthMapper(IntComponentMapper<Health> healthMapper) {
+            this.healthMapper = healthMapper;
+        }
+    }
+
+    @Test
+    void test() {
+        SoAComponentMapper<Object> mapper = new SoAComponentMapper<>(2)
+                .withFloat("x")
+                .withInt("count");
+        SoAComponentMapper.FloatField x = mapper.floatField("x");
+        SoAComponentMapper.IntField count = mapper.intField("count");
+
+        mapper.create(1);
+        x.set(1, 2f);
+        count.set(1, 3);
+        mapper.create(5);
+        x.set(5, 4f);
+
+        Assertions.assertEquals(2f, x.get(1));
+        Assertions.assertEquals(3, count.getData()[1]);
+        Assertions.assertEquals(4f, x.get(5));
+        Assertions.assertTrue(mapper.has(5));
+
+        mapper.remove(1);
+        mapper.create(1);
+        Assertions.assertEquals(0f, x.get(1));
+        Assertions.assertEquals(0, count.get(1));
+
+        Assertions.assertThrows(EngineConfigurationException.class, () -> mapper.withInt("x"));
+        Assertions.assertThrows(EngineConfigurationException.class, () -> mapper.intField("x"));
+        Assertions.assertThrows(EngineConfigurationException.class, () -> mapper.floatField("y"));
+    }
+
+    @Test
+    void injectionTest() {
+        MoveSystem system = new MoveSystem();
+        EngineBuilder builder = EngineBuilder.withDefaults(10)
+                .defaultComponentCreationPolicy(Archetype.ComponentCreationPolicy.AUTOMATIC)
+                .component(Position.class, new SoAComponentMapper<Position>(10).withFloat("x").withFloat("y"))
+                .component(Health.class, new IntComponentMapper<>(10))
+                .archetype("a", Position.class, Health.class)
+                .with(system);
+        Engine engine = builder.build();
+        EntityManager entityManager = builder.getRegistrations().get(EntityManager.class);
+        int entity = entityManager.create(builder.getRegistrations().get(Archetype.class, "a"));
+        IntComponentMapper<?> healthMapper = builder.getRegistrations().get(IntComponentMapper.class, Health.class);
+        healthMapper.setInt(entity, 10);
+
+        engine.process();
+        engine.process();
+
+        Assertions.assertEquals(2f, system.x.get(entity));
+        Assertions.assertEquals(8, healthMapper.getInt(entity));
+    }
+}
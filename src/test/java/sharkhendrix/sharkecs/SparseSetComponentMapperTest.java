@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import sharkhendrix.sharkecs.builder.EngineConfigurationException;
+
+class SparseSetComponentMapperTest {
+
+    @Test
+    void test() {
+        SparseSetComponentMapper<Object> mapper = new SparseSetComponentMapper<>(4, 2, Object::new);
+        Object c2 = mapper.create(2);
+        Object c9 = mapper.create(9);
+        Object c1000 = mapper.create(1000);
+
+        Assertions.assertSame(c2, mapper.get(2));
+        Assertions.assertSame(c9, mapper.getIfExists(9));
+        Assertions.assertSame(c1000, mapper.get(1000));
+        Assertions.assertTrue(mapper.has(9));
+        Assertions.assertFalse(mapper.has(10));
+        Assertions.assertFalse(mapper.has(5000));
+        Assertions.assertNull(mapper.getIfExists(5));
+        Assertions.assertNull(mapper.get(5));
+        Assertions.assertNull(mapper.get(500));
+        Assertions.assertNull(mapper.get(5000));
+        Assertions.assertEquals(3, mapper.size());
+
+        mapper.remove(2);
+        Assertions.assertFalse(mapper.has(2));
+        Assertions.assertNull(mapper.getIfExists(2));
+        Assertions.assertSame(c1000, mapper.get(1000));
+        Assertions.assertSame(c9, mapper.get(9));
+        Assertions.assertEquals(2, mapper.size());
+        Assertions.assertEquals(1000, mapper.entityAt(0));
+        Assertions.assertSame(c1000, mapper.componentAt(0));
+        Assertions.assertEquals(9, mapper.entityAt(1));
+
+        // Removing a missing component is ignored
+        mapper.remove(2);
+        mapper.remove(4000);
+        Assertions.assertEquals(2, mapper.size());
+
+        Object replacement = new Object();
+        mapper.put(9, replacement);
+        Assertions.assertSame(replacement, mapper.get(9));
+        Assertions.assertEquals(2, mapper.size());
+
+        mapper.remove(9);
+        mapper.remove(1000);
+        Assertions.assertEquals(0, mapper.size());
+    }
+
+    @Test
+    void moveTest() {
+        SparseSetComponentMapper<Object> mapper = new SparseSetComponentMapper<>(4, 2, Object::new);
+        Object c1 = mapper.create(1);
+        Object c1000 = mapper.create(1000);
+
+        mapper.move(1000, 0);
+        mapper.move(7, 2);
+        mapper.shrink(4);
+
+        Assertions.assertSame(c1000, mapper.get(0));
+        Assertions.assertSame(c1, mapper.get(1));
+        Assertions.assertFalse(mapper.has(1000));
+        Assertions.assertFalse(mapper.has(2));
+        Assertions.assertEquals(2, mapper.size());
+        Assertions.assertEquals(0, mapper.entityAt(1));
+
+        mapper.create(1000);
+        Assertions.assertTrue(mapper.has(1000));
+    }
+
+    @Test
+    void invalidPageSizeTest() {
+        Assertions.assertThrows(EngineConfigurationException.class,
+                () -> new SparseSetComponentMapper<>(3, 2, Object::new));
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import sharkhendrix.sharkecs.annotation.With;
+import sharkhendrix.sharkecs.builder.EngineBuilder;
+import sharkhendrix.sharkecs.system.IteratingSystem;
+
+class TagComponentMapperTest {
+
+    static class A {
+    }
+
+    static class Bullet {
+    }
+
+    @With(Bullet.class)
+    static class BulletSystem extends IteratingSystem {
+
+        int processCount;
+
+        @Override
+        protected void process(int entity) {
+            processCount++;
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void test() {
+        BulletSystem system = new BulletSystem();
+        EngineBuilder builder = EngineBuilder.withDefaults(10)
+                .defaultComponentCreationPolicy(Archetype.ComponentCreationPolicy.AUTOMATIC)
+                .component(A.class, A::new)
+                .tag(Bullet.class)
+                .archetype("a", A.class)
+                .archetype("bullet", A.class, Bullet.class)
+                .transmutation("a", "bullet")
+                .with(system);
+        Engine engine = builder.build();
+        EntityManager entityManager = builder.getRegistrations().get(EntityManager.class);
+        Archetype a = builder.getRegistrations().get(Archetype.class, "a");
+        Archetype bullet = builder.getRegistrations().get(Archetype.class, "bullet");
+        ComponentMapper<Bullet> bulletMapper = builder.getRegistrations().get(ComponentMapper.class, Bullet.class);
+
+        Assertions.assertTrue(bulletMapper instanceof TagComponentMapper);
+        Assertions.assertEquals(1, bullet.getComponentMappers().length);
+        Assertions.assertEquals(1, bullet.getAutoCreateComponentMappers().length);
+        Assertions.assertEquals(0, a.getTransmutations()[bullet.getId()].getAddMappers().length);
+
+        int plain = entityManager.create(a);
+        int tagged = entityManager.create(bullet);
+        engine.process();
+        Assertions.assertFalse(bulletMapper.has(plain));
+        Assertions.assertTrue(bulletMapper.has(tagged));
+        Assertions.assertNull(bulletMapper.get(tagged));
+
+        entityManager.addComponent(plain, Bullet.class);
+        Assertions.assertTrue(bulletMapper.has(plain));
+        engine.process();
+        Assertions.assertEquals(3, system.processCount);
+    }
+}
@@ -313,4 +313,28 @@ class EngineBuilderTest {
 
         Assertions.assertArrayEquals(new Object[]{o1, o2, o3}, list.toArray());
     }
+
+    @Test
+    void pagedStorageTest() {
+        FakeSystemA system = new FakeSystemA();
+        EngineBuilder builder = EngineBuilder.withPagedDefaults(4, 4)
+                .defaultComponentCreationPolicy(Archetype.ComponentCreationPolicy.AUTOMATIC)
+                .component(A.class, A::new)
+                .archetype("a", A.class)
+                .with(system);
+        Engine engine = builder.build();
+        EntityManager entityManager = builder.getRegistrations().get(EntityManager.class);
+        Archetype archetype = builder.getRegistrations().get(Archetype.class, "a");
+        for (int i = 0; i < 100; i++) {
+            entityManager.create(archetype);
+        }
+        engine.process();
+        entityManager.remove(50);
+        engine.process();
+
+        Assertions.assertEquals(199, system.entityLog.size());
+        Assertions.assertNotNull(system.mapperA.get(99));
+        Assertions.assertNull(system.mapperA.getIfExists(50));
+        Assertions.assertThrows(EngineConfigurationException.class, () -> new EngineBuilder().pagedStorage(3));
+    }
 }
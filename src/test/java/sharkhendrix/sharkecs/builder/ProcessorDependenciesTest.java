@@ -0,0 +1,259 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.builder;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import sharkhendrix.sharkecs.ArrayComponentMapper;
+import sharkhendrix.sharkecs.ChangeTracker;
+import sharkhendrix.sharkecs.EntityManager;
+import sharkhendrix.sharkecs.Processor;
+import sharkhendrix.sharkecs.annotation.Reads;
+import sharkhendrix.sharkecs.annotation.Writes;
+import sharkhendrix.sharkecs.builder.configurator.Prioritizer;
+import sharkhendrix.sharkecs.subscription.ChangedSubscription;
+import sharkhendrix.sharkecs.subscription.TrackingSubscription;
+
+import java.util.Map;
+
+class ProcessorDependenciesTest {
+
+    static class A {
+    }
+
+    static class B {
+    }
+
+    @Reads(A.class)
+    static class ReadA implements Processor {
+        @Override
+        public void process() {
+        }
+    }
+
+    @Reads(A.class)
+    static class ReadA2 implements Processor {
+        @Override
+        public void process() {
+        }
+    }
+
+    @Writes(A.class)
+    static class WriteA implements Processor {
+        @Override
+        public void process() {
+        }
+    }
+
+    @Reads(A.class)
+    @Writes(B.class)
+    static class ReadAWriteB implements Processor {
+        @Override
+        public void process() {
+        }
+    }
+
+    static class Undeclared implements Processor {
+        @Override
+        public void process() {
+        }
+    }
+
+    @Test
+    void accessConflictTest() {
+        Processor[] processors = {new ReadA(), new ReadA2(), new ReadAWriteB(), new WriteA(), new Undeclared()};
+
+        int[][] dependencies = ProcessorDependencies.compute(processors, null);
+
+        Assertions.assertArrayEquals(new int[0], dependencies[0]);
+        Assertions.assertArrayEquals(new int[0], dependencies[1]);
+        Assertions.assertArrayEquals(new int[0], dependencies[2]);
+        Assertions.assertArrayEquals(new int[]{0, 1, 2}, dependencies[3]);
+        Assertions.assertArrayEquals(new int[]{0, 1, 2, 3}, dependencies[4]);
+    }
+
+    @Reads(B.class)
+    @Writes(EntityManager.class)
+    static class WriteEntityManager implements Processor {
+        @Override
+        public void process() {
+        }
+    }
+
+    @Test
+    void entityManagerWriteTest() {
+        Processor[] processors = {new ReadA(), new WriteEntityManager(), new ReadA2()};
+
+        int[][] dependencies = ProcessorDependencies.compute(processors, null);
+
+        Assertions.assertArrayEquals(new int[0], dependencies[0]);
+        Assertions.assertArrayEquals(new int[]{0}, dependencies[1]);
+        Assertions.assertArrayEquals(new int[]{1}, dependencies[2]);
+    }
+
+    @Test
+    void priorityTest() {
+        ReadA readA = new ReadA();
+        ReadA2 readA2 = new ReadA2();
+        Object marker = new Object();
+        EngineBuilder builder = new EngineBuilder()
+                .with(new Prioritizer())
+                .with(readA)
+                .with(readA2)
+                .priorityChain(readA, marker, readA2);
+        builder.build();
+
+        int[][] dependencies = ProcessorDependencies.compute(new Processor[]{readA, readA2},
+                builder.getRegistrations().get(Prioritizer.class));
+
+        Assertions.assertArrayEquals(new int[0], dependencies[0]);
+        Assertions.assertArrayEquals(new int[]{0}, dependencies[1]);
+    }
+
+    static class Time {
+    }
+
+    static class Config {
+    }
+
+    @Reads({Time.class, Config.class})
+    static class ReadTimeAndConfig implements Processor {
+        @Override
+        public void process() {
+        }
+    }
+
+    @Writes(Time.class)
+    static class WriteTime implements Processor {
+        @Override
+        public void process() {
+        }
+    }
+
+    @Reads(A.class)
+    static class UndeclaredTimeField implements Processor {
+        Time time;
+
+        @Override
+        public void process() {
+        }
+    }
+
+    @Reads(Config.class)
+    static class ReadConfigField implements Processor {
+        Config config;
+
+        @Override
+        public void process() {
+        }
+    }
+
+    @Writes(Config.class)
+    static class WriteConfig implements Processor {
+        @Override
+        public void process() {
+        }
+    }
+
+    @Test
+    void resourceTest() {
+        ResourceRegistry resources = new ResourceRegistry();
+        resources.register(Time.class, false);
+        resources.register(Config.class, true);
+        Processor[] processors = {new ReadTimeAndConfig(), new ReadConfigField(), new WriteTime(),
+                new UndeclaredTimeField()};
+
+        int[][] dependencies = ProcessorDependencies.compute(processors, null, resources);
+
+        Assertions.assertArrayEquals(new int[0], dependencies[0]);
+        Assertions.assertArrayEquals(new int[0], dependencies[1]);
+        Assertions.assertArrayEquals(new int[]{0}, dependencies[2]);
+        Assertions.assertArrayEquals(new int[]{0, 2}, dependencies[3]);
+
+        Assertions.assertThrows(EngineConfigurationException.class,
+                () -> ProcessorDependencies.compute(new Processor[]{new WriteConfig()}, null, resources));
+        Assertions.assertThrows(EngineConfigurationException.class, () -> resources.register(Config.class, false));
+    }
+
+    interface Clock {
+    }
+
+    static class GameClock implements Clock {
+    }
+
+    @Reads(A.class)
+    static class UndeclaredClockField implements Processor {
+        Clock clock;
+
+        @Override
+        public void process() {
+        }
+    }
+
+    @Reads(Clock.class)
+    static class ReadClockField implements Processor {
+        Clock clock;
+
+        @Override
+        public void process() {
+        }
+    }
+
+    @Writes(GameClock.class)
+    static class WriteGameClock implements Processor {
+        @Override
+        public void process() {
+        }
+    }
+
+    @Test
+    void resourceSupertypeTest() {
+        ResourceRegistry resources = new ResourceRegistry();
+        resources.register(GameClock.class, false);
+        Processor[] processors = {new ReadClockField(), new UndeclaredClockField(), new WriteGameClock()};
+
+        int[][] dependencies = ProcessorDependencies.compute(processors, null, resources);
+
+        Assertions.assertArrayEquals(new int[0], dependencies[0]);
+        Assertions.assertArrayEquals(new int[]{0}, dependencies[1]);
+        Assertions.assertArrayEquals(new int[]{0, 1}, dependencies[2]);
+    }
+
+    @Writes(B.class)
+    static class WriteB implements Processor {
+        @Override
+        public void process() {
+        }
+    }
+
+    @Test
+    void changeTrackingTest() {
+        ChangeTracker<A> trackerA = new ChangeTracker<>(new ArrayComponentMapper<>(10, A::new));
+        ChangeTracker<B> trackerB = new ChangeTracker<>(new ArrayComponentMapper<>(10, B::new));
+        Processor[] processors = {new WriteA(), new WriteB()};
+        Map<Class<?>, ChangeTracker<?>> trackers = Map.of(A.class, trackerA, B.class, trackerB);
+
+        Assertions.assertArrayEquals(new int[0], ProcessorDependencies.compute(processors, null, null, trackers::get)[1]);
+
+        ChangedSubscription subscription = new ChangedSubscription(new TrackingSubscription(10), 10);
+        trackerA.subscribe(subscription);
+        trackerB.subscribe(subscription);
+
+        Assertions.assertArrayEquals(new int[]{0},
+                ProcessorDependencies.compute(processors, null, null, trackers::get)[1]);
+    }
+}
@@ -82,6 +82,7 @@ class ArchetypeConfiguratorTest {
 
         Assertions.assertThrows(EngineConfigurationException.class, () -> configurator.of(Short.class));
 
+        configurator.beginConfiguration(builder);
         configurator.configure(a, builder);
         configurator.endConfiguration(builder);
 
@@ -27,8 +27,8 @@ import sharkhendrix.sharkecs.subscription.SortedTrackingSubscription;
 import sharkhendrix.sharkecs.subscription.SubscriberAdapter;
 import sharkhendrix.sharkecs.subscription.Subscription;
 import sharkhendrix.sharkecs.subscription.TrackingSubscription;
+import sharkhendrix.sharkecs.util.BufferedSortableIntList;
 import sharkhendrix.sharkecs.util.IntComparator;
-import sharkhendrix.sharkecs.util.SortableIntArrayList;
 import sharkhendrix.sharkecs.util.SortableIntList;
 
 import java.util.ArrayList;
@@ -136,11 +136,11 @@ class SubscriberConfiguratorTest {
         assertSame(SortedTrackingSubscription.class, s4.getClass());
         assertTrue(s5 == s3 || s5 == s4);
         SortableIntList l3 = ((SortedTrackingSubscription) s3).entities();
-        assertSame(SortableIntArrayList.class, l3.getClass());
-        assertSame(sort1, ((SortableIntArrayList) l3).getComparator());
+        assertSame(BufferedSortableIntList.class, l3.getClass());
+        assertSame(sort1, ((BufferedSortableIntList) l3).getComparator());
         SortableIntList l4 = ((SortedTrackingSubscription) s4).entities();
-        assertSame(SortableIntArrayList.class, l4.getClass());
-        assertSame(sort2, ((SortableIntArrayList) l4).getComparator());
+        assertSame(BufferedSortableIntList.class, l4.getClass());
+        assertSame(sort2, ((BufferedSortableIntList) l4).getComparator());
 
         log.clear();
         s1.add(0);
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.metrics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import sharkhendrix.sharkecs.Engine;
+import sharkhendrix.sharkecs.EntityManager;
+import sharkhendrix.sharkecs.Processor;
+import sharkhendrix.sharkecs.annotation.RunEvery;
+import sharkhendrix.sharkecs.builder.EngineBuilder;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+class InstrumentedEngineTest {
+
+    static class AllocatingProcessor implements Processor {
+
+        Object garbage;
+
+        @Override
+        public void process() {
+            garbage = new long[1024];
+        }
+    }
+
+    @Test
+    void test() {
+        AllocatingProcessor processor = new AllocatingProcessor();
+        AtomicInteger frameCount = new AtomicInteger();
+        EngineBuilder builder = EngineBuilder.withDefaults()
+                .with(processor)
+                .instrumentation(10, e -> frameCount.incrementAndGet());
+        Engine engine = builder.build();
+
+        Assertions.assertTrue(engine instanceof InstrumentedEngine);
+        InstrumentedEngine instrumentedEngine = (InstrumentedEngine) engine;
+        for (int i = 0; i < 3; i++) {
+            engine.process();
+        }
+
+        Assertions.assertEquals(3, frameCount.get());
+        Assertions.assertEquals(3, instrumentedEngine.getFrameTimeNanos().getCount());
+        Assertions.assertEquals(2, instrumentedEngine.getMetrics().length);
+        ProcessorMetrics metrics = instrumentedEngine.getMetrics(processor);
+        Assertions.assertEquals(3, metrics.getInvocationCount());
+        Assertions.assertTrue(metrics.getTimeNanos().getMax() >= 0);
+        if (metrics.getAllocatedBytes().size() > 0) {
+            Assertions.assertTrue(metrics.getAllocatedBytes().getMin() >= 1024 * Long.BYTES);
+        }
+        Assertions.assertNotNull(instrumentedEngine.getMetrics(builder.getRegistrations().get(EntityManager.class)));
+    }
+
+    @RunEvery(frames = 2)
+    static class EveryTwoFrames extends AllocatingProcessor {
+    }
+
+    @Test
+    void intervalTest() {
+        EveryTwoFrames processor = new EveryTwoFrames();
+        EngineBuilder builder = EngineBuilder.withDefaults()
+                .with(processor)
+                .instrumentation(10, null);
+        InstrumentedEngine engine = (InstrumentedEngine) builder.build();
+        for (int i = 0; i < 4; i++) {
+            engine.process();
+        }
+
+        ProcessorMetrics metrics = engine.getMetrics(processor);
+        Assertions.assertEquals(2, metrics.getInvocationCount());
+    }
+
+    @Test
+    void disabledTest() {
+        Engine engine = EngineBuilder.withDefaults().with(new AllocatingProcessor()).build();
+        Assertions.assertFalse(engine instanceof InstrumentedEngine);
+        Assertions.assertFalse(engine.getProcessors()[0] instanceof InstrumentedProcessor);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.subscription;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import sharkhendrix.sharkecs.Archetype;
+import sharkhendrix.sharkecs.ChangeTracker;
+import sharkhendrix.sharkecs.Engine;
+import sharkhendrix.sharkecs.EntityManager;
+import sharkhendrix.sharkecs.annotation.Changed;
+import sharkhendrix.sharkecs.annotation.SortEntities;
+import sharkhendrix.sharkecs.annotation.With;
+import sharkhendrix.sharkecs.builder.EngineBuilder;
+import sharkhendrix.sharkecs.builder.EngineConfigurationException;
+import sharkhendrix.sharkecs.system.IteratingSystem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+class ChangedSubscriptionTest {
+
+    static class Physics {
+        float x;
+    }
+
+    static class Sprite {
+    }
+
+    @With(Physics.class)
+    @Changed(Physics.class)
+    static class SyncSystem extends IteratingSystem {
+
+        List<Integer> processed = new ArrayList<>();
+
+        @Override
+        protected void process(int entity) {
+            processed.add(entity);
+        }
+    }
+
+    @With(Physics.class)
+    @Changed(Physics.class)
+    @SortEntities("sort")
+    static class SortedChangedSystem extends IteratingSystem {
+
+        @Override
+        protected void process(int entity) {
+        }
+    }
+
+    @Test
+    void test() {
+        SyncSystem system = new SyncSystem();
+        EngineBuilder builder = EngineBuilder.withDefaults(10)
+                .defaultComponentCreationPolicy(Archetype.ComponentCreationPolicy.AUTOMATIC)
+                .component(Physics.class, Physics::new)
+                .component(Sprite.class, Sprite::new)
+                .changeTracking(Physics.class)
+                .archetype("body", Physics.class)
+                .archetype("sprite", Sprite.class)
+                .with(system);
+        Engine engine = builder.build();
+        EntityManager entityManager = builder.getRegistrations().get(EntityManager.class);
+        @SuppressWarnings("unchecked")
+        ChangeTracker<Physics> tracker = builder.getRegistrations().get(ChangeTracker.class, Physics.class);
+        Archetype body = builder.getRegistrations().get(Archetype.class, "body");
+        Archetype sprite = builder.getRegistrations().get(Archetype.class, "sprite");
+
+        int e0 = entityManager.create(body);
+        int e1 = entityManager.create(body);
+        entityManager.create(sprite);
+        engine.process();
+        Assertions.assertEquals(Arrays.asList(e0, e1), system.processed);
+
+        system.processed.clear();
+        engine.process();
+        Assertions.assertTrue(system.processed.isEmpty());
+
+        tracker.write(e1).x = 1;
+        tracker.markChanged(e1);
+        engine.process();
+        Assertions.assertEquals(Arrays.asList(e1), system.processed);
+
+        system.processed.clear();
+        tracker.markChanged(e0);
+        entityManager.remove(e0);
+        engine.process();
+        Assertions.assertTrue(system.processed.isEmpty());
+    }
+
+    @Test
+    void configurationTest() {
+        EngineBuilder builder = EngineBuilder.withDefaults(10)
+                .component(Physics.class, Physics::new)
+                .with(new SyncSystem());
+        Assertions.assertThrows(EngineConfigurationException.class, builder::build);
+        Assertions.assertThrows(EngineConfigurationException.class,
+                () -> EngineBuilder.withDefaults(10).changeTracking(Physics.class));
+        EngineBuilder sortedBuilder = EngineBuilder.withDefaults(10)
+                .component(Physics.class, Physics::new)
+                .changeTracking(Physics.class)
+                .entitySort("sort", Integer::compare)
+                .with(new SortedChangedSystem());
+        Assertions.assertThrows(EngineConfigurationException.class, sortedBuilder::build);
+    }
+}
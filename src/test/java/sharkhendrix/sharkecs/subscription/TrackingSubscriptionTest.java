@@ -18,8 +18,10 @@ package sharkhendrix.sharkecs.subscription;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import sharkhendrix.sharkecs.Transmutation;
 import sharkhendrix.sharkecs.testutil.SubscriptionLogger;
 import sharkhendrix.sharkecs.testutil.TestUtil;
+import sharkhendrix.sharkecs.util.IntBag;
 
 class TrackingSubscriptionTest {
 
@@ -48,4 +50,55 @@ class TrackingSubscriptionTest {
         listener.assertAddLog(3, 5, 7, 11, 12);
         listener.assertRemoveLog(5, 7);
     }
+
+    @Test
+    void bulkTest() {
+        SubscriptionLogger listener = new SubscriptionLogger();
+        int[] calls = new int[3];
+        Subscription subscription = new TrackingSubscription(2);
+        subscription.addListener(listener);
+        subscription.addListener(new SubscriptionListener() {
+            @Override
+            public void added(int entity) {
+                calls[2]++;
+            }
+
+            @Override
+            public void removed(int entity) {
+                Assertions.fail();
+            }
+
+            @Override
+            public void addedAll(IntBag entities) {
+                calls[0]++;
+            }
+
+            @Override
+            public void removedAll(IntBag entities) {
+                calls[1]++;
+            }
+
+            @Override
+            public void changed(int entity, Transmutation transmutation) {
+            }
+        });
+
+        subscription.addAll(bag(3, 5, 7, 9));
+        subscription.removeAll(bag(5, 9));
+        subscription.add(4);
+        subscription.removeAll(bag(3));
+
+        TestUtil.assertIterator(subscription.iterator(), 4, 7);
+        listener.assertAddLog(3, 5, 7, 9, 4);
+        listener.assertRemoveLog(5, 9, 3);
+        Assertions.assertArrayEquals(new int[]{1, 2, 1}, calls);
+    }
+
+    private IntBag bag(int... values) {
+        IntBag bag = new IntBag(values.length);
+        for (int value : values) {
+            bag.add(value);
+        }
+        return bag;
+    }
 }
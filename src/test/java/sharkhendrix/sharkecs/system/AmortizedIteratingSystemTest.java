@@ -0,0 +1,78 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.system;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import sharkhendrix.sharkecs.Archetype;
+import sharkhendrix.sharkecs.Engine;
+import sharkhendrix.sharkecs.EntityManager;
+import sharkhendrix.sharkecs.annotation.With;
+import sharkhendrix.sharkecs.builder.EngineBuilder;
+
+class AmortizedIteratingSystemTest {
+
+    static class A {
+    }
+
+    @With(A.class)
+    static class CountingSystem extends AmortizedIteratingSystem {
+
+        int[] processCounts = new int[100];
+        int processedInRun;
+
+        CountingSystem() {
+            super(4);
+        }
+
+        @Override
+        protected void beginProcess() {
+            processedInRun = 0;
+        }
+
+        @Override
+        protected void process(int entity) {
+            processCounts[entity]++;
+            processedInRun++;
+        }
+    }
+
+    @Test
+    void test() {
+        CountingSystem system = new CountingSystem();
+        EngineBuilder builder = EngineBuilder.withDefaults(100)
+                .component(A.class, A::new)
+                .archetype("a", A.class)
+                .with(system);
+        Engine engine = builder.build();
+        EntityManager entityManager = builder.getRegistrations().get(EntityManager.class);
+        Archetype archetype = builder.getRegistrations().get(Archetype.class, "a");
+        for (int i = 0; i < 10; i++) {
+            entityManager.create(archetype);
+        }
+
+        engine.process();
+        Assertions.assertEquals(2, system.processedInRun);
+        for (int i = 0; i < 7; i++) {
+            engine.process();
+            Assertions.assertTrue(system.processedInRun == 2 || system.processedInRun == 3);
+        }
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals(2, system.processCounts[i]);
+        }
+    }
+}
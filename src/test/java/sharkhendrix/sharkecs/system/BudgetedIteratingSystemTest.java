@@ -0,0 +1,102 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.system;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import sharkhendrix.sharkecs.Archetype;
+import sharkhendrix.sharkecs.Engine;
+import sharkhendrix.sharkecs.EntityManager;
+import sharkhendrix.sharkecs.annotation.With;
+import sharkhendrix.sharkecs.builder.EngineBuilder;
+
+class BudgetedIteratingSystemTest {
+
+    static class A {
+    }
+
+    @With(A.class)
+    static class CountingSystem extends BudgetedIteratingSystem {
+
+        int[] processCounts = new int[100];
+
+        CountingSystem() {
+            // Exhausted by any entity: one entity per run
+            super(1);
+        }
+
+        @Override
+        protected void process(int entity) {
+            processCounts[entity]++;
+        }
+    }
+
+    private CountingSystem system;
+    private Engine engine;
+    private EntityManager entityManager;
+
+    private void build(int entityCount) {
+        system = new CountingSystem();
+        EngineBuilder builder = EngineBuilder.withDefaults(100)
+                .component(A.class, A::new)
+                .archetype("a", A.class)
+                .with(system);
+        engine = builder.build();
+        entityManager = builder.getRegistrations().get(EntityManager.class);
+        Archetype archetype = builder.getRegistrations().get(Archetype.class, "a");
+        for (int i = 0; i < entityCount; i++) {
+            entityManager.create(archetype);
+        }
+    }
+
+    @Test
+    void resumeTest() {
+        build(10);
+
+        for (int i = 0; i < 9; i++) {
+            engine.process();
+            Assertions.assertEquals(1, system.getLastProcessedCount());
+            Assertions.assertEquals(9 - i, system.getRemainingCount());
+        }
+        Assertions.assertEquals(0, system.getCycleCount());
+        engine.process();
+        Assertions.assertEquals(1, system.getCycleCount());
+        Assertions.assertEquals(10, system.getLastCycleFrameCount());
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals(1, system.processCounts[i]);
+        }
+    }
+
+    @Test
+    void swapRemoveTest() {
+        build(10);
+
+        // Processes 9, 8, 7
+        for (int i = 0; i < 3; i++) {
+            engine.process();
+        }
+        // 9 is swapped into index 2, 8 into index 4
+        entityManager.remove(2);
+        entityManager.remove(4);
+        while (system.getCycleCount() == 0) {
+            engine.process();
+        }
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals(i == 2 || i == 4 ? 0 : 1, system.processCounts[i]);
+        }
+    }
+}
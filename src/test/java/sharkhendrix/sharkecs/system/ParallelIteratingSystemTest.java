@@ -0,0 +1,90 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.system;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import sharkhendrix.sharkecs.Archetype;
+import sharkhendrix.sharkecs.Engine;
+import sharkhendrix.sharkecs.EntityManager;
+import sharkhendrix.sharkecs.annotation.With;
+import sharkhendrix.sharkecs.builder.EngineBuilder;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+class ParallelIteratingSystemTest {
+
+    static class A {
+    }
+
+    @With(A.class)
+    static class CountingSystem extends ParallelIteratingSystem {
+
+        AtomicIntegerArray processCounts = new AtomicIntegerArray(10_000);
+        AtomicInteger rangeCount = new AtomicInteger();
+        AtomicInteger rangeEntityCount = new AtomicInteger();
+        int endProcessCount;
+
+        CountingSystem(ForkJoinPool pool) {
+            super(pool, 100);
+        }
+
+        @Override
+        protected void beginRange(int from, int to) {
+            rangeCount.incrementAndGet();
+            rangeEntityCount.addAndGet(to - from);
+        }
+
+        @Override
+        protected void process(int entity) {
+            processCounts.incrementAndGet(entity);
+        }
+
+        @Override
+        protected void endProcess() {
+            endProcessCount++;
+        }
+    }
+
+    @Test
+    void test() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        CountingSystem system = new CountingSystem(pool);
+        EngineBuilder builder = EngineBuilder.withDefaults()
+                .component(A.class, A::new)
+                .archetype("a", A.class)
+                .with(system);
+        Engine engine = builder.build();
+        EntityManager entityManager = builder.getRegistrations().get(EntityManager.class);
+        Archetype archetype = builder.getRegistrations().get(Archetype.class, "a");
+
+        for (int i = 0; i < 1050; i++) {
+            entityManager.create(archetype);
+        }
+        engine.process();
+
+        for (int i = 0; i < 1050; i++) {
+            Assertions.assertEquals(1, system.processCounts.get(i));
+        }
+        Assertions.assertEquals(11, system.rangeCount.get());
+        Assertions.assertEquals(1050, system.rangeEntityCount.get());
+        Assertions.assertEquals(1, system.endProcessCount);
+        pool.shutdown();
+    }
+}
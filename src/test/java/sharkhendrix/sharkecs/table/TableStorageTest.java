@@ -0,0 +1,153 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.table;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import sharkhendrix.sharkecs.Archetype;
+import sharkhendrix.sharkecs.ComponentMapper;
+import sharkhendrix.sharkecs.EntityManager;
+import sharkhendrix.sharkecs.Transmutation;
+import sharkhendrix.sharkecs.annotation.With;
+import sharkhendrix.sharkecs.builder.EngineBuilder;
+import sharkhendrix.sharkecs.builder.RegistrationMap;
+import sharkhendrix.sharkecs.subscription.SubscriberAdapter;
+import sharkhendrix.sharkecs.subscription.SubscriptionListener;
+
+import java.util.HashSet;
+import java.util.Set;
+
+class TableStorageTest {
+
+    static class A {
+        int value;
+    }
+
+    static class B {
+    }
+
+    @With(A.class)
+    private static class SubscriberA extends SubscriberAdapter {
+
+    }
+
+    @With(B.class)
+    private static class SubscriberB extends SubscriberAdapter {
+
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void test() {
+        SubscriberA subscriberA = new SubscriberA();
+        SubscriberB subscriberB = new SubscriberB();
+        EngineBuilder builder = EngineBuilder.withDefaults(10)
+                .defaultComponentCreationPolicy(Archetype.ComponentCreationPolicy.AUTOMATIC)
+                .tableStorage(2)
+                .tableComponent(A.class, A::new)
+                .tableComponent(B.class, B::new)
+                .archetype("a", A.class)
+                .archetype("ab", A.class, B.class)
+                .with(subscriberA)
+                .with(subscriberB)
+                .transmutation("a", "ab");
+        builder.build();
+        RegistrationMap registrations = builder.getRegistrations();
+        EntityManager manager = registrations.get(EntityManager.class);
+        TableStorage storage = registrations.get(TableStorage.class);
+        Archetype archetypeA = registrations.get(Archetype.class, "a");
+        Archetype archetypeAB = registrations.get(Archetype.class, "ab");
+        ComponentMapper<A> mapperA = registrations.get(ComponentMapper.class, A.class);
+        ComponentMapper<B> mapperB = registrations.get(ComponentMapper.class, B.class);
+        Assertions.assertSame(storage, manager.getEntityStorage());
+
+        for (int i = 0; i < 5; i++) {
+            manager.create(archetypeA);
+            mapperA.get(i).value = i;
+        }
+        manager.process();
+
+        ArchetypeTable tableA = storage.getTable(archetypeA);
+        Assertions.assertEquals(5, tableA.getSize());
+        Assertions.assertEquals(3, tableA.getChunkCount());
+        Assertions.assertEquals(1, tableA.getRowCount(2));
+        Assertions.assertEquals(4, ((A) tableA.getColumnChunk((TableComponentMapper<?>) mapperA, 2)[0]).value);
+
+        // Transmutation moves rows, lost components remain readable until the end of the cycle
+
+        subscriberB.getSubscription().addListener(new SubscriptionListener() {
+            @Override
+            public void added(int entity) {
+                Assertions.assertNotNull(mapperB.get(entity));
+            }
+
+            @Override
+            public void removed(int entity) {
+                Assertions.assertNotNull(mapperA.get(entity));
+            }
+
+            @Override
+            public void changed(int entity, Transmutation transmutation) {
+            }
+        });
+        manager.transmute(1, archetypeAB);
+        manager.transmute(3, archetypeAB);
+        Assertions.assertEquals(ArchetypeTable.DEAD_ROW, tableA.getEntities(0)[1]);
+        manager.remove(0);
+        manager.process();
+
+        Assertions.assertEquals(2, tableA.getSize());
+        ArchetypeTable tableAB = storage.getTable(archetypeAB);
+        Assertions.assertEquals(2, tableAB.getSize());
+        for (int i = 1; i < 5; i++) {
+            Assertions.assertEquals(i, mapperA.get(i).value);
+        }
+        Assertions.assertNull(mapperA.getIfExists(0));
+        Assertions.assertNull(mapperB.getIfExists(2));
+        Assertions.assertNotNull(mapperB.get(3));
+
+        Set<Integer> iterated = new HashSet<>();
+        storage.forEachTable(subscriberA.getSubscription(), table -> {
+            for (int chunk = 0; chunk < table.getChunkCount(); chunk++) {
+                int[] entities = table.getEntities(chunk);
+                Object[] components = table.getColumnChunk((TableComponentMapper<?>) mapperA, chunk);
+                for (int i = 0; i < table.getRowCount(chunk); i++) {
+                    Assertions.assertEquals(entities[i], ((A) components[i]).value);
+                    iterated.add(entities[i]);
+                }
+            }
+        });
+        Assertions.assertEquals(Set.of(1, 2, 3, 4), iterated);
+        Assertions.assertThrows(IllegalStateException.class, () -> mapperB.put(2, new B()));
+
+        // Compaction moves the entity 4 into the id 0, keeping its row
+
+        Assertions.assertEquals(1, manager.compact());
+        Assertions.assertEquals(4, mapperA.get(0).value);
+        Assertions.assertNull(mapperA.getIfExists(4));
+        iterated.clear();
+        storage.forEachTable(subscriberA.getSubscription(), table -> {
+            for (int chunk = 0; chunk < table.getChunkCount(); chunk++) {
+                int[] entities = table.getEntities(chunk);
+                for (int i = 0; i < table.getRowCount(chunk); i++) {
+                    iterated.add(entities[i]);
+                }
+            }
+        });
+        Assertions.assertEquals(Set.of(0, 1, 2, 3), iterated);
+    }
+}
@@ -30,6 +30,7 @@ public class SubscriptionLogger implements SubscriptionListener {
     private List<Integer> addLog = new ArrayList<>();
     private List<Integer> removeLog = new ArrayList<>();
     private List<Integer> changeLog = new ArrayList<>();
+    private List<Integer> moveLog = new ArrayList<>();
     private List<Transmutation> transmutationLog = new ArrayList<>();
 
     @Override
@@ -48,6 +49,12 @@ public class SubscriptionLogger implements SubscriptionListener {
         transmutationLog.add(transmutation);
     }
 
+    @Override
+    public void moved(int fromEntity, int toEntity) {
+        moveLog.add(fromEntity);
+        moveLog.add(toEntity);
+    }
+
     public void assertAddLog(int... ids) {
         assertLog(addLog, ids);
     }
@@ -60,6 +67,13 @@ public class SubscriptionLogger implements SubscriptionListener {
         assertLog(changeLog, ids);
     }
 
+    /**
+     * @param ids the logged moves, as pairs of previous and new ids
+     */
+    public void assertMoveLog(int... ids) {
+        assertLog(moveLog, ids);
+    }
+
     public void assertTransmutationLog(Transmutation... transmutations) {
         Assertions.assertArrayEquals(transmutations, transmutationLog.toArray());
     }
@@ -72,6 +86,7 @@ public class SubscriptionLogger implements SubscriptionListener {
         addLog.clear();
         removeLog.clear();
         changeLog.clear();
+        moveLog.clear();
         transmutationLog.clear();
     }
 }
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class BitsTest {
+
+    @Test
+    void test() {
+        long[] bits = new long[Bits.wordCount(130)];
+        Assertions.assertEquals(3, bits.length);
+        Bits.set(bits, 3);
+        Bits.set(bits, 64);
+        Bits.set(bits, 129);
+
+        Assertions.assertTrue(Bits.get(bits, 64));
+        Assertions.assertFalse(Bits.get(bits, 65));
+        Assertions.assertFalse(Bits.get(bits, 1000));
+        Assertions.assertEquals(3, Bits.cardinality(bits));
+
+        long[] subset = new long[2];
+        Bits.set(subset, 64);
+        Assertions.assertTrue(Bits.containsAll(bits, subset));
+        Assertions.assertTrue(Bits.intersects(bits, subset));
+        Assertions.assertFalse(Bits.containsAll(subset, bits));
+
+        long[] other = new long[1];
+        Bits.set(other, 4);
+        Assertions.assertFalse(Bits.intersects(bits, other));
+        Assertions.assertTrue(Bits.containsAll(bits, new long[0]));
+    }
+}
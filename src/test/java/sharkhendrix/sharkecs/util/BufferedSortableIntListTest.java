@@ -0,0 +1,109 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.util;
+
+import org.junit.jupiter.api.Test;
+import sharkhendrix.sharkecs.testutil.TestUtil;
+
+class BufferedSortableIntListTest {
+
+    @Test
+    void test() {
+        int[] order = new int[]{0, 1, 2, 3, 4};
+
+        BufferedSortableIntList list = new BufferedSortableIntList(10, (e1, e2) -> order[e1] - order[e2]);
+
+        list.add(3);
+        list.add(1);
+        list.add(2);
+        list.add(0);
+        list.add(4);
+
+        IntIterator it = list.iterator();
+        TestUtil.assertIterator(it);
+        list.sort();
+        it.reset();
+        TestUtil.assertIterator(it, 0, 1, 2, 3, 4);
+
+        order[0] = 1;
+        order[1] = 0;
+        order[2] = 3;
+        order[3] = 4;
+        order[4] = 2;
+        list.remove(4);
+        list.sort();
+        it.reset();
+        TestUtil.assertIterator(it, 1, 0, 2, 3);
+        list.remove(0);
+        list.remove(1);
+        list.remove(2);
+        list.remove(3);
+        list.sort();
+        it.reset();
+        TestUtil.assertIterator(it);
+    }
+
+    @Test
+    void pendingTest() {
+        BufferedSortableIntList list = new BufferedSortableIntList(2, Integer::compare);
+        for (int i = 10; i >= 0; i -= 2) {
+            list.add(i);
+        }
+        list.sort();
+        list.add(5);
+        list.remove(5);
+        list.remove(4);
+        list.add(4);
+        list.add(3);
+        list.remove(10);
+        list.add(11);
+        list.sort();
+        TestUtil.assertIterator(list.iterator(), 0, 2, 3, 4, 6, 8, 11);
+    }
+
+    @Test
+    void shrinkTest() {
+        BufferedSortableIntList list = new BufferedSortableIntList(2, Integer::compare);
+        list.add(100);
+        list.add(1);
+        list.sort();
+        list.remove(100);
+        list.add(0);
+
+        list.shrink(4);
+        list.sort();
+        TestUtil.assertIterator(list.iterator(), 0, 1);
+
+        list.remove(1);
+        list.sort();
+        TestUtil.assertIterator(list.iterator(), 0);
+    }
+
+    @Test
+    void removeAbsentTest() {
+        BufferedSortableIntList list = new BufferedSortableIntList(2, Integer::compare);
+        list.add(2);
+        list.add(1);
+        list.remove(7);
+        list.sort();
+        TestUtil.assertIterator(list.iterator(), 1, 2);
+
+        list.add(7);
+        list.sort();
+        TestUtil.assertIterator(list.iterator(), 1, 2, 7);
+    }
+}
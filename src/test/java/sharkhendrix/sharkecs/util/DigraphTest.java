@@ -71,4 +71,23 @@ class DigraphTest {
 
         Assertions.assertThrows(GraphCycleException.class, () -> digraph2.topologicalSort());
     }
+
+    @Test
+    void hasPathTest() {
+        String o1 = "o1";
+        String o2 = "o2";
+        String o3 = "o3";
+        String o4 = "o4";
+        Digraph<Object> digraph = new Digraph<>();
+
+        digraph.addEdge(o1, o2);
+        digraph.addEdge(o2, o3);
+        digraph.addEdge(o4, o3);
+
+        Assertions.assertTrue(digraph.hasPath(o1, o2));
+        Assertions.assertTrue(digraph.hasPath(o1, o3));
+        Assertions.assertFalse(digraph.hasPath(o3, o1));
+        Assertions.assertFalse(digraph.hasPath(o1, o4));
+        Assertions.assertFalse(digraph.hasPath(o1, "unknown"));
+    }
 }
@@ -109,4 +109,17 @@ class IntBagTest {
         bag.remove(0);
         Assertions.assertTrue(bag.isEmpty());
     }
+
+    @Test
+    void iteratorSkipTest() {
+        IntBag bag = new IntBag(4);
+        for (int i = 0; i < 5; i++) {
+            bag.add(i * 10);
+        }
+        IntIterator it = bag.iterator();
+        it.skip(3);
+        Assertions.assertEquals(30, it.next());
+        Assertions.assertEquals(40, it.next());
+        Assertions.assertFalse(it.hasNext());
+    }
 }
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+class IntSortTest {
+
+    private static final int[] SIZES = {0, 1, 2, 31, 32, 33, 100, 1000, 10_000};
+
+    @Test
+    void mergeSortTest() {
+        Random random = new Random(42);
+        IntSort sort = new IntSort();
+        for (int size : SIZES) {
+            int[] keys = randomKeys(random, size, size / 4 + 1);
+            IntComparator comparator = (i1, i2) -> Integer.compare(keys[i1], keys[i2]);
+            for (int[] array : inputs(random, size, comparator)) {
+                sort.mergeSort(array, 0, size, comparator);
+                assertStablySorted(array, keys);
+            }
+        }
+    }
+
+    @Test
+    void radixSortTest() {
+        Random random = new Random(42);
+        IntSort sort = new IntSort();
+        for (int size : SIZES) {
+            int[] keys = randomKeys(random, size, Integer.MAX_VALUE);
+            for (int i = 0; i < size; i += 2) {
+                keys[i] = -keys[i];
+            }
+            IntKeyComparator comparator = i -> keys[i];
+            for (int[] array : inputs(random, size, comparator)) {
+                sort.radixSortByInt(array, 0, size, comparator);
+                assertStablySorted(array, keys);
+            }
+        }
+    }
+
+    @Test
+    void floatRadixSortTest() {
+        float[] keys = {0.5f, -0.0f, 0f, -3.25f, Float.NEGATIVE_INFINITY, 12f, -0.5f, Float.MAX_VALUE, 0.5f, -1e-30f};
+        int[] array = identity(keys.length);
+        FloatKeyComparator comparator = i -> keys[i];
+        new IntSort().radixSortByFloat(array, 0, array.length, comparator);
+        for (int i = 1; i < array.length; i++) {
+            Assertions.assertTrue(comparator.compare(array[i - 1], array[i]) <= 0);
+        }
+        Assertions.assertArrayEquals(new int[]{4, 3, 6, 9, 1, 2, 0, 8, 5, 7}, array);
+    }
+
+    @Test
+    void sortRangeTest() {
+        int[] keys = {5, 4, 3, 2, 1, 0};
+        int[] array = identity(keys.length);
+        IntSort sort = new IntSort();
+        sort.sort(array, 1, 5, (i1, i2) -> Integer.compare(keys[i1], keys[i2]));
+        Assertions.assertArrayEquals(new int[]{0, 4, 3, 2, 1, 5}, array);
+    }
+
+    @Test
+    void adaptiveSortTest() {
+        Random random = new Random(42);
+        IntSort sort = new IntSort();
+        int[] keys = randomKeys(random, 10_000, 1000);
+        IntComparator comparator = (i1, i2) -> Integer.compare(keys[i1], keys[i2]);
+        IntKeyComparator keyComparator = i -> keys[i];
+        for (IntComparator c : new IntComparator[]{comparator, keyComparator}) {
+            for (int[] array : inputs(random, keys.length, c)) {
+                sort.sort(array, 0, array.length, c);
+                assertStablySorted(array, keys);
+            }
+        }
+    }
+
+    private int[][] inputs(Random random, int size, IntComparator comparator) {
+        int[] ascending = identity(size);
+        IntSort.insertionSort(ascending, 0, size, comparator);
+        int[] descending = new int[size];
+        for (int i = 0; i < size; i++) {
+            descending[i] = ascending[size - 1 - i];
+        }
+        int[] almostSorted = ascending.clone();
+        for (int i = 0; i < size / 20; i++) {
+            swap(almostSorted, random.nextInt(size), random.nextInt(size));
+        }
+        int[] shuffled = identity(size);
+        for (int i = size - 1; i > 0; i--) {
+            swap(shuffled, i, random.nextInt(i + 1));
+        }
+        return new int[][]{identity(size), ascending, descending, almostSorted, shuffled};
+    }
+
+    private void assertStablySorted(int[] array, int[] keys) {
+        Integer[] expected = Arrays.stream(array).boxed().toArray(Integer[]::new);
+        Arrays.sort(expected, Comparator.<Integer>comparingInt(i -> keys[i]).thenComparingInt(i -> i));
+        int[] actual = array.clone();
+        // Ties keep their relative order, sort them by value to compare with the expected order
+        for (int start = 0, end; start < actual.length; start = end) {
+            end = start + 1;
+            while (end < actual.length && keys[actual[end]] == keys[actual[start]]) {
+                end++;
+            }
+            Arrays.sort(actual, start, end);
+        }
+        Assertions.assertArrayEquals(Arrays.stream(expected).mapToInt(i -> i).toArray(), actual);
+    }
+
+    private int[] randomKeys(Random random, int size, int bound) {
+        int[] keys = new int[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = random.nextInt(bound);
+        }
+        return keys;
+    }
+
+    private int[] identity(int size) {
+        int[] array = new int[size];
+        for (int i = 0; i < size; i++) {
+            array[i] = i;
+        }
+        return array;
+    }
+
+    private void swap(int[] array, int i, int j) {
+        int tmp = array[i];
+        array[i] = array[j];
+        array[j] = tmp;
+    }
+}
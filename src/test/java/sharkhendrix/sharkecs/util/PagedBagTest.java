@@ -0,0 +1,64 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class PagedBagTest {
+
+    @Test
+    void test() {
+        PagedBag<String> bag = new PagedBag<>(2);
+        bag.add("a");
+        bag.add("b");
+        bag.add("c");
+        Assertions.assertEquals(3, bag.size());
+        Assertions.assertEquals("c", bag.get(2));
+        Assertions.assertEquals("c", bag.remove(0));
+        Assertions.assertEquals("c", bag.get(0));
+        Assertions.assertEquals("b", bag.removeLast());
+        Assertions.assertEquals(1, bag.size());
+
+        Bag<String> other = new Bag<>(1);
+        other.addAll(bag);
+        Assertions.assertEquals("c", other.get(0));
+    }
+
+    @Test
+    void sparseTest() {
+        PagedBag<String> bag = new PagedBag<>(4);
+        bag.put(1000, "x");
+        Assertions.assertEquals("x", bag.get(1000));
+        Assertions.assertNull(bag.getOrNull(500));
+        Assertions.assertNull(bag.getOrNull(5000));
+        Assertions.assertEquals(1, bag.getPageCount());
+
+        bag.unsafeSet(1000, null);
+        bag.releaseEmptyPages();
+        Assertions.assertEquals(0, bag.getPageCount());
+        Assertions.assertNull(bag.getOrNull(1000));
+    }
+
+    @Test
+    void nextOrAddTest() {
+        PagedBag<Object> bag = new PagedBag<>(2);
+        Object first = bag.nextOrAdd(Object::new);
+        bag.clear();
+        Assertions.assertSame(first, bag.nextOrAdd(Object::new));
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import sharkhendrix.sharkecs.testutil.BagTestUtils;
+
+class PagedIntBagTest {
+
+    @Test
+    void addTest() {
+        PagedIntBag bag = new PagedIntBag(2);
+        for (int i = 0; i < 7; i++) {
+            bag.add(i * 10);
+        }
+        BagTestUtils.assertBagEquals(bag, 0, 10, 20, 30, 40, 50, 60);
+        Assertions.assertEquals(4, bag.getPageCount());
+        Assertions.assertArrayEquals(new int[]{0, 10, 20, 30, 40, 50, 60}, bag.toArray());
+    }
+
+    @Test
+    void addAllTest() {
+        IntBag bag = new IntBag(2);
+        PagedIntBag paged = new PagedIntBag(2);
+        bag.add(1);
+        paged.add(4);
+        paged.add(8);
+        paged.add(16);
+
+        bag.addAll(paged);
+        paged.addAll(bag);
+
+        BagTestUtils.assertBagEquals(bag, 1, 4, 8, 16);
+        BagTestUtils.assertBagEquals(paged, 4, 8, 16, 1, 4, 8, 16);
+        paged.addAll(new IntBag(0));
+        Assertions.assertEquals(7, paged.size());
+    }
+
+    @Test
+    void removeAndInsertTest() {
+        PagedIntBag bag = new PagedIntBag(2);
+        bag.add(1);
+        bag.add(2);
+        bag.add(4);
+        bag.add(8);
+
+        Assertions.assertEquals(8, bag.remove(1));
+        BagTestUtils.assertBagEquals(bag, 1, 8, 4);
+        Assertions.assertEquals(4, bag.removeLast());
+        bag.insert(0, 3);
+        BagTestUtils.assertBagEquals(bag, 3, 1, 8);
+        bag.removeKeepOrder(0);
+        BagTestUtils.assertBagEquals(bag, 1, 8);
+    }
+
+    @Test
+    void putAndTrimTest() {
+        PagedIntBag bag = new PagedIntBag(4);
+        bag.put(1, 10);
+        bag.put(13, 20);
+        BagTestUtils.assertBagEquals(false, bag, 0, 10, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 20);
+        Assertions.assertEquals(16, bag.capacity());
+        Assertions.assertThrows(UnsupportedOperationException.class, bag::getData);
+
+        bag.set(2, 5);
+        bag.trim();
+        Assertions.assertEquals(4, bag.capacity());
+        Assertions.assertEquals(1, bag.getPageCount());
+        BagTestUtils.assertBagEquals(bag, 0, 10, 5);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+class ParallelIntSortTest {
+
+    @Test
+    void test() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        Random random = new Random(42);
+        int size = 200_000;
+        int[] keys = new int[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = random.nextInt(size / 8);
+        }
+        IntComparator comparator = (i1, i2) -> Integer.compare(keys[i1], keys[i2]);
+        int[] array = new int[size + 2];
+        for (int i = 0; i < size; i++) {
+            array[i + 1] = i;
+        }
+        for (int i = size; i > 1; i--) {
+            int j = random.nextInt(i) + 1;
+            int tmp = array[i];
+            array[i] = array[j];
+            array[j] = tmp;
+        }
+        array[0] = -1;
+        array[size + 1] = -2;
+        int[] expected = array.clone();
+        new IntSort().mergeSort(expected, 1, size + 1, comparator);
+
+        new ParallelIntSort(pool, 1000).sort(array, 1, size + 1, comparator);
+
+        Assertions.assertArrayEquals(expected, array);
+        pool.shutdown();
+    }
+
+    @Test
+    void sortedListTest() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        int[] order = new int[50_000];
+        BufferedSortableIntList list = new BufferedSortableIntList(10, (e1, e2) -> order[e1] - order[e2],
+                new ParallelIntSort(pool, 10_000));
+        for (int i = 0; i < order.length; i++) {
+            order[i] = order.length - i;
+            list.add(i);
+        }
+        list.sort();
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        list.sort();
+        IntIterator iterator = list.iterator();
+        for (int i = 0; i < order.length; i++) {
+            Assertions.assertEquals(i, iterator.next());
+        }
+        Assertions.assertFalse(iterator.hasNext());
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2024 Joannick Gardize
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package sharkhendrix.sharkecs.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class RollingHistogramTest {
+
+    @Test
+    void test() {
+        RollingHistogram histogram = new RollingHistogram(4);
+        Assertions.assertEquals(0, histogram.getPercentile(50));
+
+        for (int i = 1; i <= 6; i++) {
+            histogram.record(i * 10);
+        }
+
+        Assertions.assertEquals(6, histogram.getCount());
+        Assertions.assertEquals(4, histogram.size());
+        Assertions.assertEquals(60, histogram.getLast());
+        Assertions.assertEquals(30, histogram.getMin());
+        Assertions.assertEquals(60, histogram.getMax());
+        Assertions.assertEquals(45, histogram.getMean());
+        Assertions.assertEquals(40, histogram.getPercentile(50));
+        Assertions.assertEquals(60, histogram.getPercentile(99));
+        Assertions.assertEquals(30, histogram.getPercentile(0));
+
+        histogram.clear();
+        Assertions.assertEquals(0, histogram.size());
+        Assertions.assertEquals(0, histogram.getLast());
+    }
+}